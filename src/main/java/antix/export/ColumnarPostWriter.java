@@ -0,0 +1,114 @@
+package antix.export;
+
+import antix.model.SocialMediaPost;
+import antix.model.Tag;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Export en colonnes, regroupées par blocs de {@value #ROW_GROUP} posts
+ * (même principe que les « row groups » de Parquet, sans compression) :
+ * un outil d'analyse peut ne lire que les colonnes qui l'intéressent.
+ * <pre>
+ * "ANTIXCOL" | version (int) | nb colonnes (short) | (nom, type)*
+ * bloc* : nb lignes (int) | (taille (int), valeurs de la colonne)*
+ * fin   : 0 (int)
+ * </pre>
+ * Types : 'S' chaîne (int longueur en octets UTF-8, -1 si null, puis octets),
+ * 'I' int, 'L' long. Seul le bloc en cours est gardé en mémoire.
+ */
+public class ColumnarPostWriter implements PostWriter {
+
+    /** Nombre de posts par bloc. */
+    public static final int ROW_GROUP = 1024;
+
+    private static final byte[] MAGIC = "ANTIXCOL".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    private static final String[] NAMES = CsvPostWriter.COLUMNS;
+    private static final char[] TYPES = {
+            'S', 'S', 'L', 'S', 'S', 'S', 'I', 'I', 'I', 'I', 'S', 'S', 'S' };
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[NAMES.length];
+    private final DataOutputStream[] columns = new DataOutputStream[NAMES.length];
+    private int rows;
+
+    public ColumnarPostWriter(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+        for (int i = 0; i < NAMES.length; i++) {
+            buffers[i] = new ByteArrayOutputStream(4 * 1024);
+            columns[i] = new DataOutputStream(buffers[i]);
+        }
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+        out.writeShort(NAMES.length);
+        for (int i = 0; i < NAMES.length; i++) {
+            out.writeUTF(NAMES[i]);
+            out.writeByte(TYPES[i]);
+        }
+    }
+
+    @Override
+    public void write(SocialMediaPost post) throws IOException {
+        string(0, post.getPlatform());
+        string(1, post.getId());
+        columns[2].writeLong(post.getCreatedUtc());
+        string(3, post.getAuthor());
+        string(4, post.getTitle());
+        string(5, post.getSubreddit());
+        columns[6].writeInt(post.getScore());
+        columns[7].writeInt(post.getNumComments());
+        columns[8].writeInt(post.getLikeCount());
+        columns[9].writeInt(post.getShareCount());
+        string(10, post.getUrl());
+        StringBuilder tags = new StringBuilder();
+        for (Tag tag : post.getTags()) {
+            if (!tags.isEmpty()) {
+                tags.append(' ');
+            }
+            tags.append(tag.getName());
+        }
+        string(11, tags.toString());
+        string(12, post.getContent());
+        if (++rows == ROW_GROUP) {
+            flushGroup();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushGroup();
+        out.writeInt(0);
+        out.flush();
+    }
+
+    private void string(int column, String value) throws IOException {
+        if (value == null) {
+            columns[column].writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        columns[column].writeInt(bytes.length);
+        columns[column].write(bytes);
+    }
+
+    // Écrit le bloc en cours, colonne par colonne, et réutilise les tampons
+    private void flushGroup() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        out.writeInt(rows);
+        for (ByteArrayOutputStream buffer : buffers) {
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+        rows = 0;
+    }
+}
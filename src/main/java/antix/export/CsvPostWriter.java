@@ -0,0 +1,97 @@
+package antix.export;
+
+import antix.model.SocialMediaPost;
+import antix.model.Tag;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Export CSV (séparateur virgule, fins de ligne CRLF, RFC 4180). Les tags
+ * sont regroupés dans une colonne, séparés par des espaces.
+ */
+public class CsvPostWriter implements PostWriter {
+
+    // Colonnes exportées, dans l'ordre (partagées avec l'export en colonnes)
+    static final String[] COLUMNS = {
+            "platform", "id", "created_utc", "author", "title", "subreddit", "score", "num_comments",
+            "like_count", "share_count", "url", "tags", "content" };
+
+    private final Writer out;
+
+    public CsvPostWriter(OutputStream stream) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(COLUMNS[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void write(SocialMediaPost post) throws IOException {
+        field(post.getPlatform());
+        out.write(',');
+        field(post.getId());
+        out.write(',');
+        out.write(Long.toString(post.getCreatedUtc()));
+        out.write(',');
+        field(post.getAuthor());
+        out.write(',');
+        field(post.getTitle());
+        out.write(',');
+        field(post.getSubreddit());
+        out.write(',');
+        out.write(Integer.toString(post.getScore()));
+        out.write(',');
+        out.write(Integer.toString(post.getNumComments()));
+        out.write(',');
+        out.write(Integer.toString(post.getLikeCount()));
+        out.write(',');
+        out.write(Integer.toString(post.getShareCount()));
+        out.write(',');
+        field(post.getUrl());
+        out.write(',');
+        StringBuilder tags = new StringBuilder();
+        for (Tag tag : post.getTags()) {
+            if (!tags.isEmpty()) {
+                tags.append(' ');
+            }
+            tags.append(tag.getName());
+        }
+        field(tags.toString());
+        out.write(',');
+        field(post.getContent());
+        out.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    // Entoure de guillemets les valeurs contenant un séparateur, un guillemet ou un saut de ligne
+    private void field(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,62 @@
+package antix.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Formats d'export des posts (commande export).
+ */
+public enum ExportFormat {
+
+    /** Une ligne par post, valeurs entre guillemets si besoin (RFC 4180). */
+    CSV("csv", "text/csv;charset=utf-8"),
+    /** Un objet JSON par ligne. */
+    JSONL("jsonl", "application/x-ndjson"),
+    /** Colonnes regroupées par blocs de lignes (voir {@link ColumnarPostWriter}). */
+    COLUMNAR("antixcol", "application/octet-stream");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Ouvre un export sur un flux.
+     *
+     * @param out Flux de sortie (non fermé par l'export).
+     * @return Écriture post par post.
+     */
+    public PostWriter open(OutputStream out) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvPostWriter(out);
+            case JSONL -> new JsonlPostWriter(out);
+            case COLUMNAR -> new ColumnarPostWriter(out);
+        };
+    }
+
+    /**
+     * Format correspondant à un nom saisi (csv, jsonl, columnar).
+     *
+     * @param name Nom du format.
+     */
+    public static Optional<ExportFormat> parse(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,64 @@
+package antix.export;
+
+import antix.model.SocialMediaPost;
+import antix.model.Tag;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Export JSON Lines : un objet par post, une ligne par objet. Écrit avec le
+ * générateur de flux de Jackson, sans construire d'arbre.
+ */
+public class JsonlPostWriter implements PostWriter {
+
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    private final JsonGenerator json;
+    private boolean empty = true;
+
+    public JsonlPostWriter(OutputStream stream) throws IOException {
+        this.json = FACTORY.createGenerator(new BufferedOutputStream(stream, 64 * 1024), JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Séparateur racine : un objet par ligne
+        json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+
+    @Override
+    public void write(SocialMediaPost post) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("platform", post.getPlatform());
+        json.writeStringField("id", post.getId());
+        json.writeNumberField("created_utc", post.getCreatedUtc());
+        json.writeStringField("author", post.getAuthor());
+        json.writeStringField("title", post.getTitle());
+        json.writeStringField("subreddit", post.getSubreddit());
+        json.writeNumberField("score", post.getScore());
+        json.writeNumberField("num_comments", post.getNumComments());
+        json.writeNumberField("like_count", post.getLikeCount());
+        json.writeNumberField("share_count", post.getShareCount());
+        json.writeStringField("url", post.getUrl());
+        json.writeArrayFieldStart("tags");
+        for (Tag tag : post.getTags()) {
+            json.writeString(tag.getName());
+        }
+        json.writeEndArray();
+        json.writeStringField("content", post.getContent());
+        json.writeEndObject();
+        empty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!empty) {
+            json.writeRaw('\n');
+        }
+        json.close();
+    }
+}
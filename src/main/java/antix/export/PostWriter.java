@@ -0,0 +1,22 @@
+package antix.export;
+
+import antix.model.SocialMediaPost;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Écriture d'un export post par post. Seul un tampon borné est gardé en
+ * mémoire : la taille de l'export ne dépend que du flux de sortie.
+ * {@link #close()} termine l'export (dernier bloc, vidage du tampon) sans
+ * fermer le flux sous-jacent.
+ */
+public interface PostWriter extends Closeable {
+
+    /**
+     * Ajoute un post à l'export.
+     *
+     * @param post Post exporté.
+     */
+    void write(SocialMediaPost post) throws IOException;
+}
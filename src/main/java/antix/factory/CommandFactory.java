@@ -1,15 +1,20 @@
 package antix.factory;
 
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
+import antix.service.FavoriteService;
+import antix.service.SeenPostService;
+import antix.views.main.ArchiveTagFetcher;
+import antix.views.main.CommandHistory;
 import antix.views.main.PostSelector;
+import antix.views.main.SessionFootprint;
 import antix.views.main.commands.*;
 
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Supplier;
 
 /**
  * Fabrique centralisée pour construire toutes les commandes disponibles.
@@ -21,44 +26,60 @@ public class CommandFactory {
      * Construit l'ensemble des commandes disponibles.
      *
      * @param grid         Grille d'affichage des posts.
+     * @param results      Posts affichés dans la grille (indexés par id).
      * @param contentDiv   Div utilisé pour afficher du contenu (HTML,
      *                     formulaire...).
      * @param selector     Sélecteur de post à afficher.
-     * @param favoris      Liste des favoris à mettre à jour.
-     * @param resetFetcher Fonction de récupération initiale (ex: tag par défaut).
-     * @param tagFetcher   Fonction de récupération des posts par hashtag.
+     * @param favorites    Favoris persistés.
+     * @param owner        Identifiant de l'utilisateur (propriétaire des favoris).
+     * @param defaultTag   Tag rechargé par la commande reset.
+     * @param tagFetcher   Récupération des posts par hashtag, plateforme par
+     *                     plateforme ou depuis l'archive (hors du thread UI).
+     * @param commandesTapees Historique des commandes saisies.
+     * @param postIndex    Index des posts chargés dans la session.
+     * @param footprint    Empreinte mémoire de la session (commande stats).
+     * @param seenPosts    Posts déjà vus par l'utilisateur (mode {@code h <tag> new}).
      * @return Map des commandes associées à leurs mots-clés.
      */
     public static Map<String, Command> build(
             Grid<SocialMediaPost> grid,
+            PostResultSet results,
             Div contentDiv,
             PostSelector selector,
-            List<SocialMediaPost> favoris,
-            Supplier<List<SocialMediaPost>> resetFetcher,
-            Function<String, List<SocialMediaPost>> tagFetcher,
-            List<String> commandesTapees) {
+            FavoriteService favorites,
+            String owner,
+            String defaultTag,
+            ArchiveTagFetcher tagFetcher,
+            CommandHistory commandesTapees,
+            PostIndex postIndex,
+            SessionFootprint footprint,
+            SeenPostService seenPosts) {
         Map<String, Command> commands = new LinkedHashMap<>();
 
-        addCommands(new ResetCommand(grid, resetFetcher, selector), commands);
-        addCommands(new FilterCommand(grid, selector), commands);
-        addCommands(new SelectByIdCommand(grid, selector), commands);
-        addCommands(new ContentSearchCommand(grid, selector), commands);
-        addCommands(new HashtagCommand(grid, tagFetcher, selector), commands);
+        addCommands(new ResetCommand(results, tagFetcher, defaultTag, selector, postIndex), commands);
+        addCommands(new FilterCommand(results, selector, postIndex), commands);
+        addCommands(new SelectByIdCommand(results, selector), commands);
+        addCommands(new ContentSearchCommand(results, selector), commands);
+        addCommands(new HashtagCommand(results, tagFetcher, selector, postIndex, seenPosts, owner), commands);
         addCommands(new LinkCommand(grid, contentDiv), commands);
-        addCommands(new FavCommand(grid, favoris), commands);
+        addCommands(new FavCommand(grid, favorites, owner), commands);
+        addCommands(new FavsCommand(favorites, owner, contentDiv), commands);
         addCommands(new HelpCommand(commands, contentDiv), commands);
-        addCommands(new NextCommand(grid, selector), commands);
-        addCommands(new PreviousCommand(grid, selector), commands);
-        addCommands(new TopCommand(grid, selector), commands);
-        addCommands(new BottomCommand(grid, selector), commands);
-        PlayCommand play = new PlayCommand(grid);
+        addCommands(new NextCommand(grid, results, selector), commands);
+        addCommands(new PreviousCommand(grid, results, selector), commands);
+        addCommands(new TopCommand(grid, results, selector), commands);
+        addCommands(new BottomCommand(grid, results, selector), commands);
+        PlayCommand play = new PlayCommand(grid, results);
         addCommands(play, commands);
         addCommands(new StopCommand(play), commands);
-        addCommands(new GotoCommand(grid, selector), commands);
-        addCommands(new SortCommand(grid, selector), commands);
-        addCommands(new TagListCommand(grid, contentDiv), commands);
+        addCommands(new GotoCommand(grid, results, selector), commands);
+        addCommands(new SortCommand(results, selector, postIndex), commands);
+        addCommands(new TagListCommand(results, contentDiv), commands);
         addCommands(new HistoryCommand(grid, selector, commandesTapees, contentDiv), commands);
         addCommands(new OpenCommand(grid, contentDiv), commands);
+        addCommands(new StatsCommand(contentDiv, footprint), commands);
+        addCommands(new SourceCommand(tagFetcher), commands);
+        addCommands(new ExportCommand(results, tagFetcher.getArchive(), contentDiv), commands);
         return commands;
     }
 
@@ -0,0 +1,151 @@
+package antix.index;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filtre de Bloom sur des clés textuelles (plateforme:id).
+ * <p>
+ * Répond « peut-être présent » ou « sûrement absent » sans stocker les clés :
+ * environ 9,6 bits par clé pour 1 % de faux positifs. Les k positions d'une
+ * clé sont dérivées de deux empreintes 64 bits (double hachage de
+ * Kirsch-Mitzenmacher). Non synchronisé.
+ */
+public final class BloomFilter {
+
+    private static final byte VERSION = 1;
+
+    private final long[] words;
+    private final int bitCount;
+    private final int hashes;
+    private int count;
+
+    private BloomFilter(long[] words, int bitCount, int hashes, int count) {
+        this.words = words;
+        this.bitCount = bitCount;
+        this.hashes = hashes;
+        this.count = count;
+    }
+
+    /**
+     * Filtre dimensionné pour un nombre de clés et un taux de faux positifs.
+     *
+     * @param capacity Nombre de clés attendues.
+     * @param fpp      Taux de faux positifs visé à pleine capacité (ex : 0.01).
+     * @return Filtre vide.
+     */
+    public static BloomFilter forCapacity(int capacity, double fpp) {
+        int n = Math.max(1, capacity);
+        double p = Math.min(0.5, Math.max(1e-6, fpp));
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / n * Math.log(2))));
+        return new BloomFilter(new long[(bitCount + 63) >>> 6], bitCount, hashes, 0);
+    }
+
+    /**
+     * Ajoute une clé.
+     *
+     * @param key Clé ajoutée.
+     * @return true si la clé était absente (au moins un bit a changé).
+     */
+    public boolean add(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            if ((words[bit >>> 6] & mask) == 0) {
+                words[bit >>> 6] |= mask;
+                changed = true;
+            }
+        }
+        if (changed) {
+            count++;
+        }
+        return changed;
+    }
+
+    /**
+     * true si la clé a peut-être été ajoutée ; false si elle ne l'a sûrement pas été.
+     *
+     * @param key Clé testée.
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Nombre de clés distinctes ajoutées (approché : les faux positifs ne comptent pas). */
+    public int count() {
+        return count;
+    }
+
+    /** Taille du filtre sérialisé, en octets. */
+    public int sizeInBytes() {
+        return 1 + 4 + 4 + 4 + words.length * 8;
+    }
+
+    /**
+     * Sérialise le filtre à la position courante du tampon.
+     *
+     * @param out Tampon d'au moins {@link #sizeInBytes()} octets restants.
+     */
+    public void writeTo(ByteBuffer out) {
+        out.put(VERSION).putInt(bitCount).putInt(hashes).putInt(count);
+        for (long word : words) {
+            out.putLong(word);
+        }
+    }
+
+    /**
+     * Relit un filtre écrit par {@link #writeTo}.
+     *
+     * @param in Tampon positionné sur le filtre.
+     * @return Le filtre relu.
+     * @throws IllegalArgumentException si le format est inconnu ou corrompu.
+     */
+    public static BloomFilter readFrom(ByteBuffer in) {
+        if (in.remaining() < 13 || in.get() != VERSION) {
+            throw new IllegalArgumentException("Filtre de Bloom illisible");
+        }
+        int bitCount = in.getInt();
+        int hashes = in.getInt();
+        int count = in.getInt();
+        int length = (bitCount + 63) >>> 6;
+        if (bitCount <= 0 || hashes <= 0 || hashes > 16 || in.remaining() < length * 8L) {
+            throw new IllegalArgumentException("Filtre de Bloom corrompu");
+        }
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = in.getLong();
+        }
+        return new BloomFilter(words, bitCount, hashes, count);
+    }
+
+    // FNV-1a sur les caractères, puis mélange final de MurmurHash3
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
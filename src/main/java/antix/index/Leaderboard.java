@@ -0,0 +1,120 @@
+package antix.index;
+
+import antix.index.OrdinalSort.IntComparator;
+
+import java.util.Arrays;
+
+/**
+ * Classement des N meilleurs posts de l'index pour une clé de tri, tenu à jour
+ * à chaque post ajouté ou rafraîchi.
+ * <p>
+ * La lecture est immédiate tant que le classement est exact. Si un post du
+ * classement voit sa métrique baisser au point d'en occuper la dernière place,
+ * un post extérieur pourrait le dépasser : le classement est alors marqué
+ * invalide et reconstruit par {@link TopK} à la lecture suivante.
+ */
+public class Leaderboard {
+
+    private final PostIndex index;
+    private final OrdinalSort.SortKey key;
+    private final int capacity;
+    private final int[] ranks;
+    private int size;
+    private boolean dirty;
+
+    /**
+     * @param index    Index dont les posts sont classés.
+     * @param key      Clé de tri.
+     * @param capacity Nombre de places du classement.
+     */
+    public Leaderboard(PostIndex index, OrdinalSort.SortKey key, int capacity) {
+        this.index = index;
+        this.key = key;
+        this.capacity = capacity;
+        this.ranks = new int[capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public OrdinalSort.SortKey key() {
+        return key;
+    }
+
+    /** Comparateur lu sur les colonnes courantes (elles sont réallouées en grandissant). */
+    private IntComparator comparator() {
+        return key.comparator(index.columns()).then(Integer::compare);
+    }
+
+    /**
+     * Prend en compte un post ajouté ou dont les métriques ont changé.
+     *
+     * @param ordinal Ordinal du post.
+     */
+    public void update(int ordinal) {
+        if (dirty) {
+            return;
+        }
+        IntComparator cmp = comparator();
+        boolean wasRanked = false;
+        for (int i = 0; i < size; i++) {
+            if (ranks[i] == ordinal) {
+                System.arraycopy(ranks, i + 1, ranks, i, size - i - 1);
+                size--;
+                wasRanked = true;
+                break;
+            }
+        }
+        if (size == capacity && cmp.compare(ordinal, ranks[size - 1]) >= 0) {
+            return;
+        }
+        int pos = insertionPoint(ordinal, cmp);
+        if (size == capacity) {
+            size--;
+        }
+        System.arraycopy(ranks, pos, ranks, pos + 1, size - pos);
+        ranks[pos] = ordinal;
+        size++;
+        if (wasRanked && pos == size - 1 && index.size() > size) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Les k meilleurs posts (k borné par la capacité).
+     *
+     * @param k Nombre de places voulues.
+     * @return Ordinaux, du meilleur au moins bon.
+     */
+    public int[] top(int k) {
+        if (dirty) {
+            rebuild();
+        }
+        return Arrays.copyOf(ranks, Math.min(k, size));
+    }
+
+    private void rebuild() {
+        int[] all = new int[index.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        int[] best = TopK.select(all, all.length, capacity, comparator());
+        System.arraycopy(best, 0, ranks, 0, best.length);
+        size = best.length;
+        dirty = false;
+    }
+
+    private int insertionPoint(int ordinal, IntComparator cmp) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cmp.compare(ranks[mid], ordinal) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
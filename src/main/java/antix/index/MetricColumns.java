@@ -0,0 +1,102 @@
+package antix.index;
+
+import antix.model.SocialMediaPost;
+import antix.query.QueryMetric;
+
+import java.util.Arrays;
+
+/**
+ * Stockage en colonnes des métriques des posts indexés, aligné sur leurs
+ * ordinaux dans le {@link PostIndex}.
+ * <p>
+ * Chaque métrique est un tableau primitif : filtres et tris parcourent ces
+ * tableaux directement, sans passer par les getters de {@link SocialMediaPost}
+ * (ni par le repli likeCount / score de {@code getLikeCount()}).
+ */
+public class MetricColumns {
+
+    public static final byte PLATFORM_OTHER = 0;
+    public static final byte PLATFORM_REDDIT = 1;
+    public static final byte PLATFORM_MASTODON = 2;
+
+    private int[] likes = new int[64];
+    private int[] reposts = new int[64];
+    private int[] replies = new int[64];
+    private long[] createdUtc = new long[64];
+    private byte[] platforms = new byte[64];
+    private int size;
+
+    /**
+     * Code compact d'une plateforme.
+     *
+     * @param platform Nom de la plateforme.
+     * @return Code sur un octet.
+     */
+    public static byte platformCode(String platform) {
+        if ("reddit".equalsIgnoreCase(platform)) return PLATFORM_REDDIT;
+        if ("mastodon".equalsIgnoreCase(platform)) return PLATFORM_MASTODON;
+        return PLATFORM_OTHER;
+    }
+
+    /**
+     * Enregistre (ou rafraîchit) les métriques d'un post.
+     *
+     * @param ordinal Ordinal du post dans l'index.
+     * @param post    Post source.
+     */
+    public void set(int ordinal, SocialMediaPost post) {
+        ensureCapacity(ordinal + 1);
+        likes[ordinal] = post.getLikeCount();
+        reposts[ordinal] = post.getShareCount();
+        replies[ordinal] = post.getRepliesCount();
+        createdUtc[ordinal] = post.getCreatedUtc();
+        platforms[ordinal] = platformCode(post.getPlatform());
+        size = Math.max(size, ordinal + 1);
+    }
+
+    /**
+     * Colonne d'une métrique. Le tableau peut être plus long que le nombre de
+     * posts : seuls les indices inférieurs à {@link #size()} sont significatifs.
+     *
+     * @param metric Métrique demandée.
+     * @return Tableau des valeurs par ordinal.
+     */
+    public int[] column(QueryMetric metric) {
+        return switch (metric) {
+            case LIKES -> likes;
+            case REPOSTS -> reposts;
+            case REPLIES -> replies;
+        };
+    }
+
+    public long[] createdUtc() {
+        return createdUtc;
+    }
+
+    public byte[] platforms() {
+        return platforms;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empreinte mémoire des colonnes, en octets.
+     */
+    public long sizeInBytes() {
+        return likes.length * 4L * 3 + createdUtc.length * 8L + platforms.length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= likes.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, likes.length * 2);
+        likes = Arrays.copyOf(likes, newCapacity);
+        reposts = Arrays.copyOf(reposts, newCapacity);
+        replies = Arrays.copyOf(replies, newCapacity);
+        createdUtc = Arrays.copyOf(createdUtc, newCapacity);
+        platforms = Arrays.copyOf(platforms, newCapacity);
+    }
+}
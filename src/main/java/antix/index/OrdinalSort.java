@@ -0,0 +1,135 @@
+package antix.index;
+
+import antix.query.QueryMetric;
+
+import java.util.List;
+
+/**
+ * Tri d'ordinaux de posts sur les colonnes de {@link MetricColumns}.
+ * <p>
+ * Le tri est un tri fusion stable sur {@code int[]} : les comparaisons lisent
+ * directement les tableaux primitifs, sans objet intermédiaire. Plusieurs clés
+ * se combinent dans l'ordre (la première est prioritaire).
+ */
+public final class OrdinalSort {
+
+    /** Comparateur primitif de deux ordinaux. */
+    @FunctionalInterface
+    public interface IntComparator {
+        int compare(int a, int b);
+
+        default IntComparator then(IntComparator next) {
+            return (a, b) -> {
+                int c = compare(a, b);
+                return c != 0 ? c : next.compare(a, b);
+            };
+        }
+    }
+
+    /**
+     * Clé de tri : une métrique, ou la date si metric est null.
+     *
+     * @param metric    Métrique (null pour la date de création).
+     * @param ascending true pour un tri croissant.
+     */
+    public record SortKey(QueryMetric metric, boolean ascending) {
+
+        /**
+         * Lit une clé saisie par l'utilisateur : "likes", "date", "replies:asc"...
+         *
+         * @param text Texte de la clé.
+         * @return La clé, ou null si inconnue.
+         */
+        public static SortKey parse(String text) {
+            String[] parts = text.trim().toLowerCase().split(":", 2);
+            boolean ascending = parts.length > 1 && "asc".equals(parts[1]);
+            if ("date".equals(parts[0])) {
+                return new SortKey(null, ascending);
+            }
+            QueryMetric metric = QueryMetric.fromName(parts[0]);
+            return metric == null ? null : new SortKey(metric, ascending);
+        }
+
+        public String label() {
+            return (metric == null ? "date" : metric.getName()) + (ascending ? " ↑" : " ↓");
+        }
+
+        public IntComparator comparator(MetricColumns columns) {
+            IntComparator cmp;
+            if (metric == null) {
+                long[] dates = columns.createdUtc();
+                cmp = (a, b) -> Long.compare(dates[a], dates[b]);
+            } else {
+                int[] values = columns.column(metric);
+                cmp = (a, b) -> Integer.compare(values[a], values[b]);
+            }
+            if (ascending) {
+                return cmp;
+            }
+            IntComparator asc = cmp;
+            return (a, b) -> asc.compare(b, a);
+        }
+    }
+
+    private OrdinalSort() {}
+
+    /**
+     * Construit le comparateur correspondant à une liste de clés.
+     *
+     * @param columns Colonnes de métriques.
+     * @param keys    Clés de tri, par priorité décroissante.
+     * @return Comparateur primitif.
+     */
+    public static IntComparator comparator(MetricColumns columns, List<SortKey> keys) {
+        IntComparator cmp = (a, b) -> 0;
+        for (SortKey key : keys) {
+            cmp = cmp.then(key.comparator(columns));
+        }
+        return cmp;
+    }
+
+    /**
+     * Trie des ordinaux en place (tri stable).
+     *
+     * @param ordinals Ordinaux à trier.
+     * @param cmp      Comparateur.
+     */
+    public static void sort(int[] ordinals, IntComparator cmp) {
+        if (ordinals.length < 2) {
+            return;
+        }
+        int[] buffer = ordinals.clone();
+        mergeSort(buffer, ordinals, 0, ordinals.length, cmp);
+    }
+
+    /** Trie src[from, to) dans dst (src et dst ont le même contenu au départ). */
+    private static void mergeSort(int[] src, int[] dst, int from, int to, IntComparator cmp) {
+        int length = to - from;
+        if (length < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int v = dst[i];
+                int j = i - 1;
+                while (j >= from && cmp.compare(dst[j], v) > 0) {
+                    dst[j + 1] = dst[j];
+                    j--;
+                }
+                dst[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dst, src, from, mid, cmp);
+        mergeSort(dst, src, mid, to, cmp);
+        if (cmp.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, from, dst, from, length);
+            return;
+        }
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && cmp.compare(src[p], src[q]) <= 0)) {
+                dst[i] = src[p++];
+            } else {
+                dst[i] = src[q++];
+            }
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package antix.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmap compressé d'ordinaux de posts, inspiré de Roaring.
+ * <p>
+ * Les entiers sont répartis en conteneurs de 65 536 valeurs selon leurs 16 bits
+ * de poids fort. Un conteneur peu rempli est un tableau trié de {@code char},
+ * un conteneur dense (plus de 4096 valeurs) un bitmap de 1024 {@code long}.
+ * Les opérations ensemblistes (and / or / andNot) renvoient un nouveau bitmap
+ * et ne modifient jamais leurs opérandes.
+ */
+public final class PostBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public PostBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+
+    private PostBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Construit le bitmap contenant tous les ordinaux de 0 (inclus) à n (exclu).
+     *
+     * @param n Borne supérieure exclue.
+     * @return Bitmap plein.
+     */
+    public static PostBitmap range(int n) {
+        PostBitmap result = new PostBitmap();
+        for (int start = 0; start < n; start += 1 << 16) {
+            int end = Math.min(n, start + (1 << 16));
+            long[] words = new long[WORDS];
+            int count = end - start;
+            int full = count >>> 6;
+            Arrays.fill(words, 0, full, -1L);
+            if ((count & 63) != 0) {
+                words[full] = (1L << (count & 63)) - 1;
+            }
+            result.append((char) (start >>> 16), new BitmapContainer(words, count).shrink());
+        }
+        return result;
+    }
+
+    /**
+     * Construit un bitmap à partir d'ordinaux quelconques.
+     *
+     * @param ordinals Ordinaux à inclure.
+     * @return Bitmap correspondant.
+     */
+    public static PostBitmap of(int... ordinals) {
+        PostBitmap result = new PostBitmap();
+        for (int ordinal : ordinals) {
+            result.add(ordinal);
+        }
+        return result;
+    }
+
+    /**
+     * Ajoute un ordinal au bitmap.
+     *
+     * @param ordinal Ordinal positif.
+     */
+    public void add(int ordinal) {
+        char high = (char) (ordinal >>> 16);
+        int i = find(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) ordinal);
+        } else {
+            insert(-i - 1, high, new ArrayContainer().add((char) ordinal));
+        }
+    }
+
+    /**
+     * Retire un ordinal du bitmap.
+     *
+     * @param ordinal Ordinal à retirer.
+     */
+    public void remove(int ordinal) {
+        int i = find((char) (ordinal >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Container c = containers[i].remove((char) ordinal);
+        if (c.cardinality() == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            containers[i] = c;
+        }
+    }
+
+    public boolean contains(int ordinal) {
+        int i = find((char) (ordinal >>> 16));
+        return i >= 0 && containers[i].contains((char) ordinal);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Parcourt les ordinaux dans l'ordre croissant.
+     *
+     * @param consumer Action appliquée à chaque ordinal.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public int[] toArray() {
+        int[] out = new int[cardinality()];
+        int[] pos = {0};
+        forEach(v -> out[pos[0]++] = v);
+        return out;
+    }
+
+    /**
+     * Estimation de l'empreinte mémoire du bitmap, en octets.
+     *
+     * @return Taille approximative.
+     */
+    public long sizeInBytes() {
+        long bytes = 16L + keys.length * 2L + containers.length * 4L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    public PostBitmap copy() {
+        Container[] copied = new Container[Math.max(4, size)];
+        for (int i = 0; i < size; i++) {
+            copied[i] = containers[i].copy();
+        }
+        return new PostBitmap(Arrays.copyOf(keys, copied.length), copied, size);
+    }
+
+    /**
+     * Intersection (ET logique).
+     */
+    public PostBitmap and(PostBitmap other) {
+        PostBitmap result = new PostBitmap();
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) {
+                    result.append(keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Union (OU logique).
+     */
+    public PostBitmap or(PostBitmap other) {
+        PostBitmap result = new PostBitmap();
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Différence (ET NON logique) : ordinaux présents ici mais pas dans other.
+     */
+    public PostBitmap andNot(PostBitmap other) {
+        PostBitmap result = new PostBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Container c = (j < other.size && other.keys[j] == keys[i])
+                    ? containers[i].andNot(other.containers[j])
+                    : containers[i].copy();
+            if (c.cardinality() > 0) {
+                result.append(keys[i], c);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PostBitmap[" + cardinality() + "]";
+    }
+
+    // ======== gestion des clés ========
+
+    private int find(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void append(char high, Container c) {
+        insert(size, high, c);
+    }
+
+    private void insert(int at, char high, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = high;
+        containers[at] = c;
+        size++;
+    }
+
+    // ======== conteneurs ========
+
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char v);
+
+        abstract Container add(char v);
+
+        abstract Container remove(char v);
+
+        abstract long[] toWords();
+
+        abstract void forEach(int base, IntConsumer consumer);
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer a) {
+                return a.retain(other, true);
+            }
+            if (other instanceof ArrayContainer b) {
+                return b.retain(this, true);
+            }
+            long[] x = toWords(), y = other.toWords(), out = new long[WORDS];
+            for (int k = 0; k < WORDS; k++) {
+                out[k] = x[k] & y[k];
+            }
+            return BitmapContainer.of(out).shrink();
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                return a.union(b);
+            }
+            long[] x = toWords(), y = other.toWords(), out = new long[WORDS];
+            for (int k = 0; k < WORDS; k++) {
+                out[k] = x[k] | y[k];
+            }
+            return BitmapContainer.of(out).shrink();
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer a) {
+                return a.retain(other, false);
+            }
+            long[] x = toWords(), y = other.toWords(), out = new long[WORDS];
+            for (int k = 0; k < WORDS; k++) {
+                out[k] = x[k] & ~y[k];
+            }
+            return BitmapContainer.of(out).shrink();
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return Arrays.binarySearch(values, 0, cardinality, v) >= 0;
+        }
+
+        @Override
+        Container add(char v) {
+            int i = Arrays.binarySearch(values, 0, cardinality, v);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_MAX) {
+                return BitmapContainer.of(toWords()).add(v);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = v;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            int i = Arrays.binarySearch(values, 0, cardinality, v);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (int k = 0; k < cardinality; k++) {
+                words[values[k] >>> 6] |= 1L << values[k];
+            }
+            return words;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int k = 0; k < cardinality; k++) {
+                consumer.accept(base | values[k]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + values.length * 2L;
+        }
+
+        /** Garde (keep=true) ou exclut (keep=false) les valeurs présentes dans other. */
+        Container retain(Container other, boolean keep) {
+            char[] out = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int k = 0; k < cardinality; k++) {
+                if (other.contains(values[k]) == keep) {
+                    out[n++] = values[k];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        Container union(ArrayContainer other) {
+            char[] out = new char[Math.max(4, cardinality + other.cardinality)];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i], b = other.values[j];
+                if (a < b) {
+                    out[n++] = a;
+                    i++;
+                } else if (a > b) {
+                    out[n++] = b;
+                    j++;
+                } else {
+                    out[n++] = a;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                out[n++] = values[i++];
+            }
+            while (j < other.cardinality) {
+                out[n++] = other.values[j++];
+            }
+            return new ArrayContainer(out, n);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static BitmapContainer of(long[] words) {
+            int card = 0;
+            for (long w : words) {
+                card += Long.bitCount(w);
+            }
+            return new BitmapContainer(words, card);
+        }
+
+        /** Repasse en tableau trié lorsque le conteneur redevient clairsemé. */
+        Container shrink() {
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            char[] values = new char[Math.max(4, cardinality)];
+            int[] n = {0};
+            forEach(0, v -> values[n[0]++] = (char) v);
+            return new ArrayContainer(values, cardinality);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        Container add(char v) {
+            if (!contains(v)) {
+                words[v >>> 6] |= 1L << v;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            if (contains(v)) {
+                words[v >>> 6] &= ~(1L << v);
+                cardinality--;
+            }
+            return shrink();
+        }
+
+        @Override
+        long[] toWords() {
+            return words;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int k = 0; k < WORDS; k++) {
+                long w = words[k];
+                while (w != 0) {
+                    consumer.accept(base | (k << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + WORDS * 8L;
+        }
+    }
+}
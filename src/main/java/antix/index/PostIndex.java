@@ -0,0 +1,352 @@
+package antix.index;
+
+import antix.index.OrdinalSort.SortKey;
+import antix.model.SocialMediaPost;
+import antix.model.Tag;
+import antix.query.QueryMetric;
+import antix.utils.HtmlSanitizer;
+
+import java.util.*;
+
+/**
+ * Index local des posts chargés pendant la session.
+ * <p>
+ * Chaque post reçoit un ordinal stable (clé plateforme + id) et chaque tag
+ * pointe vers un {@link PostBitmap} des ordinaux qui le portent. Toute
+ * combinaison booléenne de tags se résout ainsi en opérations and / or / andNot
+ * sur bitmaps, sans reparcourir les posts.
+ * <p>
+ * Les métriques sont recopiées dans des {@link MetricColumns} alignées sur les
+ * mêmes ordinaux, pour filtrer et trier sur des tableaux primitifs, et un
+ * {@link Leaderboard} par métrique tient à jour les meilleurs posts.
+ * <p>
+ * L'index est alimenté au fil des récupérations : un post déjà connu garde son
+ * ordinal et voit simplement son contenu, ses tags et ses métriques mis à jour.
+ * Un {@link PrefixTrie} des tags, pondéré par leur nombre de posts, sert à
+ * l'autocomplétion.
+ * <p>
+ * Le texte brut en minuscules de chaque post, utilisé par les recherches dans
+ * le contenu, est extrait à la première demande puis gardé jusqu'à la mise à
+ * jour du post.
+ */
+public class PostIndex {
+
+    /** Nombre de places des classements par métrique. */
+    public static final int LEADERBOARD_SIZE = 100;
+
+    private final List<SocialMediaPost> posts = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> texts = new ArrayList<>();
+    private final Map<String, PostBitmap> tagBitmaps = new HashMap<>();
+    private MetricColumns columns = new MetricColumns();
+    private final Map<SortKey, Leaderboard> leaderboards = new HashMap<>();
+    private final PrefixTrie tagTrie = new PrefixTrie();
+    private long version;
+
+    public PostIndex() {
+        for (QueryMetric metric : QueryMetric.values()) {
+            SortKey key = new SortKey(metric, false);
+            leaderboards.put(key, new Leaderboard(this, key, LEADERBOARD_SIZE));
+        }
+    }
+
+    /**
+     * Clé d'identité d'un post, unique toutes plateformes confondues.
+     *
+     * @param post Post concerné.
+     * @return Clé "plateforme:id".
+     */
+    public static String keyOf(SocialMediaPost post) {
+        return post.getPlatform() + ":" + post.getId();
+    }
+
+    /**
+     * Normalise un tag (minuscules, sans '#') pour l'indexation et la recherche.
+     *
+     * @param tag Tag brut.
+     * @return Tag normalisé.
+     */
+    public static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().replaceFirst("^#", "").toLowerCase();
+    }
+
+    /**
+     * Indexe des posts récupérés pour un tag de recherche. Les posts sont
+     * rattachés à leurs propres tags et au tag recherché.
+     *
+     * @param searchTag Tag ayant servi à la récupération (peut être null).
+     * @param fetched   Posts récupérés.
+     */
+    public void addAll(String searchTag, Collection<SocialMediaPost> fetched) {
+        for (SocialMediaPost post : fetched) {
+            add(searchTag, post);
+        }
+    }
+
+    /**
+     * Indexe un post, ou met à jour un post déjà connu.
+     *
+     * @param searchTag Tag ayant servi à la récupération (peut être null).
+     * @param post      Post à indexer.
+     * @return Ordinal du post.
+     */
+    public int add(String searchTag, SocialMediaPost post) {
+        version++;
+        String key = keyOf(post);
+        Integer existing = ordinals.get(key);
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            SocialMediaPost previous = posts.get(ordinal);
+            if (previous != post) {
+                for (Tag tag : previous.getTags()) {
+                    if (!post.getTags().contains(tag)) {
+                        detach(tag.getName(), ordinal);
+                    }
+                }
+                posts.set(ordinal, post);
+            }
+            texts.set(ordinal, null);
+        } else {
+            ordinal = posts.size();
+            posts.add(post);
+            texts.add(null);
+            ordinals.put(key, ordinal);
+        }
+
+        columns.set(ordinal, post);
+        for (Leaderboard leaderboard : leaderboards.values()) {
+            leaderboard.update(ordinal);
+        }
+        for (Tag tag : post.getTags()) {
+            attach(tag.getName(), ordinal);
+        }
+        if (searchTag != null && !normalize(searchTag).isEmpty()) {
+            attach(searchTag, ordinal);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Bitmap des posts portant un tag (vide si le tag est inconnu).
+     *
+     * @param tag Tag recherché.
+     * @return Bitmap des ordinaux correspondants.
+     */
+    public PostBitmap tag(String tag) {
+        PostBitmap bitmap = tagBitmaps.get(normalize(tag));
+        return bitmap != null ? bitmap : new PostBitmap();
+    }
+
+    /**
+     * Bitmap de tous les posts indexés (utile pour la négation).
+     */
+    public PostBitmap all() {
+        return PostBitmap.range(posts.size());
+    }
+
+    public int size() {
+        return posts.size();
+    }
+
+    public SocialMediaPost get(int ordinal) {
+        return posts.get(ordinal);
+    }
+
+    /**
+     * Texte brut du contenu d'un post, en minuscules, pour les recherches
+     * textuelles.
+     *
+     * @param ordinal Ordinal du post.
+     * @return Texte sans balises (vide si le post n'a pas de contenu).
+     */
+    public String text(int ordinal) {
+        String text = texts.get(ordinal);
+        if (text == null) {
+            text = HtmlSanitizer.text(posts.get(ordinal).getContent()).toLowerCase();
+            texts.set(ordinal, text);
+        }
+        return text;
+    }
+
+    /**
+     * Ordinal d'un post indexé.
+     *
+     * @param post Post recherché.
+     * @return Ordinal, ou -1 si le post n'est pas indexé.
+     */
+    public int ordinalOf(SocialMediaPost post) {
+        Integer ordinal = ordinals.get(keyOf(post));
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Ordinaux d'une liste de posts, dans le même ordre. Les posts absents de
+     * l'index y sont ajoutés.
+     *
+     * @param list Posts à convertir.
+     * @return Tableau d'ordinaux aligné sur la liste.
+     */
+    public int[] ordinalsOf(List<SocialMediaPost> list) {
+        int[] out = new int[list.size()];
+        for (int i = 0; i < out.length; i++) {
+            SocialMediaPost post = list.get(i);
+            int ordinal = ordinalOf(post);
+            out[i] = ordinal >= 0 ? ordinal : add(null, post);
+        }
+        return out;
+    }
+
+    /**
+     * Convertit des ordinaux en posts, dans l'ordre donné.
+     *
+     * @param ordinals Ordinaux à résoudre.
+     * @param length   Nombre d'ordinaux à prendre en compte.
+     * @return Posts correspondants.
+     */
+    public List<SocialMediaPost> resolve(int[] ordinals, int length) {
+        List<SocialMediaPost> out = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            out.add(posts.get(ordinals[i]));
+        }
+        return out;
+    }
+
+    public MetricColumns columns() {
+        return columns;
+    }
+
+    /**
+     * Classement tenu à jour pour une clé de tri.
+     *
+     * @param key Clé de tri.
+     * @return Le classement, ou null si la clé n'en a pas.
+     */
+    public Leaderboard leaderboard(SortKey key) {
+        return leaderboards.get(key);
+    }
+
+    /**
+     * Convertit un bitmap en liste de posts (ordre des ordinaux).
+     *
+     * @param bitmap Bitmap à résoudre.
+     * @return Posts correspondants.
+     */
+    public List<SocialMediaPost> resolve(PostBitmap bitmap) {
+        List<SocialMediaPost> out = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(ordinal -> out.add(posts.get(ordinal)));
+        return out;
+    }
+
+    /**
+     * Ne garde dans l'index que les posts donnés, renumérotés dans leur ordre
+     * d'indexation. Les bitmaps de tags (y compris les tags de recherche), les
+     * colonnes et les classements sont reconstruits pour ces seuls posts.
+     *
+     * @param kept Posts à conserver (les posts non indexés sont ignorés).
+     * @return Nombre de posts retirés.
+     */
+    public int retainAll(Collection<SocialMediaPost> kept) {
+        version++;
+        int[] remap = new int[posts.size()];
+        Arrays.fill(remap, -1);
+        for (SocialMediaPost post : kept) {
+            int ordinal = ordinalOf(post);
+            if (ordinal >= 0) {
+                remap[ordinal] = 0;
+            }
+        }
+
+        List<SocialMediaPost> previous = new ArrayList<>(posts);
+        List<String> previousTexts = new ArrayList<>(texts);
+        posts.clear();
+        texts.clear();
+        ordinals.clear();
+        columns = new MetricColumns();
+        for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+            if (remap[ordinal] < 0) {
+                continue;
+            }
+            SocialMediaPost post = previous.get(ordinal);
+            remap[ordinal] = posts.size();
+            ordinals.put(keyOf(post), posts.size());
+            columns.set(posts.size(), post);
+            posts.add(post);
+            texts.add(previousTexts.get(ordinal));
+        }
+
+        Map<String, PostBitmap> previousBitmaps = new HashMap<>(tagBitmaps);
+        tagBitmaps.clear();
+        tagTrie.clear();
+        previousBitmaps.forEach((tag, bitmap) -> bitmap.forEach(ordinal -> {
+            if (remap[ordinal] >= 0) {
+                attach(tag, remap[ordinal]);
+            }
+        }));
+
+        for (SortKey key : new ArrayList<>(leaderboards.keySet())) {
+            Leaderboard leaderboard = new Leaderboard(this, key, LEADERBOARD_SIZE);
+            for (int ordinal = 0; ordinal < posts.size(); ordinal++) {
+                leaderboard.update(ordinal);
+            }
+            leaderboards.put(key, leaderboard);
+        }
+        return previous.size() - posts.size();
+    }
+
+    /** Numéro de version, incrémenté à chaque ajout ou compactage. */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Empreinte mémoire des structures de l'index (tables, bitmaps, colonnes),
+     * en octets, hors contenu des posts eux-mêmes.
+     */
+    public long sizeInBytes() {
+        long bytes = columns.sizeInBytes();
+        // Entrée de HashMap + clé "plateforme:id" + référence dans la liste
+        bytes += ordinals.size() * (48L + 64L + 8L);
+        for (Map.Entry<String, PostBitmap> entry : tagBitmaps.entrySet()) {
+            bytes += 48L + 40L + 2L * entry.getKey().length() + entry.getValue().sizeInBytes();
+        }
+        bytes += leaderboards.size() * (64L + 4L * LEADERBOARD_SIZE);
+        // Référence dans la liste, plus la chaîne si le texte a été extrait
+        for (String text : texts) {
+            bytes += 8L + (text == null ? 0L : 40L + text.length());
+        }
+        return bytes;
+    }
+
+    /**
+     * Tags connus commençant par un préfixe, les plus fréquents d'abord.
+     *
+     * @param prefix Début de tag saisi.
+     * @param limit  Nombre maximal de suggestions.
+     * @return Tags normalisés.
+     */
+    public List<String> completeTag(String prefix, int limit) {
+        return tagTrie.complete(normalize(prefix), limit);
+    }
+
+    private void attach(String tag, int ordinal) {
+        String normalized = normalize(tag);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        PostBitmap bitmap = tagBitmaps.computeIfAbsent(normalized, t -> new PostBitmap());
+        if (!bitmap.contains(ordinal)) {
+            bitmap.add(ordinal);
+            tagTrie.add(normalized, 1);
+        }
+    }
+
+    private void detach(String tag, int ordinal) {
+        String normalized = normalize(tag);
+        PostBitmap bitmap = tagBitmaps.get(normalized);
+        if (bitmap != null && bitmap.contains(ordinal)) {
+            bitmap.remove(ordinal);
+            tagTrie.remove(normalized, 1);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package antix.index;
+
+import antix.model.SocialMediaPost;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Liste des posts actuellement affichés dans la grille de la session.
+ * <p>
+ * En plus de la liste ordonnée, elle tient à jour deux tables de hachage
+ * (id → position et post → position) : la recherche par id, le test
+ * d'appartenance et {@link #indexOf} sont en O(1), quelle que soit la taille
+ * du résultat. Toute modification passe par {@link #setItems}, qui prévient
+ * les écouteurs (la grille notamment).
+ * <p>
+ * Chaque modification est décrite par un {@link Change} : posts insérés,
+ * retirés, déplacés (calculés par clé plateforme:id) et posts dont seul le
+ * contenu a changé. La grille n'a ainsi rien à faire quand la liste est
+ * identique, et ne rafraîchit que les lignes concernées quand l'ordre et
+ * l'appartenance sont inchangés.
+ */
+public class PostResultSet extends AbstractList<SocialMediaPost> implements RandomAccess {
+
+    /**
+     * Différence entre deux états successifs du résultat.
+     *
+     * @param inserted Nombre de posts ajoutés.
+     * @param removed  Nombre de posts retirés.
+     * @param moved    Nombre minimal de posts déplacés (hors plus longue
+     *                 sous-suite restée dans l'ordre).
+     * @param updated  Posts restés en place mais remplacés par une nouvelle
+     *                 version (métriques, contenu).
+     */
+    public record Change(int inserted, int removed, int moved, List<SocialMediaPost> updated) {
+
+        /** true si l'ordre ou l'appartenance des lignes a changé. */
+        public boolean isStructural() {
+            return inserted > 0 || removed > 0 || moved > 0;
+        }
+
+        /** true si le résultat est strictement identique. */
+        public boolean isEmpty() {
+            return !isStructural() && updated.isEmpty();
+        }
+    }
+
+    private final List<SocialMediaPost> items = new ArrayList<>();
+    private final Map<String, Integer> positionsById = new HashMap<>();
+    private final Map<SocialMediaPost, Integer> positionsByPost = new IdentityHashMap<>();
+    private final Map<String, Integer> positionsByKey = new HashMap<>();
+    private final List<Consumer<Change>> listeners = new ArrayList<>();
+    private long version;
+
+    /**
+     * Remplace le contenu du résultat.
+     *
+     * @param posts Nouveaux posts, dans l'ordre d'affichage.
+     */
+    public void setItems(Collection<SocialMediaPost> posts) {
+        Map<String, Integer> previousPositions = new HashMap<>(positionsByKey);
+        List<SocialMediaPost> previous = new ArrayList<>(items);
+        items.clear();
+        items.addAll(posts);
+        reindex();
+
+        Change change = diff(previous, previousPositions);
+        if (change.isEmpty()) {
+            return;
+        }
+        version++;
+        listeners.forEach(listener -> listener.accept(change));
+    }
+
+    /**
+     * Insère un lot de posts à sa place dans le résultat, déjà trié selon
+     * l'ordre donné (fusion linéaire). Les posts déjà présents (même clé
+     * plateforme:id) sont ignorés.
+     *
+     * @param posts Posts à insérer, triés selon order.
+     * @param order Ordre d'affichage du résultat.
+     */
+    public void merge(Collection<SocialMediaPost> posts, Comparator<SocialMediaPost> order) {
+        List<SocialMediaPost> merged = new ArrayList<>(items.size() + posts.size());
+        Iterator<SocialMediaPost> incoming = posts.stream()
+                .filter(p -> !positionsByKey.containsKey(PostIndex.keyOf(p)))
+                .iterator();
+        SocialMediaPost next = incoming.hasNext() ? incoming.next() : null;
+        for (SocialMediaPost current : items) {
+            while (next != null && order.compare(next, current) < 0) {
+                merged.add(next);
+                next = incoming.hasNext() ? incoming.next() : null;
+            }
+            merged.add(current);
+        }
+        while (next != null) {
+            merged.add(next);
+            next = incoming.hasNext() ? incoming.next() : null;
+        }
+        setItems(merged);
+    }
+
+    /**
+     * Ajoute un écouteur appelé après chaque modification effective.
+     *
+     * @param listener Reçoit la description de la modification.
+     */
+    public void addChangeListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Recherche un post par son identifiant.
+     *
+     * @param id Identifiant du post.
+     * @return Le premier post portant cet id, s'il existe.
+     */
+    public Optional<SocialMediaPost> findById(String id) {
+        Integer position = positionsById.get(id);
+        return position != null ? Optional.of(items.get(position)) : Optional.empty();
+    }
+
+    /**
+     * Compteur incrémenté à chaque modification, pour invalider des caches.
+     */
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public SocialMediaPost get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Integer position = positionsByPost.get(o);
+        return position != null ? position : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return positionsByPost.containsKey(o);
+    }
+
+    private void reindex() {
+        positionsById.clear();
+        positionsByPost.clear();
+        positionsByKey.clear();
+        for (int i = 0; i < items.size(); i++) {
+            SocialMediaPost post = items.get(i);
+            positionsById.putIfAbsent(String.valueOf(post.getId()), i);
+            positionsByPost.putIfAbsent(post, i);
+            positionsByKey.putIfAbsent(PostIndex.keyOf(post), i);
+        }
+    }
+
+    /**
+     * Compare le nouvel état à l'ancien. Les posts communs sont repérés par
+     * clé ; ceux qui ne sont pas dans la plus longue sous-suite croissante de
+     * leurs anciennes positions comptent comme déplacés.
+     */
+    private Change diff(List<SocialMediaPost> previous, Map<String, Integer> previousPositions) {
+        int inserted = 0;
+        int[] kept = new int[items.size()];
+        int keptCount = 0;
+        List<SocialMediaPost> updated = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            SocialMediaPost post = items.get(i);
+            String key = PostIndex.keyOf(post);
+            Integer before = previousPositions.get(key);
+            // Un doublon de clé dans la nouvelle liste est traité comme une insertion
+            if (before == null || positionsByKey.get(key) != i) {
+                inserted++;
+                continue;
+            }
+            kept[keptCount++] = before;
+            if (previous.get(before) != post) {
+                updated.add(post);
+            }
+        }
+        int removed = previousPositions.size() - keptCount + (previous.size() - previousPositions.size());
+        int moved = keptCount - longestIncreasingRun(kept, keptCount);
+        return new Change(inserted, removed, moved, updated);
+    }
+
+    /** Longueur de la plus longue sous-suite strictement croissante (tri par patience). */
+    private static int longestIncreasingRun(int[] values, int length) {
+        int[] tails = new int[length];
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            int pos = Arrays.binarySearch(tails, 0, size, values[i]);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            tails[pos] = values[i];
+            if (pos == size) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
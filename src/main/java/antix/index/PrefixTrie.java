@@ -0,0 +1,149 @@
+package antix.index;
+
+import java.util.*;
+
+/**
+ * Arbre de préfixes pondéré, pour l'autocomplétion.
+ * <p>
+ * Chaque mot porte un poids (nombre d'occurrences) et la date de son dernier
+ * ajout. Chaque nœud garde en cache les {@value #MAX_SUGGESTIONS} meilleurs
+ * mots de son sous-arbre (poids décroissant, puis plus récent d'abord) :
+ * compléter un préfixe revient à descendre de sa longueur et lire ce cache,
+ * quel que soit le nombre de mots. Un ajout ou un retrait recalcule le cache
+ * des seuls nœuds du chemin, à partir de celui de leurs enfants.
+ */
+public class PrefixTrie {
+
+    /** Nombre de suggestions gardées par nœud. */
+    public static final int MAX_SUGGESTIONS = 8;
+
+    private static final Comparator<Node> BEST_FIRST = Comparator
+            .comparingInt((Node node) -> node.weight).reversed()
+            .thenComparing(Comparator.comparingLong((Node node) -> node.lastUse).reversed());
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        String word;
+        int weight;
+        long lastUse;
+        Node[] best = new Node[0];
+    }
+
+    private final Node root = new Node();
+    private long clock;
+    private int size;
+
+    /**
+     * Ajoute des occurrences d'un mot.
+     *
+     * @param word   Mot ajouté.
+     * @param weight Nombre d'occurrences ajoutées.
+     */
+    public void add(String word, int weight) {
+        if (word == null || word.isEmpty() || weight <= 0) {
+            return;
+        }
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+            path[i + 1] = node;
+        }
+        if (node.weight == 0) {
+            node.word = word;
+            size++;
+        }
+        node.weight += weight;
+        node.lastUse = ++clock;
+        refresh(path, path.length - 1);
+    }
+
+    /**
+     * Retire des occurrences d'un mot ; le mot disparaît quand son poids
+     * tombe à zéro.
+     *
+     * @param word   Mot retiré.
+     * @param weight Nombre d'occurrences retirées.
+     */
+    public void remove(String word, int weight) {
+        if (word == null || word.isEmpty() || weight <= 0) {
+            return;
+        }
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.get(word.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path[i + 1] = node;
+        }
+        if (node.weight == 0) {
+            return;
+        }
+        node.weight = Math.max(0, node.weight - weight);
+        if (node.weight == 0) {
+            node.word = null;
+            size--;
+        }
+        // Élague les nœuds devenus vides
+        int last = path.length - 1;
+        while (last > 0 && path[last].weight == 0 && path[last].children.isEmpty()) {
+            path[last - 1].children.remove(word.charAt(last - 1));
+            last--;
+        }
+        refresh(path, last);
+    }
+
+    /**
+     * Meilleurs mots commençant par un préfixe.
+     *
+     * @param prefix Préfixe saisi.
+     * @param limit  Nombre maximal de suggestions (au plus {@value #MAX_SUGGESTIONS}).
+     * @return Mots, du meilleur au moins bon.
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int count = Math.min(limit, node.best.length);
+        List<String> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(node.best[i].word);
+        }
+        return out;
+    }
+
+    /** Nombre de mots distincts. */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.best = new Node[0];
+        size = 0;
+    }
+
+    /** Recalcule le cache des nœuds du chemin, de la feuille vers la racine. */
+    private static void refresh(Node[] path, int last) {
+        for (int i = last; i >= 0; i--) {
+            Node node = path[i];
+            List<Node> candidates = new ArrayList<>();
+            if (node.weight > 0) {
+                candidates.add(node);
+            }
+            for (Node child : node.children.values()) {
+                candidates.addAll(Arrays.asList(child.best));
+            }
+            candidates.sort(BEST_FIRST);
+            node.best = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(new Node[0]);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package antix.index;
+
+import antix.index.OrdinalSort.IntComparator;
+
+/**
+ * Sélection des k meilleurs ordinaux sans trier l'ensemble.
+ * <p>
+ * Un tas borné de taille k garde les meilleurs candidats vus ; sa racine est
+ * le moins bon d'entre eux. Coût O(n log k) au lieu de O(n log n).
+ */
+public final class TopK {
+
+    private TopK() {}
+
+    /**
+     * Renvoie les k premiers ordinaux selon le comparateur, triés.
+     *
+     * @param ordinals Candidats.
+     * @param length   Nombre de candidats à considérer dans le tableau.
+     * @param k        Nombre d'éléments voulus.
+     * @param cmp      Comparateur (négatif si a passe avant b).
+     * @return Au plus k ordinaux, du meilleur au moins bon.
+     */
+    public static int[] select(int[] ordinals, int length, int k, IntComparator cmp) {
+        int capacity = Math.min(k, length);
+        if (capacity <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[capacity];
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            int candidate = ordinals[i];
+            if (size < capacity) {
+                heap[size] = candidate;
+                siftUp(heap, size++, cmp);
+            } else if (cmp.compare(candidate, heap[0]) < 0) {
+                heap[0] = candidate;
+                siftDown(heap, size, cmp);
+            }
+        }
+        OrdinalSort.sort(heap, cmp);
+        return heap;
+    }
+
+    // Tas « max » au sens du comparateur : la racine est le candidat le moins bon.
+
+    private static void siftUp(int[] heap, int i, IntComparator cmp) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (cmp.compare(heap[parent], v) >= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+    }
+
+    private static void siftDown(int[] heap, int size, IntComparator cmp) {
+        int v = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && cmp.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (cmp.compare(heap[child], v) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+}
@@ -0,0 +1,233 @@
+package antix.model;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stockage hors tas du titre et du contenu des posts.
+ * <p>
+ * Les corps sont encodés en UTF-8 dans des slabs ({@link ByteBuffer} directs
+ * de taille fixe) remplis par simple avancée d'un pointeur. Le post ne garde
+ * qu'un {@link Ref} (slab, position, longueurs) et décode son texte à la
+ * demande ({@link SocialMediaPost#getContent()}) : les gros textes ne pèsent
+ * plus sur le tas ni sur les pauses du GC.
+ * <p>
+ * Chaque slab compte ses octets vivants. Quand un post est collecté (ou
+ * réécrit), un {@link Cleaner} libère ses octets ; un slab plein dont tous
+ * les corps sont libérés est remis à zéro et réutilisé. Au-delà du budget de
+ * slabs, ou sous {@code minBytes}, les corps restent sur le tas.
+ * <p>
+ * Désactivé par défaut, activé au démarrage par
+ * {@link antix.service.OffHeapBodies}.
+ */
+public final class BodySlabs {
+
+    private static final Logger logger = Logger.getLogger(BodySlabs.class.getName());
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * État du stockage.
+     *
+     * @param slabs     Slabs alloués.
+     * @param reserved  Mémoire directe réservée, en octets.
+     * @param live      Octets occupés par des corps vivants.
+     * @param bodies    Corps stockés hors tas.
+     * @param fallbacks Corps gardés sur le tas faute de place.
+     */
+    public record Stats(int slabs, long reserved, long live, long bodies, long fallbacks) {}
+
+    private static final class Slab {
+        final ByteBuffer buffer;
+        int top;
+        int live;
+
+        Slab(int size) {
+            this.buffer = ByteBuffer.allocateDirect(size);
+        }
+    }
+
+    /**
+     * Corps stocké hors tas : seule partie gardée sur le tas.
+     */
+    public static final class Ref {
+        private final Slab slab;
+        private final int offset;
+        private final int titleLength;   // -1 si titre null
+        private final int contentLength; // -1 si contenu null
+        private final Cleaner.Cleanable cleanable;
+
+        private Ref(Slab slab, int offset, int titleLength, int contentLength) {
+            this.slab = slab;
+            this.offset = offset;
+            this.titleLength = titleLength;
+            this.contentLength = contentLength;
+            // L'action ne doit pas référencer le Ref, sinon il ne serait jamais collecté
+            this.cleanable = CLEANER.register(this, new Release(slab, size(titleLength, contentLength)));
+        }
+
+        public String title() {
+            return decode(offset, titleLength);
+        }
+
+        public String content() {
+            return decode(offset + Math.max(0, titleLength), contentLength);
+        }
+
+        /** Libère les octets du corps sans attendre le GC (corps réécrit). */
+        public void release() {
+            cleanable.clean();
+        }
+
+        private String decode(int from, int length) {
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            slab.buffer.get(from, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private record Release(Slab slab, int bytes) implements Runnable {
+        @Override
+        public void run() {
+            synchronized (BodySlabs.class) {
+                slab.live -= bytes;
+                bodies--;
+                recycle(slab);
+            }
+        }
+    }
+
+    private static volatile boolean enabled;
+    private static int slabSize;
+    private static int maxSlabs;
+    private static int minBytes;
+
+    private static final List<Slab> slabs = new ArrayList<>();
+    private static final Deque<Slab> free = new ArrayDeque<>();
+    private static Slab current;
+    private static long bodies;
+    private static long fallbacks;
+
+    private BodySlabs() {}
+
+    /**
+     * Active le stockage hors tas pour les posts créés ensuite.
+     *
+     * @param slabSizeBytes Taille d'un slab.
+     * @param maxSlabCount  Nombre maximal de slabs.
+     * @param minBodyBytes  Taille en dessous de laquelle un corps reste sur le tas.
+     */
+    public static synchronized void enable(int slabSizeBytes, int maxSlabCount, int minBodyBytes) {
+        slabSize = slabSizeBytes;
+        maxSlabs = maxSlabCount;
+        minBytes = minBodyBytes;
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stocke un titre et un contenu hors tas.
+     *
+     * @param title   Titre (peut être null).
+     * @param content Contenu (peut être null).
+     * @return Référence du corps, ou null s'il doit rester sur le tas
+     *         (stockage désactivé, corps trop petit ou trop gros, budget atteint).
+     */
+    public static Ref store(String title, String content) {
+        if (!enabled || (title == null && content == null)) {
+            return null;
+        }
+        // Borne estimée en caractères : évite d'encoder les petits corps pour rien
+        if ((title == null ? 0 : title.length()) + (content == null ? 0 : content.length()) < minBytes) {
+            return null;
+        }
+        byte[] titleBytes = title == null ? null : title.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = content == null ? null : content.getBytes(StandardCharsets.UTF_8);
+        int titleLength = titleBytes == null ? -1 : titleBytes.length;
+        int contentLength = contentBytes == null ? -1 : contentBytes.length;
+        int size = size(titleLength, contentLength);
+
+        Slab slab;
+        int offset;
+        synchronized (BodySlabs.class) {
+            slab = reserve(size);
+            if (slab == null) {
+                fallbacks++;
+                return null;
+            }
+            offset = slab.top;
+            slab.top += size;
+            slab.live += size;
+            bodies++;
+        }
+        // Zone réservée à ce corps : écriture hors verrou
+        if (titleBytes != null) {
+            slab.buffer.put(offset, titleBytes);
+        }
+        if (contentBytes != null) {
+            slab.buffer.put(offset + Math.max(0, titleLength), contentBytes);
+        }
+        return new Ref(slab, offset, titleLength, contentLength);
+    }
+
+    public static synchronized Stats stats() {
+        long live = 0;
+        for (Slab slab : slabs) {
+            live += slab.live;
+        }
+        return new Stats(slabs.size(), (long) slabs.size() * slabSize, live, bodies, fallbacks);
+    }
+
+    /** Slab ayant {@code size} octets libres au sommet, ou null si le budget est atteint. */
+    private static Slab reserve(int size) {
+        if (size > slabSize) {
+            return null;
+        }
+        if (current != null && current.top + size <= slabSize) {
+            return current;
+        }
+        Slab previous = current;
+        current = null;
+        if (previous != null) {
+            recycle(previous);
+        }
+        if (!free.isEmpty()) {
+            current = free.poll();
+        } else if (slabs.size() < maxSlabs) {
+            try {
+                current = new Slab(slabSize);
+                slabs.add(current);
+            } catch (OutOfMemoryError e) {
+                // -XX:MaxDirectMemorySize plus bas que le budget : on s'arrête là
+                maxSlabs = slabs.size();
+                logger.log(Level.WARNING, "Mémoire directe épuisée, corps gardés sur le tas au-delà de "
+                        + maxSlabs + " slab(s)", e);
+            }
+        }
+        return current;
+    }
+
+    /** Remet à zéro un slab plein dont tous les corps ont été libérés. */
+    private static void recycle(Slab slab) {
+        if (slab != current && slab.live == 0 && slab.top > 0) {
+            slab.top = 0;
+            free.add(slab);
+        }
+    }
+
+    private static int size(int titleLength, int contentLength) {
+        return Math.max(0, titleLength) + Math.max(0, contentLength);
+    }
+}
@@ -0,0 +1,107 @@
+package antix.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Post mis en favori par un utilisateur, persisté en base.
+ * <p>
+ * Un post n'est enregistré qu'une fois par utilisateur : la contrainte unique
+ * (owner, platform, post_id) sert aussi d'index pour les recherches par clé.
+ * Seuls les champs utiles à l'affichage de la liste sont copiés.
+ */
+@Entity
+@Table(name = "favorite_post",
+        uniqueConstraints = @UniqueConstraint(name = "uk_favorite_owner_post",
+                columnNames = {"owner", "platform", "post_id"}),
+        indexes = @Index(name = "idx_favorite_owner_added", columnList = "owner, added_at"))
+public class FavoritePost {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favorite_seq")
+    // Identifiants réservés par blocs : les insertions groupées restent possibles
+    @SequenceGenerator(name = "favorite_seq", sequenceName = "favorite_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(nullable = false, length = 32)
+    private String platform;
+
+    @Column(name = "post_id", nullable = false, length = 128)
+    private String postId;
+
+    @Column(length = 512)
+    private String preview;
+
+    @Column(length = 256)
+    private String author;
+
+    @Column(length = 2048)
+    private String url;
+
+    @Column(name = "created_utc")
+    private long createdUtc;
+
+    @Column(name = "added_at", nullable = false)
+    private Instant addedAt;
+
+    public FavoritePost() {}
+
+    /**
+     * Copie d'un post pour un utilisateur.
+     *
+     * @param owner   Identifiant de l'utilisateur.
+     * @param post    Post mis en favori.
+     * @param preview Aperçu texte du contenu.
+     * @return Favori prêt à être enregistré.
+     */
+    public static FavoritePost of(String owner, SocialMediaPost post, String preview) {
+        FavoritePost favorite = new FavoritePost();
+        favorite.owner = owner;
+        favorite.platform = post.getPlatform();
+        favorite.postId = String.valueOf(post.getId());
+        favorite.preview = truncate(preview, 512);
+        favorite.author = truncate(post.getDisplayName(), 256);
+        favorite.url = truncate(post.getUrl(), 2048);
+        favorite.createdUtc = post.getCreatedUtc();
+        favorite.addedAt = Instant.now();
+        return favorite;
+    }
+
+    /**
+     * Copie non encore persistée (sans identifiant), pour réessayer une
+     * insertion après l'échec d'un lot.
+     */
+    public FavoritePost copy() {
+        FavoritePost copy = new FavoritePost();
+        copy.owner = owner;
+        copy.platform = platform;
+        copy.postId = postId;
+        copy.preview = preview;
+        copy.author = author;
+        copy.url = url;
+        copy.createdUtc = createdUtc;
+        copy.addedAt = addedAt;
+        return copy;
+    }
+
+    /** Clé "plateforme:id", identique à celle de l'index des posts. */
+    public String getKey() { return platform + ":" + postId; }
+
+    public Long getId() { return id; }
+    public String getOwner() { return owner; }
+    public String getPlatform() { return platform; }
+    public String getPostId() { return postId; }
+    public String getPreview() { return preview; }
+    public String getAuthor() { return author; }
+    public String getUrl() { return url; }
+    public long getCreatedUtc() { return createdUtc; }
+    public Instant getAddedAt() { return addedAt; }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
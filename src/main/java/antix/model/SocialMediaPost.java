@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -30,13 +31,16 @@ public class SocialMediaPost {
     private String badgeColor;
     private String badgeTextColor;
 
+    // Titre et contenu hors tas (voir BodySlabs) ; title et content sont alors null
+    private BodySlabs.Ref body;
+
     // base
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     public String getPlatform() { return platform; }
     public void setPlatform(String platform) { this.platform = platform; }
-    public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
+    public String getTitle() { return body != null ? body.title() : title; }
+    public void setTitle(String title) { setBody(title, getContent()); }
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
     public String getSubreddit() { return subreddit; }
@@ -45,8 +49,8 @@ public class SocialMediaPost {
     public void setPermalink(String permalink) { this.permalink = permalink; }
     public String getPostUrl() { return postUrl; }
     public void setPostUrl(String postUrl) { this.postUrl = postUrl; }
-    public String getContent() { return content; }
-    public void setContent(String content) { this.content = content; }
+    public String getContent() { return body != null ? body.content() : content; }
+    public void setContent(String content) { setBody(getTitle(), content); }
     public int getScore() { return score; }
     public void setScore(int score) { this.score = score; }
     public int getNumComments() { return numComments; }
@@ -54,6 +58,23 @@ public class SocialMediaPost {
     public long getCreatedUtc() { return createdUtc; }
     public void setCreatedUtc(long createdUtc) { this.createdUtc = createdUtc; }
 
+    /** true si le titre et le contenu sont stockés hors tas. */
+    @JsonIgnore
+    public boolean isBodyOffHeap() { return body != null; }
+
+    /**
+     * Fixe titre et contenu en une fois : à préférer aux deux setters quand
+     * les deux sont connus, le corps n'est alors stocké qu'une fois hors tas.
+     */
+    public void setBody(String title, String content) {
+        if (body != null) {
+            body.release();
+        }
+        body = BodySlabs.store(title, content);
+        this.title = body != null ? null : title;
+        this.content = body != null ? null : content;
+    }
+
     // tags
     public List<Tag> getTags() { return Collections.unmodifiableList(tags); }
     public void setTags(List<Tag> tags) { this.tags = (tags == null) ? new ArrayList<>() : new ArrayList<>(tags); }
@@ -101,7 +122,7 @@ public class SocialMediaPost {
 
     public String getDisplayName() {
         if (author != null && subreddit != null && !subreddit.isBlank()) return author + " in r/" + subreddit;
-        return author != null ? author : (title != null ? title : "Post");
+        return author != null ? author : (getTitle() != null ? getTitle() : "Post");
     }
     public String getPlatformInfo() {
         String p = getPlatformDisplayName();
@@ -0,0 +1,79 @@
+package antix.query;
+
+import antix.index.PostBitmap;
+import antix.index.PostIndex;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Requête compilée, prête à être exécutée autant de fois que nécessaire.
+ * <p>
+ * Elle s'évalue toujours sur un {@link PostIndex} : en bloc ({@link #execute}),
+ * où les termes de tags deviennent des opérations sur bitmaps et les
+ * prédicats ne sont appliqués qu'aux candidats restants, ou ordinal par
+ * ordinal ({@link #bind}).
+ */
+public final class CompiledQuery {
+
+    /** Plan d'exécution sur index. */
+    interface Plan {
+        PostBitmap execute(PostIndex index);
+    }
+
+    /** Prédicat sur ordinaux, lié aux colonnes d'un index au moment de l'exécution. */
+    interface Binder {
+        IntPredicate bind(PostIndex index);
+    }
+
+    private final String text;
+    private final QueryNode ast;
+    private final Binder binder;
+    private final Plan plan;
+    private final List<String> fetchTags;
+
+    CompiledQuery(String text, QueryNode ast, Binder binder, Plan plan, List<String> fetchTags) {
+        this.text = text;
+        this.ast = ast;
+        this.binder = binder;
+        this.plan = plan;
+        this.fetchTags = fetchTags;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public QueryNode getAst() {
+        return ast;
+    }
+
+    /**
+     * Tags à récupérer auprès des plateformes pour répondre à la requête :
+     * le premier tag de chaque conjonction et tous les tags d'une disjonction.
+     */
+    public List<String> getFetchTags() {
+        return fetchTags;
+    }
+
+    /**
+     * Lie la requête aux colonnes d'un index : le prédicat obtenu s'applique
+     * à des ordinaux et lit directement les tableaux primitifs.
+     *
+     * @param index Index de la session.
+     * @return Prédicat sur ordinaux.
+     */
+    public IntPredicate bind(PostIndex index) {
+        return binder.bind(index);
+    }
+
+    /**
+     * Évalue la requête sur tous les posts d'un index.
+     *
+     * @param index Index de la session.
+     * @return Bitmap des ordinaux correspondants.
+     */
+    public PostBitmap execute(PostIndex index) {
+        return plan.execute(index);
+    }
+}
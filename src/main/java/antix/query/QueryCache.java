@@ -0,0 +1,45 @@
+package antix.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU des requêtes compilées, partagé par toutes les sessions.
+ * Une requête déjà vue (au texte normalisé près) ne repasse ni par
+ * l'analyseur ni par le compilateur.
+ */
+public final class QueryCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private static final Map<String, CompiledQuery> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private QueryCache() {}
+
+    /**
+     * Renvoie la requête compilée correspondant au texte, en la compilant au besoin.
+     *
+     * @param query Texte de la requête.
+     * @return Requête compilée.
+     * @throws IllegalArgumentException si la requête est mal formée.
+     */
+    public static CompiledQuery compile(String query) {
+        String key = query.trim().replaceAll("\\s+", " ");
+        synchronized (CACHE) {
+            CompiledQuery cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        CompiledQuery compiled = QueryCompiler.compile(key, QueryParser.parse(key));
+        synchronized (CACHE) {
+            CACHE.put(key, compiled);
+        }
+        return compiled;
+    }
+}
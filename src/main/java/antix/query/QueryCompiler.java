@@ -0,0 +1,211 @@
+package antix.query;
+
+import antix.index.MetricColumns;
+import antix.index.PostBitmap;
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+import antix.query.QueryNode.*;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Compile un {@link QueryNode} en {@link CompiledQuery} : un plan sur bitmaps
+ * et un prédicat sur ordinaux, tous deux évalués sur un {@link PostIndex}
+ * (un tag couvre donc aussi les posts rattachés au tag recherché). Les
+ * prédicats numériques, de date et de plateforme lisent les colonnes
+ * primitives de {@link MetricColumns}.
+ */
+public final class QueryCompiler {
+
+    private QueryCompiler() {}
+
+    /**
+     * Compile une requête déjà analysée.
+     *
+     * @param text Texte d'origine.
+     * @param ast  Arbre syntaxique.
+     * @return Requête compilée.
+     */
+    public static CompiledQuery compile(String text, QueryNode ast) {
+        Set<String> fetchTags = new LinkedHashSet<>();
+        collectFetchTags(ast, fetchTags);
+        return new CompiledQuery(text, ast, binder(ast), plan(ast), List.copyOf(fetchTags));
+    }
+
+    // ======== PRÉDICATS ========
+
+    /** Prédicats des termes qui ne sont pas indexés par tags. */
+    private static Predicate<SocialMediaPost> leafPredicate(QueryNode node) {
+        return switch (node) {
+            case MetricTerm m -> post -> m.op().test(m.metric().extract(post), m.value());
+            case DateTerm d -> post -> d.op().test(post.getCreatedUtc(), d.epochSecond());
+            case PlatformTerm p -> post -> p.platform().equalsIgnoreCase(post.getPlatform());
+            default -> throw new IllegalStateException("Terme inattendu : " + node);
+        };
+    }
+
+    // ======== PRÉDICATS SUR ORDINAUX ========
+
+    private static CompiledQuery.Binder binder(QueryNode node) {
+        return switch (node) {
+            case And and -> {
+                List<CompiledQuery.Binder> children = and.children().stream().map(QueryCompiler::binder).toList();
+                yield index -> {
+                    IntPredicate acc = o -> true;
+                    for (CompiledQuery.Binder child : children) {
+                        acc = acc.and(child.bind(index));
+                    }
+                    return acc;
+                };
+            }
+            case Or or -> {
+                List<CompiledQuery.Binder> children = or.children().stream().map(QueryCompiler::binder).toList();
+                yield index -> {
+                    IntPredicate acc = o -> false;
+                    for (CompiledQuery.Binder child : children) {
+                        acc = acc.or(child.bind(index));
+                    }
+                    return acc;
+                };
+            }
+            case Not not -> {
+                CompiledQuery.Binder child = binder(not.child());
+                yield index -> child.bind(index).negate();
+            }
+            case TagTerm tag -> index -> index.tag(tag.tag())::contains;
+            default -> leafBinder(node);
+        };
+    }
+
+    /**
+     * Termes non indexés par tags, évalués sur les colonnes de métriques et
+     * sur le texte extrait une fois par post par l'index.
+     */
+    private static CompiledQuery.Binder leafBinder(QueryNode node) {
+        return switch (node) {
+            case ContentTerm content -> index -> o -> index.text(o).contains(content.text());
+            case MetricTerm m -> index -> {
+                int[] values = index.columns().column(m.metric());
+                return o -> m.op().test(values[o], m.value());
+            };
+            case DateTerm d -> index -> {
+                long[] dates = index.columns().createdUtc();
+                return o -> d.op().test(dates[o], d.epochSecond());
+            };
+            case PlatformTerm p -> {
+                byte code = MetricColumns.platformCode(p.platform());
+                if (code == MetricColumns.PLATFORM_OTHER) {
+                    Predicate<SocialMediaPost> byName = leafPredicate(node);
+                    yield index -> o -> byName.test(index.get(o));
+                }
+                yield index -> {
+                    byte[] platforms = index.columns().platforms();
+                    return o -> platforms[o] == code;
+                };
+            }
+            default -> {
+                Predicate<SocialMediaPost> predicate = leafPredicate(node);
+                yield index -> o -> predicate.test(index.get(o));
+            }
+        };
+    }
+
+    // ======== PLAN SUR INDEX ========
+
+    /** Feuille non indexée : filtre les candidats ordinal par ordinal. */
+    private record FilterPlan(CompiledQuery.Binder binder) implements CompiledQuery.Plan {
+        @Override
+        public PostBitmap execute(PostIndex index) {
+            return filter(index.all(), binder.bind(index));
+        }
+    }
+
+    private static CompiledQuery.Plan plan(QueryNode node) {
+        return switch (node) {
+            case TagTerm tag -> index -> index.tag(tag.tag());
+            case Not not -> {
+                CompiledQuery.Plan child = plan(not.child());
+                yield index -> index.all().andNot(child.execute(index));
+            }
+            case Or or -> {
+                List<CompiledQuery.Plan> children = or.children().stream().map(QueryCompiler::plan).toList();
+                yield index -> {
+                    PostBitmap acc = new PostBitmap();
+                    for (CompiledQuery.Plan child : children) {
+                        acc = acc.or(child.execute(index));
+                    }
+                    return acc;
+                };
+            }
+            case And and -> andPlan(and);
+            default -> new FilterPlan(leafBinder(node));
+        };
+    }
+
+    /**
+     * Conjonction : les sous-plans sur bitmaps sont intersectés du plus petit
+     * au plus grand, puis les prédicats ne parcourent que les candidats restants.
+     */
+    private static CompiledQuery.Plan andPlan(And and) {
+        List<CompiledQuery.Plan> bitmapPlans = new ArrayList<>();
+        List<CompiledQuery.Binder> filters = new ArrayList<>();
+        for (QueryNode child : and.children()) {
+            CompiledQuery.Plan childPlan = plan(child);
+            if (childPlan instanceof FilterPlan filter) {
+                filters.add(filter.binder());
+            } else {
+                bitmapPlans.add(childPlan);
+            }
+        }
+
+        return index -> {
+            List<PostBitmap> parts = new ArrayList<>(bitmapPlans.size());
+            for (CompiledQuery.Plan p : bitmapPlans) {
+                parts.add(p.execute(index));
+            }
+            parts.sort(Comparator.comparingInt(PostBitmap::cardinality));
+
+            PostBitmap acc = parts.isEmpty() ? index.all() : parts.get(0);
+            for (int i = 1; i < parts.size() && !acc.isEmpty(); i++) {
+                acc = acc.and(parts.get(i));
+            }
+            for (CompiledQuery.Binder residual : filters) {
+                acc = filter(acc, residual.bind(index));
+            }
+            return acc;
+        };
+    }
+
+    private static PostBitmap filter(PostBitmap candidates, IntPredicate predicate) {
+        PostBitmap out = new PostBitmap();
+        candidates.forEach(ordinal -> {
+            if (predicate.test(ordinal)) {
+                out.add(ordinal);
+            }
+        });
+        return out;
+    }
+
+    // ======== TAGS À RÉCUPÉRER ========
+
+    private static void collectFetchTags(QueryNode node, Set<String> out) {
+        switch (node) {
+            case TagTerm tag -> out.add(tag.tag());
+            case Or or -> or.children().forEach(child -> collectFetchTags(child, out));
+            case And and -> {
+                for (QueryNode child : and.children()) {
+                    Set<String> childTags = new LinkedHashSet<>();
+                    collectFetchTags(child, childTags);
+                    if (!childTags.isEmpty()) {
+                        out.addAll(childTags);
+                        return;
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package antix.query;
+
+import antix.model.SocialMediaPost;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Métriques numériques utilisables dans les requêtes ({@code likes:>5}),
+ * les filtres et les tris.
+ */
+public enum QueryMetric {
+    LIKES(SocialMediaPost::getLikeCount, "likes", "like"),
+    REPOSTS(SocialMediaPost::getShareCount, "reposts", "repost", "shares"),
+    REPLIES(SocialMediaPost::getRepliesCount, "replies", "reply", "comments");
+
+    private final ToIntFunction<SocialMediaPost> extractor;
+    private final List<String> names;
+
+    QueryMetric(ToIntFunction<SocialMediaPost> extractor, String... names) {
+        this.extractor = extractor;
+        this.names = List.of(names);
+    }
+
+    public int extract(SocialMediaPost post) {
+        return extractor.applyAsInt(post);
+    }
+
+    public String getName() {
+        return names.get(0);
+    }
+
+    /**
+     * Retrouve une métrique par son nom ou un de ses alias.
+     *
+     * @param name Nom saisi par l'utilisateur.
+     * @return La métrique, ou null si inconnue.
+     */
+    public static QueryMetric fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String n = name.trim().toLowerCase();
+        for (QueryMetric metric : values()) {
+            if (metric.names.contains(n)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
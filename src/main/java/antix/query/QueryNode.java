@@ -0,0 +1,82 @@
+package antix.query;
+
+import java.util.List;
+
+/**
+ * Arbre syntaxique d'une requête de recherche.
+ * Produit par {@link QueryParser}, compilé par {@link QueryCompiler}.
+ */
+public sealed interface QueryNode {
+
+    /** Conjonction (&&, et, ou simple juxtaposition). */
+    record And(List<QueryNode> children) implements QueryNode {
+    }
+
+    /** Disjonction (||, ou). */
+    record Or(List<QueryNode> children) implements QueryNode {
+    }
+
+    /** Négation (!terme). */
+    record Not(QueryNode child) implements QueryNode {
+    }
+
+    /** Tag, normalisé en minuscules et sans '#'. */
+    record TagTerm(String tag) implements QueryNode {
+    }
+
+    /** Recherche textuelle dans le contenu ({@code c:mot} ou {@code "phrase"}). */
+    record ContentTerm(String text) implements QueryNode {
+    }
+
+    /** Prédicat numérique ({@code likes:>5}, {@code replies:<3}). */
+    record MetricTerm(QueryMetric metric, Comparison op, int value) implements QueryNode {
+    }
+
+    /** Prédicat de date ({@code date:>2024-05-01}), en secondes epoch. */
+    record DateTerm(Comparison op, long epochSecond) implements QueryNode {
+    }
+
+    /** Filtre de plateforme ({@code platform:reddit}). */
+    record PlatformTerm(String platform) implements QueryNode {
+    }
+
+    /** Opérateurs de comparaison des prédicats numériques et de date. */
+    enum Comparison {
+        GT(">"), GE(">="), LT("<"), LE("<="), EQ("=");
+
+        private final String symbol;
+
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public boolean test(long left, long right) {
+            return switch (this) {
+                case GT -> left > right;
+                case GE -> left >= right;
+                case LT -> left < right;
+                case LE -> left <= right;
+                case EQ -> left == right;
+            };
+        }
+
+        /**
+         * Lit un opérateur en tête de texte.
+         *
+         * @param text Texte commençant par l'opérateur (ex: ">=5").
+         * @return L'opérateur, ou null si absent.
+         */
+        public static Comparison prefixOf(String text) {
+            if (text.startsWith(">=")) return GE;
+            if (text.startsWith("<=")) return LE;
+            if (text.startsWith(">")) return GT;
+            if (text.startsWith("<")) return LT;
+            if (text.startsWith("=")) return EQ;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package antix.query;
+
+import antix.index.PostIndex;
+import antix.query.QueryNode.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analyseur de requêtes de recherche.
+ * <p>
+ * Grammaire (priorité croissante : ||, &&, !) :
+ * <pre>
+ * ou      := et ( ("||" | "|" | "ou" | "or" | "v") et )*
+ * et      := unaire ( ("&&" | "et" | "and")? unaire )*
+ * unaire  := ("!" | "not") unaire | primaire
+ * primaire:= "(" ou ")" | "phrase" | terme
+ * terme   := likes:>5 | reposts:<3 | replies:=2 | date:>2024-05-01
+ *          | platform:reddit | c:mot | tag
+ * </pre>
+ * Deux termes juxtaposés sont combinés par un ET implicite.
+ */
+public final class QueryParser {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    private enum Kind { WORD, QUOTED, AND, OR, NOT, OPEN, CLOSE, END }
+
+    private record Token(Kind kind, String text) {
+    }
+
+    private final List<Token> tokens;
+    private int pos;
+
+    private QueryParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Analyse une requête.
+     *
+     * @param query Texte de la requête.
+     * @return Arbre syntaxique.
+     * @throws IllegalArgumentException si la requête est mal formée.
+     */
+    public static QueryNode parse(String query) {
+        QueryParser parser = new QueryParser(tokenize(query));
+        if (parser.peek().kind() == Kind.END) {
+            throw new IllegalArgumentException("La requête est vide.");
+        }
+        QueryNode node = parser.parseOr();
+        if (parser.peek().kind() != Kind.END) {
+            throw new IllegalArgumentException("Symbole inattendu : \"" + parser.peek().text() + "\"");
+        }
+        return node;
+    }
+
+    // ======== ANALYSE SYNTAXIQUE ========
+
+    private QueryNode parseOr() {
+        List<QueryNode> children = new ArrayList<>();
+        children.add(parseAnd());
+        while (peek().kind() == Kind.OR) {
+            pos++;
+            children.add(parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new Or(List.copyOf(children));
+    }
+
+    private QueryNode parseAnd() {
+        List<QueryNode> children = new ArrayList<>();
+        children.add(parseUnary());
+        while (true) {
+            Kind next = peek().kind();
+            if (next == Kind.AND) {
+                pos++;
+                children.add(parseUnary());
+            } else if (next == Kind.WORD || next == Kind.QUOTED || next == Kind.NOT || next == Kind.OPEN) {
+                children.add(parseUnary());
+            } else {
+                break;
+            }
+        }
+        return children.size() == 1 ? children.get(0) : new And(List.copyOf(children));
+    }
+
+    private QueryNode parseUnary() {
+        if (peek().kind() == Kind.NOT) {
+            pos++;
+            return new Not(parseUnary());
+        }
+        return parsePrimary();
+    }
+
+    private QueryNode parsePrimary() {
+        Token token = tokens.get(pos++);
+        return switch (token.kind()) {
+            case OPEN -> {
+                QueryNode inner = parseOr();
+                if (peek().kind() != Kind.CLOSE) {
+                    throw new IllegalArgumentException("Parenthèse fermante manquante.");
+                }
+                pos++;
+                yield inner;
+            }
+            case QUOTED -> new ContentTerm(token.text().toLowerCase());
+            case WORD -> parseTerm(token.text());
+            case END -> throw new IllegalArgumentException("Requête incomplète.");
+            default -> throw new IllegalArgumentException("Symbole inattendu : \"" + token.text() + "\"");
+        };
+    }
+
+    private static QueryNode parseTerm(String word) {
+        int colon = word.indexOf(':');
+        if (colon <= 0 || colon == word.length() - 1) {
+            return new TagTerm(PostIndex.normalize(word));
+        }
+        String field = word.substring(0, colon).toLowerCase();
+        String arg = word.substring(colon + 1);
+
+        QueryMetric metric = QueryMetric.fromName(field);
+        if (metric != null) {
+            Comparison op = Comparison.prefixOf(arg);
+            String number = op == null ? arg : arg.substring(op.getSymbol().length());
+            try {
+                return new MetricTerm(metric, op == null ? Comparison.EQ : op, Integer.parseInt(number));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valeur numérique invalide : \"" + word + "\"");
+            }
+        }
+
+        return switch (field) {
+            case "date" -> {
+                Comparison op = Comparison.prefixOf(arg);
+                String day = op == null ? arg : arg.substring(op.getSymbol().length());
+                try {
+                    yield dateTerm(op == null ? Comparison.GE : op, LocalDate.parse(day));
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Date invalide (AAAA-MM-JJ attendu) : \"" + word + "\"");
+                }
+            }
+            case "platform", "p" -> new PlatformTerm(arg.toLowerCase());
+            case "c", "content" -> new ContentTerm(arg.toLowerCase());
+            case "tag" -> new TagTerm(PostIndex.normalize(arg));
+            default -> new TagTerm(PostIndex.normalize(word));
+        };
+    }
+
+    /**
+     * Un jour couvre l'intervalle [début, début du lendemain[ : chaque opérateur
+     * est traduit en bornes sur cet intervalle.
+     */
+    private static QueryNode dateTerm(Comparison op, LocalDate day) {
+        long start = day.atStartOfDay(ZONE).toEpochSecond();
+        long end = day.plusDays(1).atStartOfDay(ZONE).toEpochSecond();
+        return switch (op) {
+            case EQ -> new And(List.of(new DateTerm(Comparison.GE, start), new DateTerm(Comparison.LT, end)));
+            case GT -> new DateTerm(Comparison.GE, end);
+            case GE -> new DateTerm(Comparison.GE, start);
+            case LE -> new DateTerm(Comparison.LT, end);
+            case LT -> new DateTerm(Comparison.LT, start);
+        };
+    }
+
+    private Token peek() {
+        return tokens.get(pos);
+    }
+
+    // ======== ANALYSE LEXICALE ========
+
+    private static List<Token> tokenize(String query) {
+        List<Token> out = new ArrayList<>();
+        int i = 0;
+        int n = query.length();
+        while (i < n) {
+            char ch = query.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                i++;
+            } else if (ch == '(') {
+                out.add(new Token(Kind.OPEN, "("));
+                i++;
+            } else if (ch == ')') {
+                out.add(new Token(Kind.CLOSE, ")"));
+                i++;
+            } else if (ch == '&') {
+                out.add(new Token(Kind.AND, "&&"));
+                i += (i + 1 < n && query.charAt(i + 1) == '&') ? 2 : 1;
+            } else if (ch == '|') {
+                out.add(new Token(Kind.OR, "||"));
+                i += (i + 1 < n && query.charAt(i + 1) == '|') ? 2 : 1;
+            } else if (ch == '!') {
+                out.add(new Token(Kind.NOT, "!"));
+                i++;
+            } else if (ch == '"') {
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Guillemet fermant manquant.");
+                }
+                out.add(new Token(Kind.QUOTED, query.substring(i + 1, end)));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < n && !Character.isWhitespace(query.charAt(i)) && "()&|\"".indexOf(query.charAt(i)) < 0) {
+                    i++;
+                }
+                String word = query.substring(start, i);
+                if (word.endsWith(":") && i < n && query.charAt(i) == '"') {
+                    // Argument entre guillemets : c:"une phrase"
+                    int end = query.indexOf('"', i + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Guillemet fermant manquant.");
+                    }
+                    word += query.substring(i + 1, end);
+                    i = end + 1;
+                }
+                out.add(switch (word.toLowerCase()) {
+                    case "et", "and" -> new Token(Kind.AND, word);
+                    case "ou", "or", "v" -> new Token(Kind.OR, word);
+                    case "not" -> new Token(Kind.NOT, word);
+                    default -> new Token(Kind.WORD, word);
+                });
+            }
+        }
+        out.add(new Token(Kind.END, ""));
+        return out;
+    }
+}
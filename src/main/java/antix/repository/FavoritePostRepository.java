@@ -0,0 +1,36 @@
+package antix.repository;
+
+import antix.model.FavoritePost;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Accès aux favoris persistés.
+ */
+public interface FavoritePostRepository extends JpaRepository<FavoritePost, Long> {
+
+    /**
+     * Favoris d'un utilisateur, du plus récemment ajouté au plus ancien.
+     *
+     * @param owner    Identifiant de l'utilisateur.
+     * @param pageable Page demandée.
+     * @return Page de favoris.
+     */
+    Page<FavoritePost> findByOwnerOrderByAddedAtDescIdDesc(String owner, Pageable pageable);
+
+    /**
+     * Clés "plateforme:id" des favoris d'un utilisateur (chargement de
+     * l'ensemble de dédoublonnage).
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @return Clés des posts favoris.
+     */
+    @Query("select concat(f.platform, ':', f.postId) from FavoritePost f where f.owner = :owner")
+    List<String> findKeysByOwner(@Param("owner") String owner);
+}
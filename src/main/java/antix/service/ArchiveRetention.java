@@ -0,0 +1,215 @@
+package antix.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tâche de fond bornant la taille de l'{@link PostArchive}, pour que la
+ * latence des requêtes reste stable après des mois d'alimentation.
+ * <p>
+ * À chaque passage :
+ * <ul>
+ * <li>les posts plus anciens que {@code max-age-days} sont retirés, sauf
+ * s'ils ont suscité au moins {@code keep-engagement} réactions (likes,
+ * commentaires, partages) ; ceux-là restent jusqu'à
+ * {@code engaged-max-age-days} ;</li>
+ * <li>les mesures de métriques plus anciennes que
+ * {@code downsample-after-days} sont condensées à une par post et par jour
+ * (la dernière du jour) ;</li>
+ * <li>les dates de récupération périmées sont oubliées.</li>
+ * </ul>
+ * Le travail est découpé en lots de {@code batch-size} lignes, une courte
+ * transaction par lot : les index sont mis à jour au fil des suppressions et
+ * les lectures (MVCC) ne sont jamais bloquées. Le budget d'E/S d'un passage
+ * est borné par une pause entre deux lots et un nombre maximal de lots ; le
+ * reste est repris au passage suivant.
+ */
+@Service
+public class ArchiveRetention {
+
+    private static final Logger logger = Logger.getLogger(ArchiveRetention.class.getName());
+
+    private static final String SELECT_EXPIRED = """
+            SELECT platform, post_id FROM archived_post
+            WHERE (created_utc BETWEEN 1 AND ? OR (created_utc = 0 AND fetched_at < ?))
+              AND (like_count + num_comments + share_count < ? OR created_utc < ?)
+            FETCH FIRST ? ROWS ONLY
+            """;
+    // Mesure ancienne suivie d'une autre le même jour pour le même post
+    private static final String DELETE_SUPERSEDED_METRICS = """
+            DELETE FROM archived_metric m
+            WHERE m.sampled_at < ? AND EXISTS (
+                SELECT 1 FROM archived_metric n
+                WHERE n.platform = m.platform AND n.post_id = m.post_id
+                  AND CAST(n.sampled_at AS DATE) = CAST(m.sampled_at AS DATE)
+                  AND n.sampled_at > m.sampled_at)
+            FETCH FIRST ? ROWS ONLY
+            """;
+    private static final List<String> POST_TABLES = List.of(
+            "archived_post_tag", "archived_search_hit", "archived_metric", "archived_post");
+
+    /**
+     * Bilan d'un passage.
+     *
+     * @param posts   Posts retirés.
+     * @param metrics Mesures condensées.
+     * @param batches Lots exécutés.
+     * @param millis  Durée du passage.
+     */
+    public record Pass(int posts, int metrics, int batches, long millis) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final long intervalMinutes;
+    private final Duration maxAge;
+    private final Duration engagedMaxAge;
+    private final int keepEngagement;
+    private final Duration downsampleAfter;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatches;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("antix-retention").factory());
+
+    /**
+     * @param jdbc                Accès JDBC à la base H2.
+     * @param transactions        Transactions (une par lot).
+     * @param intervalMinutes     Délai entre deux passages (0 : désactivé).
+     * @param maxAgeDays          Âge au-delà duquel un post peu engagé est retiré.
+     * @param engagedMaxAgeDays   Âge au-delà duquel tout post est retiré.
+     * @param keepEngagement      Réactions à partir desquelles un post est gardé plus longtemps.
+     * @param downsampleAfterDays Âge au-delà duquel les mesures sont condensées (une par jour).
+     * @param batchSize           Lignes traitées par lot.
+     * @param pauseMs             Pause entre deux lots.
+     * @param maxBatches          Nombre maximal de lots par passage.
+     */
+    public ArchiveRetention(JdbcTemplate jdbc, TransactionTemplate transactions,
+            @Value("${antix.retention.interval-minutes:60}") long intervalMinutes,
+            @Value("${antix.retention.max-age-days:30}") long maxAgeDays,
+            @Value("${antix.retention.engaged-max-age-days:180}") long engagedMaxAgeDays,
+            @Value("${antix.retention.keep-engagement:100}") int keepEngagement,
+            @Value("${antix.retention.downsample-after-days:2}") long downsampleAfterDays,
+            @Value("${antix.retention.batch-size:500}") int batchSize,
+            @Value("${antix.retention.pause-ms:50}") long pauseMs,
+            @Value("${antix.retention.max-batches:200}") int maxBatches) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.intervalMinutes = intervalMinutes;
+        this.maxAge = Duration.ofDays(Math.max(1, maxAgeDays));
+        this.engagedMaxAge = Duration.ofDays(Math.max(maxAgeDays, engagedMaxAgeDays));
+        this.keepEngagement = keepEngagement;
+        this.downsampleAfter = Duration.ofDays(Math.max(1, downsampleAfterDays));
+        this.batchSize = Math.max(1, batchSize);
+        this.pauseMs = Math.max(0, pauseMs);
+        this.maxBatches = Math.max(1, maxBatches);
+    }
+
+    @PostConstruct
+    void start() {
+        if (intervalMinutes > 0) {
+            // Premier passage décalé : pas de concurrence avec le démarrage (schéma, import)
+            executor.scheduleWithFixedDelay(this::runQuietly, Math.min(intervalMinutes, 5), intervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void runQuietly() {
+        try {
+            run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Échec du passage de rétention de l'archive", e);
+        }
+    }
+
+    /**
+     * Exécute un passage de rétention (dans la limite du budget de lots).
+     *
+     * @return Bilan du passage.
+     */
+    public Pass run() throws InterruptedException {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        int batches = 0;
+
+        int posts = 0;
+        while (batches < maxBatches) {
+            int removed = removeExpiredPosts(now);
+            batches++;
+            posts += removed;
+            if (removed < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+
+        int metrics = 0;
+        // Même jour que CAST(sampled_at AS DATE) : minuit du fuseau de la JVM, celui des TIMESTAMP écrits
+        Timestamp downsampleBefore = Timestamp.valueOf(LocalDateTime.ofInstant(now.minus(downsampleAfter),
+                ZoneId.systemDefault()).toLocalDate().atStartOfDay());
+        while (batches < maxBatches) {
+            int removed = jdbc.update(DELETE_SUPERSEDED_METRICS, downsampleBefore, batchSize);
+            batches++;
+            metrics += removed;
+            if (removed < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+
+        jdbc.update("DELETE FROM archived_fetch WHERE fetched_at < ?", Timestamp.from(now.minus(maxAge)));
+        if (posts + metrics > 0) {
+            // Statistiques de sélectivité à jour pour l'optimiseur, sur un échantillon
+            jdbc.execute("ANALYZE SAMPLE_SIZE 10000");
+        }
+
+        Pass pass = new Pass(posts, metrics, batches, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Rétention de l'archive : " + pass.posts() + " post(s) retirés, "
+                + pass.metrics() + " mesure(s) condensées en " + pass.batches() + " lot(s), " + pass.millis() + " ms");
+        return pass;
+    }
+
+    // Un lot : clés des posts expirés, puis suppression dans toutes les tables en une transaction
+    private int removeExpiredPosts(Instant now) {
+        Instant cutoff = now.minus(maxAge);
+        long engagedCutoff = now.minus(engagedMaxAge).getEpochSecond();
+        List<String> keys = jdbc.query(SELECT_EXPIRED,
+                (rs, row) -> rs.getString("platform") + ":" + rs.getString("post_id"),
+                cutoff.getEpochSecond(), Timestamp.from(cutoff), keepEngagement, engagedCutoff, batchSize);
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        String condition = PostArchive.keyCondition(keys.size());
+        Object[] args = PostArchive.keyArgs(keys);
+        transactions.executeWithoutResult(status -> {
+            for (String table : POST_TABLES) {
+                jdbc.update("DELETE FROM " + table + " WHERE " + condition, args);
+            }
+        });
+        return keys.size();
+    }
+}
@@ -0,0 +1,215 @@
+package antix.service;
+
+import antix.index.PostIndex;
+import antix.model.FavoritePost;
+import antix.model.SocialMediaPost;
+import antix.repository.FavoritePostRepository;
+import antix.utils.AsyncUtils;
+import antix.utils.HtmlSanitizer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Favoris des utilisateurs, persistés via JPA.
+ * <p>
+ * L'ajout est immédiat pour l'interface : la clé plateforme:id entre dans
+ * l'ensemble en mémoire de l'utilisateur (test de doublon en O(1), chargé une
+ * fois depuis la base) et le favori rejoint une file d'écriture. La file est
+ * vidée périodiquement, par lots insérés en une seule transaction ; une
+ * lecture de la liste la vide d'abord, pour toujours voir ses derniers ajouts.
+ * Un lot en échec est remis en file et retenté au vidage suivant.
+ * <p>
+ * Seuls les ensembles des {@code max-owners} derniers utilisateurs actifs
+ * restent en mémoire ; les autres sont relus en base à leur retour.
+ */
+@Service
+public class FavoriteService {
+
+    private static final Logger logger = Logger.getLogger(FavoriteService.class.getName());
+
+    private final FavoritePostRepository repository;
+    private final long flushMillis;
+    private final int batchSize;
+    private final int maxOwners;
+
+    // Ordre d'accès : le moins récemment utilisé est évincé en premier
+    private final Map<String, Set<String>> keysByOwner = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+            return size() > maxOwners;
+        }
+    };
+    private final ConcurrentLinkedQueue<FavoritePost> pending = new ConcurrentLinkedQueue<>();
+    private ScheduledFuture<?> flusher;
+
+    /**
+     * @param repository  Accès aux favoris persistés.
+     * @param flushMillis Délai entre deux vidages de la file d'écriture.
+     * @param batchSize   Nombre maximal de favoris insérés par transaction.
+     * @param maxOwners   Nombre d'utilisateurs dont les clés restent en mémoire.
+     */
+    public FavoriteService(FavoritePostRepository repository,
+            @Value("${antix.favorites.flush-ms:500}") long flushMillis,
+            @Value("${antix.favorites.batch-size:50}") int batchSize,
+            @Value("${antix.favorites.max-owners:1000}") int maxOwners) {
+        this.repository = repository;
+        this.flushMillis = Math.max(50, flushMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxOwners = Math.max(1, maxOwners);
+    }
+
+    @PostConstruct
+    void start() {
+        // Le planificateur partagé ne fait que déclencher : l'écriture part sur un worker
+        flusher = AsyncUtils.scheduler().scheduleWithFixedDelay(
+                () -> AsyncUtils.workers().execute(this::flush),
+                flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.cancel(false);
+        }
+        flush();
+    }
+
+    /**
+     * Ajoute un post aux favoris d'un utilisateur.
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param post  Post à ajouter.
+     * @return false si le post était déjà en favori.
+     */
+    public boolean add(String owner, SocialMediaPost post) {
+        if (!keys(owner).add(PostIndex.keyOf(post))) {
+            return false;
+        }
+        pending.add(FavoritePost.of(owner, post, HtmlSanitizer.preview(post.getContent())));
+        return true;
+    }
+
+    /**
+     * Teste si un post est en favori, sans accès à la base.
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param post  Post testé.
+     */
+    public boolean contains(String owner, SocialMediaPost post) {
+        return keys(owner).contains(PostIndex.keyOf(post));
+    }
+
+    /**
+     * Nombre de favoris d'un utilisateur (en attente d'écriture compris).
+     *
+     * @param owner Identifiant de l'utilisateur.
+     */
+    public int count(String owner) {
+        return keys(owner).size();
+    }
+
+    /**
+     * Page des favoris d'un utilisateur, lue en base.
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param page  Numéro de page (0 pour la première).
+     * @param size  Nombre de favoris par page.
+     * @return Page demandée.
+     */
+    public Page<FavoritePost> page(String owner, int page, int size) {
+        flush();
+        return repository.findByOwnerOrderByAddedAtDescIdDesc(owner, PageRequest.of(page, size));
+    }
+
+    /**
+     * Écrit les favoris en attente, par lots. S'arrête au premier lot en
+     * échec, remis en file pour le vidage suivant.
+     */
+    public synchronized void flush() {
+        List<FavoritePost> batch = new ArrayList<>(batchSize);
+        FavoritePost next;
+        while ((next = pending.poll()) != null) {
+            batch.add(next);
+            if (batch.size() == batchSize) {
+                if (!save(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            save(batch);
+        }
+    }
+
+    /** Écrit un lot ; renvoie false si des favoris ont été remis en file. */
+    private boolean save(List<FavoritePost> batch) {
+        try {
+            repository.saveAll(batch);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Favori déjà présent (ajouté depuis une autre session) : on reprend un par un
+            List<FavoritePost> failed = new ArrayList<>();
+            for (FavoritePost favorite : batch) {
+                try {
+                    repository.save(favorite.copy());
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Déjà en base
+                } catch (RuntimeException retry) {
+                    failed.add(favorite.copy());
+                }
+            }
+            return requeue(failed, null);
+        } catch (RuntimeException e) {
+            // Lot rejeté en entier : ses entités ne sont pas réutilisables telles quelles
+            return requeue(batch.stream().map(FavoritePost::copy).toList(), e);
+        }
+    }
+
+    private boolean requeue(List<FavoritePost> failed, RuntimeException cause) {
+        if (failed.isEmpty()) {
+            return true;
+        }
+        // Les clés restent dans keysByOwner : le favori sera écrit au prochain vidage
+        pending.addAll(failed);
+        logger.log(Level.WARNING, "Échec de l'écriture de " + failed.size()
+                + " favori(s), nouvel essai au prochain vidage", cause);
+        return false;
+    }
+
+    private Set<String> keys(String owner) {
+        synchronized (keysByOwner) {
+            Set<String> keys = keysByOwner.get(owner);
+            if (keys != null) {
+                return keys;
+            }
+        }
+        // Ajouts en attente écrits d'abord : la relecture d'un utilisateur évincé les retrouve
+        flush();
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        loaded.addAll(repository.findKeysByOwner(owner));
+        synchronized (keysByOwner) {
+            Set<String> keys = keysByOwner.putIfAbsent(owner, loaded);
+            return keys != null ? keys : loaded;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package antix.service;
+
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+import antix.utils.AsyncUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Import en masse de flux enregistrés dans l'archive, pour faire tourner une
+ * instance sans réseau (staging, tests de charge) sur des volumes réalistes.
+ * <p>
+ * Fichiers lus dans {@code antix.import.dir} :
+ * <ul>
+ * <li>{@code *.json} : une réponse brute de plateforme (Listing Reddit ou
+ * tableau de statuts Mastodon, reconnus à leur forme). Le tag recherché est
+ * le nom du fichier, éventuellement préfixé par la plateforme
+ * ({@code reddit-java.json}, {@code java.json}) ;</li>
+ * <li>{@code *.jsonl} : une ligne par enregistrement, soit une réponse
+ * enregistrée {@code {"platform", "tag", "body"}}, soit un post tel que
+ * produit par {@code export jsonl}.</li>
+ * </ul>
+ * Un seul thread lit les fichiers ; les lignes sont analysées par paquets, en
+ * parallèle sur les threads virtuels (au plus un paquet par cœur à la fois).
+ * Les lots obtenus passent par une file bornée et sont insérés par un seul
+ * thread, en MERGE groupés (une transaction par lot) : la mémoire reste
+ * bornée quelle que soit la taille des flux. Les tags
+ * importés sont ensuite marqués comme récupérés : les commandes h et reset
+ * les servent depuis l'archive.
+ */
+@Service
+public class FeedImporter {
+
+    private static final Logger logger = Logger.getLogger(FeedImporter.class.getName());
+
+    /** Nombre de lignes JSONL analysées par tâche. */
+    public static final int LINES_PER_CHUNK = 1000;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Bilan d'un import.
+     *
+     * @param files  Nombre de fichiers lus.
+     * @param posts  Nombre de posts archivés.
+     * @param errors Nombre de fichiers ou de lignes illisibles.
+     * @param millis Durée de l'import.
+     */
+    public record Result(int files, long posts, long errors, long millis) {}
+
+    private record Batch(String tag, List<SocialMediaPost> posts) {}
+
+    private final RedditService reddit;
+    private final MastodonService mastodon;
+    private final PostArchive archive;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final boolean onStartup;
+    private final Path directory;
+
+    /**
+     * @param reddit    Analyse des réponses Reddit.
+     * @param mastodon  Analyse des réponses Mastodon.
+     * @param archive   Archive alimentée.
+     * @param onStartup Importe le répertoire au démarrage de l'application.
+     * @param directory Répertoire des flux enregistrés.
+     */
+    public FeedImporter(RedditService reddit, MastodonService mastodon, PostArchive archive,
+            @Value("${antix.import.on-startup:false}") boolean onStartup,
+            @Value("${antix.import.dir:./data/import}") String directory) {
+        this.reddit = reddit;
+        this.mastodon = mastodon;
+        this.archive = archive;
+        this.onStartup = onStartup;
+        this.directory = Path.of(directory);
+    }
+
+    // Une fois le schéma créé ; en arrière-plan pour ne pas retarder le démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    void importOnStartup() {
+        if (!onStartup) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("antix-import").start(() -> {
+            try {
+                importDirectory(directory);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Import impossible depuis " + directory, e);
+            }
+        });
+    }
+
+    /**
+     * Importe les fichiers .json et .jsonl d'un répertoire (non récursif).
+     *
+     * @param dir Répertoire des flux.
+     * @return Bilan de l'import.
+     */
+    public Result importDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            logger.info("Import : répertoire absent (" + dir + ")");
+            return new Result(0, 0, 0, 0);
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(p -> p.toString().endsWith(".json") || p.toString().endsWith(".jsonl"))
+                    .sorted()
+                    .toList();
+        }
+        return importFiles(files);
+    }
+
+    /**
+     * Importe des fichiers de flux : analyse en parallèle, insertion par lots
+     * sur le thread appelant.
+     *
+     * @param files Fichiers .json ou .jsonl.
+     * @return Bilan de l'import.
+     */
+    public Result importFiles(List<Path> files) {
+        long start = System.nanoTime();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Semaphore slots = new Semaphore(PARALLELISM);
+        AtomicInteger running = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+
+        // Lecture sur un thread à part : ce thread-ci vide la file pendant ce temps
+        running.incrementAndGet();
+        Thread.ofVirtual().name("antix-import-reader").start(() -> {
+            try {
+                for (Path file : files) {
+                    read(file, queue, slots, running, errors);
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        // Seul ce thread écrit : les MERGE ne se disputent pas les mêmes lignes
+        long posts = 0;
+        Map<String, Integer> fetchedTags = new HashMap<>();
+        try {
+            while (running.get() > 0 || !queue.isEmpty()) {
+                Batch batch = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+                try {
+                    archive.store(batch.tag(), batch.posts());
+                    posts += batch.posts().size();
+                    if (batch.tag() != null) {
+                        fetchedTags.merge(batch.tag(), batch.posts().size(), Integer::sum);
+                    }
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                    logger.log(Level.WARNING, "Échec de l'import d'un lot de " + batch.posts().size() + " post(s)", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fetchedTags.forEach(archive::markFetched);
+
+        Result result = new Result(files.size(), posts, errors.get(), (System.nanoTime() - start) / 1_000_000);
+        logger.info("Import : " + result.posts() + " post(s) depuis " + result.files() + " fichier(s) en "
+                + result.millis() + " ms (" + fetchedTags.size() + " tag(s), " + result.errors() + " erreur(s))");
+        return result;
+    }
+
+    // Lance une tâche d'analyse, au plus PARALLELISM à la fois
+    private void submit(AtomicInteger running, Semaphore slots, AtomicLong errors, Runnable task) {
+        running.incrementAndGet();
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.decrementAndGet();
+            return;
+        }
+        AsyncUtils.workers().execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                errors.incrementAndGet();
+                logger.log(Level.WARNING, "Échec de l'analyse d'un flux", e);
+            } finally {
+                slots.release();
+                running.decrementAndGet();
+            }
+        });
+    }
+
+    // Découpe un fichier en tâches d'analyse
+    private void read(Path file, BlockingQueue<Batch> queue, Semaphore slots, AtomicInteger running,
+            AtomicLong errors) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".json")) {
+            String stem = name.substring(0, name.length() - ".json".length());
+            String tag = stem.replaceFirst("^(reddit|mastodon)-", "");
+            submit(running, slots, errors, () -> {
+                try {
+                    put(queue, tag, parseResponse(null, mapper.readTree(file.toFile())));
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                    logger.log(Level.WARNING, "Flux illisible : " + file, e);
+                }
+            });
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> chunk = new ArrayList<>(LINES_PER_CHUNK);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    chunk.add(line);
+                }
+                if (chunk.size() == LINES_PER_CHUNK) {
+                    List<String> lines = chunk;
+                    submit(running, slots, errors, () -> parseLines(lines, queue, errors));
+                    chunk = new ArrayList<>(LINES_PER_CHUNK);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<String> lines = chunk;
+                submit(running, slots, errors, () -> parseLines(lines, queue, errors));
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            logger.log(Level.WARNING, "Flux illisible : " + file, e);
+        }
+    }
+
+    // Analyse un paquet de lignes JSONL et envoie un lot par tag
+    private void parseLines(List<String> lines, BlockingQueue<Batch> queue, AtomicLong errors) {
+        Map<String, List<SocialMediaPost>> byTag = new HashMap<>();
+        List<SocialMediaPost> untagged = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                JsonNode node = mapper.readTree(line);
+                JsonNode body = node.get("body");
+                if (body != null) {
+                    JsonNode response = body.isTextual() ? mapper.readTree(body.asText()) : body;
+                    String tag = PostIndex.normalize(node.path("tag").asText(""));
+                    List<SocialMediaPost> posts = parseResponse(node.path("platform").asText(null), response);
+                    (tag.isEmpty() ? untagged : byTag.computeIfAbsent(tag, t -> new ArrayList<>())).addAll(posts);
+                } else {
+                    untagged.add(toPost(node));
+                }
+            } catch (IOException | RuntimeException e) {
+                errors.incrementAndGet();
+            }
+        }
+        byTag.forEach((tag, posts) -> put(queue, tag, posts));
+        put(queue, null, untagged);
+    }
+
+    // Réponse brute d'une plateforme, reconnue à sa forme si la plateforme n'est pas donnée
+    private List<SocialMediaPost> parseResponse(String platform, JsonNode response) {
+        if ("mastodon".equals(platform) || (platform == null && response.isArray())) {
+            return mastodon.parseStatuses(response);
+        }
+        return reddit.parseListing(response);
+    }
+
+    // Post au format de la commande export jsonl
+    private static SocialMediaPost toPost(JsonNode node) {
+        SocialMediaPost post = new SocialMediaPost();
+        post.setPlatform(node.path("platform").asText(null));
+        post.setId(node.path("id").asText(null));
+        if (post.getPlatform() == null || post.getId() == null) {
+            throw new IllegalArgumentException("Post sans plateforme ou sans id");
+        }
+        post.setCreatedUtc(node.path("created_utc").asLong(0));
+        post.setAuthor(node.path("author").asText(null));
+        post.setSubreddit(node.path("subreddit").asText(null));
+        post.setScore(node.path("score").asInt(0));
+        post.setNumComments(node.path("num_comments").asInt(0));
+        post.setLikeCount(node.path("like_count").asInt(0));
+        post.setShareCount(node.path("share_count").asInt(0));
+        post.setPostUrl(node.path("url").asText(null));
+        // Contenu jamais null, comme pour Mastodon : l'aperçu et la recherche le parsent
+        post.setBody(node.path("title").asText(null), node.path("content").asText(""));
+        for (JsonNode tag : node.path("tags")) {
+            post.addTag(tag.asText());
+        }
+        return post;
+    }
+
+    private static void put(BlockingQueue<Batch> queue, String tag, List<SocialMediaPost> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        try {
+            queue.put(new Batch(tag == null ? null : PostIndex.normalize(tag), posts));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package antix.service;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Historique des commandes persisté par utilisateur (table command_history).
+ * <p>
+ * Chaque commande est ajoutée en arrière-plan, sur un thread dédié ; les
+ * lignes au-delà des N plus récentes de l'utilisateur sont supprimées dans la
+ * foulée, de sorte que la table reste bornée comme l'historique en mémoire.
+ */
+@Service
+public class HistoryStore {
+
+    private static final Logger logger = Logger.getLogger(HistoryStore.class.getName());
+
+    private static final String PRUNE = """
+            DELETE FROM command_history WHERE owner = ? AND id < (
+                SELECT MIN(id) FROM (
+                    SELECT id FROM command_history WHERE owner = ? ORDER BY id DESC LIMIT ?) AS recent)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("antix-history").factory());
+
+    public HistoryStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Dernières commandes d'un utilisateur, de la plus ancienne à la plus récente.
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param limit Nombre maximal de commandes.
+     * @return Commandes (vide si la base est indisponible).
+     */
+    public List<String> load(String owner, int limit) {
+        try {
+            List<String> commands = new ArrayList<>(jdbc.queryForList(
+                    "SELECT command FROM command_history WHERE owner = ? ORDER BY id DESC LIMIT ?",
+                    String.class, owner, limit));
+            Collections.reverse(commands);
+            return commands;
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Historique indisponible pour " + owner, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Ajoute une commande à l'historique d'un utilisateur (asynchrone).
+     *
+     * @param owner   Identifiant de l'utilisateur.
+     * @param command Commande saisie.
+     * @param keep    Nombre de commandes gardées pour cet utilisateur.
+     */
+    public void append(String owner, String command, int keep) {
+        String stored = command.length() > 1024 ? command.substring(0, 1024) : command;
+        writer.execute(() -> {
+            try {
+                jdbc.update("INSERT INTO command_history (owner, command, typed_at) VALUES (?, ?, ?)",
+                        owner, stored, Timestamp.from(Instant.now()));
+                jdbc.update(PRUNE, owner, owner, keep);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Échec de l'enregistrement de l'historique", e);
+            }
+        });
+    }
+}
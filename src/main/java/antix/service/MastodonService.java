@@ -5,10 +5,12 @@ import antix.model.Tag;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -18,26 +20,41 @@ import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Service
 public class MastodonService implements SocialMediaService {
 
+    private static final Logger logger = Logger.getLogger(MastodonService.class.getName());
+
     // Instance par défaut (surchageable par env var)
     private final String instanceDomain;
+    // URL de base de l'API (https://<instance> par défaut ; surchargeable : staging, bouchons hors ligne)
+    private final String baseUrl;
     private final String userAgent;
 
+    // Journal des réponses brutes (null si instancié à la main)
+    private final ResponseLog responseLog;
+
     private final HttpClient http = HttpClient.newHttpClient();
     private final ObjectMapper mapper = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
+    @Autowired
     public MastodonService(
             @Value("${mastodon.instance:${MASTODON_INSTANCE:mastodon.social}}") String instanceDomain,
-            @Value("${mastodon.user-agent:${MASTODON_USER_AGENT:AntixBot/1.0 (+https://example.com)}}") String userAgent
+            @Value("${mastodon.user-agent:${MASTODON_USER_AGENT:AntixBot/1.0 (+https://example.com)}}") String userAgent,
+            @Value("${mastodon.base-url:${MASTODON_BASE_URL:}}") String baseUrl,
+            ResponseLog responseLog
     ) {
         this.instanceDomain = (instanceDomain == null || instanceDomain.isBlank())
                 ? "mastodon.social" : instanceDomain.trim();
+        this.baseUrl = baseUrl(baseUrl, this.instanceDomain);
         this.userAgent = (userAgent == null || userAgent.isBlank())
                 ? "AntixBot/1.0 (+https://example.com)" : userAgent.trim();
+        this.responseLog = responseLog;
     }
 
     // Constructeur sans argument si tu instancies à la main
@@ -45,7 +62,14 @@ public class MastodonService implements SocialMediaService {
         String inst = System.getenv("MASTODON_INSTANCE");
         String ua = System.getenv("MASTODON_USER_AGENT");
         this.instanceDomain = (inst == null || inst.isBlank()) ? "mastodon.social" : inst.trim();
+        this.baseUrl = baseUrl(System.getenv("MASTODON_BASE_URL"), this.instanceDomain);
         this.userAgent = (ua == null || ua.isBlank()) ? "AntixBot/1.0 (+https://example.com)" : ua.trim();
+        this.responseLog = null;
+    }
+
+    private static String baseUrl(String url, String instanceDomain) {
+        String base = (url == null || url.isBlank()) ? "https://" + instanceDomain : url.trim();
+        return base.replaceAll("/+$", "");
     }
 
     @Override
@@ -61,7 +85,20 @@ public class MastodonService implements SocialMediaService {
         // API officielle: /api/v1/timelines/tag/{hashtag}?limit=N
         // Retourne un tableau de "Status"
         String encodedTag = URLEncoder.encode(tag.replaceFirst("^#", ""), StandardCharsets.UTF_8);
-        String url = "https://" + instanceDomain + "/api/v1/timelines/tag/" + encodedTag + "?limit=" + capped;
+        String url = baseUrl + "/api/v1/timelines/tag/" + encodedTag + "?limit=" + capped;
+
+        // Rejeu : dernière réponse journalisée pour ce tag, sans réseau
+        if (responseLog != null && responseLog.isReplay()) {
+            try {
+                Optional<String> body = responseLog.latest(getPlatformName(), tag);
+                List<SocialMediaPost> posts = body.isPresent() ? parseStatuses(body.get()) : List.of();
+                logger.fine(() -> "Rejeu : " + posts.size() + " posts pour " + tag);
+                return posts.size() > capped ? posts.subList(0, capped) : posts;
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Rejeu impossible pour " + tag, e);
+                return List.of();
+            }
+        }
 
         try {
             HttpRequest req = HttpRequest.newBuilder(URI.create(url))
@@ -73,73 +110,79 @@ public class MastodonService implements SocialMediaService {
                 System.err.println("[MastodonService] HTTP " + resp.statusCode() + " body=" + resp.body());
                 return List.of();
             }
+            if (responseLog != null) responseLog.append(getPlatformName(), "timelines/tag", tag, resp.body());
+            return parseStatuses(resp.body());
+
+        } catch (Exception e) {
+            System.err.println("[MastodonService] Erreur: " + e.getMessage());
+            return List.of();
+        }
+    }
 
-            JsonNode arr = mapper.readTree(resp.body());
-            if (!arr.isArray()) return List.of();
+    // Convertit une réponse /api/v1/timelines/tag (tableau de "Status") en posts
+    List<SocialMediaPost> parseStatuses(String body) throws IOException {
+        return parseStatuses(mapper.readTree(body));
+    }
 
-            List<SocialMediaPost> out = new ArrayList<>();
-            for (JsonNode s : arr) {
-                SocialMediaPost p = new SocialMediaPost();
-                p.setPlatform("mastodon");
-                p.setId(s.path("id").asText(null));
+    // Idem à partir d'un arbre JSON déjà lu (import de flux enregistrés)
+    List<SocialMediaPost> parseStatuses(JsonNode arr) {
+        if (!arr.isArray()) return List.of();
 
-                // contenu (HTML)
-                p.setContent(s.path("content").asText(""));
+        List<SocialMediaPost> out = new ArrayList<>();
+        for (JsonNode s : arr) {
+            SocialMediaPost p = new SocialMediaPost();
+            p.setPlatform("mastodon");
+            p.setId(s.path("id").asText(null));
 
-                // URL du statut
-                String statusUrl = s.path("url").asText(null);
-                if (statusUrl == null || statusUrl.isBlank()) {
-                    // fallback : certaines instances ont 'uri'
-                    statusUrl = s.path("uri").asText(null);
-                }
-                p.setPostUrl(statusUrl);
-                p.setPermalink(statusUrl);
-
-                // auteur
-                JsonNode acct = s.path("account");
-                String handle = acct.path("acct").asText(null); // ex: user@instance
-                if (handle == null || handle.isBlank()) handle = acct.path("username").asText(null);
-                if (handle != null && !handle.startsWith("@")) handle = "@" + handle;
-                p.setAuthor(handle);
-
-                // métriques
-                p.setNumComments(s.path("replies_count").asInt(0));
-                p.setShareCount(s.path("reblogs_count").asInt(0));
-                p.setLikeCount(s.path("favourites_count").asInt(0)); // likeCount ≈ favs
-
-                // date
-                String createdAt = s.path("created_at").asText(null);
-                if (createdAt != null && !createdAt.isBlank()) {
-                    try {
-                        long epoch = OffsetDateTime.parse(createdAt).toInstant().getEpochSecond();
-                        p.setCreatedUtc(epoch);
-                    } catch (Exception ignore) { /* format inattendu */ }
-                }
+            // contenu (HTML), stocké avec le titre une fois l'auteur connu
+            String content = s.path("content").asText("");
 
-                // tags (array d'objets { name, url })
-                JsonNode tagsArr = s.path("tags");
-                if (tagsArr.isArray()) {
-                    List<Tag> tags = new ArrayList<>();
-                    for (JsonNode t : tagsArr) {
-                        String name = t.path("name").asText(null);
-                        if (name != null && !name.isBlank()) tags.add(new Tag(name));
-                    }
-                    p.setTags(tags);
-                }
+            // URL du statut
+            String statusUrl = s.path("url").asText(null);
+            if (statusUrl == null || statusUrl.isBlank()) {
+                // fallback : certaines instances ont 'uri'
+                statusUrl = s.path("uri").asText(null);
+            }
+            p.setPostUrl(statusUrl);
+            p.setPermalink(statusUrl);
+
+            // auteur
+            JsonNode acct = s.path("account");
+            String handle = acct.path("acct").asText(null); // ex: user@instance
+            if (handle == null || handle.isBlank()) handle = acct.path("username").asText(null);
+            if (handle != null && !handle.startsWith("@")) handle = "@" + handle;
+            p.setAuthor(handle);
+
+            // métriques
+            p.setNumComments(s.path("replies_count").asInt(0));
+            p.setShareCount(s.path("reblogs_count").asInt(0));
+            p.setLikeCount(s.path("favourites_count").asInt(0)); // likeCount ≈ favs
+
+            // date
+            String createdAt = s.path("created_at").asText(null);
+            if (createdAt != null && !createdAt.isBlank()) {
+                try {
+                    long epoch = OffsetDateTime.parse(createdAt).toInstant().getEpochSecond();
+                    p.setCreatedUtc(epoch);
+                } catch (Exception ignore) { /* format inattendu */ }
+            }
 
-                // titre facultatif (pour un rendu harmonieux si besoin)
-                if (p.getTitle() == null || p.getTitle().isBlank()) {
-                    // Petite "headline" basée sur l’auteur
-                    p.setTitle((p.getAuthor() != null ? p.getAuthor() + ": " : "") + "Post Mastodon");
+            // tags (array d'objets { name, url })
+            JsonNode tagsArr = s.path("tags");
+            if (tagsArr.isArray()) {
+                List<Tag> tags = new ArrayList<>();
+                for (JsonNode t : tagsArr) {
+                    String name = t.path("name").asText(null);
+                    if (name != null && !name.isBlank()) tags.add(new Tag(name));
                 }
-
-                out.add(p);
+                p.setTags(tags);
             }
-            return out;
 
-        } catch (Exception e) {
-            System.err.println("[MastodonService] Erreur: " + e.getMessage());
-            return List.of();
+            // titre (pour un rendu harmonieux) : petite "headline" basée sur l’auteur
+            p.setBody((p.getAuthor() != null ? p.getAuthor() + ": " : "") + "Post Mastodon", content);
+
+            out.add(p);
         }
+        return out;
     }
 }
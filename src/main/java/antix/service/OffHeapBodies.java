@@ -0,0 +1,55 @@
+package antix.service;
+
+import antix.model.BodySlabs;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.logging.Logger;
+
+/**
+ * Active au démarrage le stockage hors tas des corps de posts
+ * ({@link BodySlabs}) selon {@code antix.offheap.*}.
+ * <p>
+ * La mémoire directe est bornée par {@code max-mb} ; la JVM la borne aussi
+ * ({@code -XX:MaxDirectMemorySize}, par défaut la taille maximale du tas).
+ */
+@Service
+public class OffHeapBodies {
+
+    private static final Logger logger = Logger.getLogger(OffHeapBodies.class.getName());
+
+    private final boolean enabled;
+    private final int slabSize;
+    private final int maxSlabs;
+    private final int minBytes;
+
+    /**
+     * @param enabled  Stocke titre et contenu des posts hors tas.
+     * @param slabKb   Taille d'un slab, en Ko.
+     * @param maxMb    Mémoire directe maximale, en Mo.
+     * @param minBytes Taille en dessous de laquelle un corps reste sur le tas.
+     */
+    public OffHeapBodies(
+            @Value("${antix.offheap.enabled:false}") boolean enabled,
+            @Value("${antix.offheap.slab-kb:1024}") int slabKb,
+            @Value("${antix.offheap.max-mb:256}") int maxMb,
+            @Value("${antix.offheap.min-bytes:256}") int minBytes) {
+        this.enabled = enabled;
+        this.slabSize = Math.max(64, slabKb) * 1024;
+        this.maxSlabs = (int) Math.max(1, (long) Math.max(1, maxMb) * 1024 * 1024 / slabSize);
+        this.minBytes = Math.max(0, minBytes);
+    }
+
+    @PostConstruct
+    void configure() {
+        if (!enabled) {
+            return;
+        }
+        BodySlabs.enable(slabSize, maxSlabs, minBytes);
+        logger.info("Corps des posts hors tas : " + maxSlabs + " slab(s) de "
+                + (slabSize / 1024) + " Ko au plus");
+    }
+}
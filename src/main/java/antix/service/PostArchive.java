@@ -0,0 +1,388 @@
+package antix.service;
+
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+import antix.model.Tag;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Archive H2 des posts récupérés sur les plateformes (tables de
+ * {@code schema.sql}).
+ * <p>
+ * Chaque lot reçu est archivé hors du chemin de la requête : les écritures
+ * passent par un unique thread dédié, en une transaction par lot, avec des
+ * MERGE groupés (posts, tags, tags de recherche, métriques, date de
+ * récupération). Les lectures par tag s'appuient sur les index (tag) et
+ * (created_utc) et permettent de répondre sans appel réseau. La taille de
+ * l'archive est bornée par {@link ArchiveRetention}.
+ */
+@Service
+public class PostArchive {
+
+    private static final Logger logger = Logger.getLogger(PostArchive.class.getName());
+
+    private static final String MERGE_POST = """
+            MERGE INTO archived_post (platform, post_id, title, author, subreddit, permalink, post_url, content,
+                score, num_comments, like_count, share_count, created_utc, logo_path, badge_color,
+                badge_text_color, fetched_at)
+            KEY (platform, post_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String MERGE_TAG =
+            "MERGE INTO archived_post_tag (platform, post_id, tag) KEY (platform, post_id, tag) VALUES (?, ?, ?)";
+    private static final String MERGE_SEARCH_HIT =
+            "MERGE INTO archived_search_hit (tag, platform, post_id) KEY (tag, platform, post_id) VALUES (?, ?, ?)";
+    private static final String MERGE_METRIC = """
+            MERGE INTO archived_metric (platform, post_id, sampled_at, score, num_comments, like_count, share_count)
+            KEY (platform, post_id, sampled_at) VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String MERGE_FETCH =
+            "MERGE INTO archived_fetch (tag, fetched_at, post_count) KEY (tag) VALUES (?, ?, ?)";
+
+    // Posts portant le tag ou ramenés par une recherche sur ce tag
+    private static final String MATCHING_KEYS = """
+            (platform, post_id) IN (
+                SELECT platform, post_id FROM archived_post_tag WHERE tag = ?
+                UNION
+                SELECT platform, post_id FROM archived_search_hit WHERE tag = ?)
+            """;
+    private static final String SELECT_BY_TAG =
+            "SELECT * FROM archived_post WHERE " + MATCHING_KEYS + " ORDER BY created_utc DESC LIMIT ?";
+    private static final String SELECT_TAGS_BY_TAG =
+            "SELECT platform, post_id, tag FROM archived_post_tag WHERE " + MATCHING_KEYS;
+
+    // Posts et tags en une passe, une ligne par tag : les lignes d'un même post se suivent
+    private static final String STREAM = """
+            SELECT p.*, t.tag AS post_tag FROM archived_post p
+            LEFT JOIN archived_post_tag t ON t.platform = p.platform AND t.post_id = p.post_id
+            %s
+            ORDER BY p.created_utc DESC, p.platform, p.post_id
+            """;
+    private static final String STREAM_WHERE_TAG = """
+            WHERE (p.platform, p.post_id) IN (
+                SELECT platform, post_id FROM archived_post_tag WHERE tag = ?
+                UNION
+                SELECT platform, post_id FROM archived_search_hit WHERE tag = ?)
+            """;
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Taille des listes IN de la relecture par clés
+    private static final int KEYS_PER_QUERY = 200;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final int maxPostsPerTag;
+    private final Duration freshness;
+    private final boolean offline;
+    private final ThreadPoolExecutor writer;
+
+    /**
+     * @param jdbc           Accès JDBC à la base H2.
+     * @param transactions   Transactions (une par lot archivé).
+     * @param maxPostsPerTag Nombre maximal de posts relus par tag.
+     * @param freshMinutes   Durée pendant laquelle un tag archivé est considéré frais.
+     * @param offline        Les sessions lisent l'archive par défaut (aucun appel réseau).
+     * @param writeQueue     Nombre maximal d'écritures en attente ; au-delà,
+     *                       l'appelant (thread de récupération) écrit lui-même.
+     */
+    public PostArchive(JdbcTemplate jdbc, TransactionTemplate transactions,
+            @Value("${antix.archive.max-posts-per-tag:500}") int maxPostsPerTag,
+            @Value("${antix.archive.fresh-minutes:10}") long freshMinutes,
+            @Value("${antix.archive.offline:false}") boolean offline,
+            @Value("${antix.archive.write-queue:64}") int writeQueue) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.maxPostsPerTag = Math.max(1, maxPostsPerTag);
+        this.freshness = Duration.ofMinutes(Math.max(0, freshMinutes));
+        this.offline = offline;
+        // File bornée : une rafale de recherches ralentit les récupérations au lieu d'empiler des lots en mémoire
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, writeQueue)),
+                Thread.ofPlatform().daemon().name("antix-archive").factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Archive un lot de posts, de façon asynchrone (ne bloque pas l'appelant,
+     * sauf si la file d'écriture est pleine : il écrit alors lui-même).
+     *
+     * @param searchTag Tag ayant servi à la récupération (peut être null).
+     * @param posts     Posts récupérés.
+     */
+    public void archive(String searchTag, List<SocialMediaPost> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<SocialMediaPost> batch = List.copyOf(posts);
+        writer.execute(() -> {
+            try {
+                transactions.executeWithoutResult(status -> write(searchTag, batch));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Échec de l'archivage de " + batch.size() + " post(s)", e);
+            }
+        });
+    }
+
+    /**
+     * Archive un lot de posts sur le thread appelant, en une transaction
+     * (import en masse : l'appelant avance au rythme de la base).
+     *
+     * @param searchTag Tag ayant servi à la récupération (peut être null).
+     * @param posts     Posts à archiver.
+     */
+    public void store(String searchTag, List<SocialMediaPost> posts) {
+        if (!posts.isEmpty()) {
+            transactions.executeWithoutResult(status -> write(searchTag, posts));
+        }
+    }
+
+    /**
+     * true si les sessions doivent lire l'archive par défaut
+     * ({@code antix.archive.offline}, environnements sans réseau).
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Marque un tag comme récupéré sur le réseau (toutes plateformes).
+     *
+     * @param tag   Tag récupéré.
+     * @param count Nombre de posts reçus.
+     */
+    public void markFetched(String tag, int count) {
+        String normalized = PostIndex.normalize(tag);
+        writer.execute(() -> {
+            try {
+                jdbc.update(MERGE_FETCH, normalized, Timestamp.from(Instant.now()), count);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Échec de l'archivage de la récupération de \"" + tag + "\"", e);
+            }
+        });
+    }
+
+    /**
+     * true si le tag a été récupéré sur le réseau depuis moins que la durée
+     * de fraîcheur configurée.
+     *
+     * @param tag Tag recherché.
+     */
+    public boolean isFresh(String tag) {
+        if (freshness.isZero()) {
+            return false;
+        }
+        List<Timestamp> fetched = jdbc.queryForList(
+                "SELECT fetched_at FROM archived_fetch WHERE tag = ?", Timestamp.class, PostIndex.normalize(tag));
+        return !fetched.isEmpty() && fetched.get(0).toInstant().isAfter(Instant.now().minus(freshness));
+    }
+
+    /**
+     * Posts archivés pour un tag, du plus récent au plus ancien.
+     *
+     * @param tag Tag recherché.
+     * @return Posts archivés (au plus max-posts-per-tag).
+     */
+    public List<SocialMediaPost> findByTag(String tag) {
+        String normalized = PostIndex.normalize(tag);
+        List<SocialMediaPost> posts = jdbc.query(SELECT_BY_TAG, (rs, row) -> toPost(rs),
+                normalized, normalized, maxPostsPerTag);
+        Map<String, SocialMediaPost> byKey = new HashMap<>();
+        posts.forEach(post -> byKey.put(PostIndex.keyOf(post), post));
+        jdbc.query(SELECT_TAGS_BY_TAG, rs -> {
+            SocialMediaPost post = byKey.get(rs.getString("platform") + ":" + rs.getString("post_id"));
+            if (post != null) {
+                post.addTag(rs.getString("tag"));
+            }
+        }, normalized, normalized);
+        return posts;
+    }
+
+    /**
+     * Posts archivés correspondant à des clés plateforme:id, dans l'ordre des
+     * clés. Les clés absentes de l'archive sont ignorées.
+     *
+     * @param keys Clés des posts.
+     * @return Posts trouvés, avec leurs tags.
+     */
+    public List<SocialMediaPost> findByKeys(List<String> keys) {
+        Map<String, SocialMediaPost> byKey = new HashMap<>(keys.size() * 2);
+        for (int from = 0; from < keys.size(); from += KEYS_PER_QUERY) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + KEYS_PER_QUERY));
+            String in = keyCondition(chunk.size());
+            Object[] args = keyArgs(chunk);
+            jdbc.query("SELECT * FROM archived_post WHERE " + in, rs -> {
+                SocialMediaPost post = toPost(rs);
+                byKey.put(PostIndex.keyOf(post), post);
+            }, args);
+            jdbc.query("SELECT platform, post_id, tag FROM archived_post_tag WHERE " + in, rs -> {
+                SocialMediaPost post = byKey.get(rs.getString("platform") + ":" + rs.getString("post_id"));
+                if (post != null) {
+                    post.addTag(rs.getString("tag"));
+                }
+            }, args);
+        }
+        List<SocialMediaPost> posts = new ArrayList<>(byKey.size());
+        for (String key : keys) {
+            SocialMediaPost post = byKey.remove(key);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * Parcourt les posts archivés (tous, ou ceux d'un tag), du plus récent au
+     * plus ancien, sans les charger en mémoire : chaque post est transmis dès
+     * que ses lignes ont été lues. Pour les exports volumineux.
+     *
+     * @param tag    Tag recherché, ou null pour toute l'archive.
+     * @param action Reçoit chaque post, avec ses tags.
+     * @return Nombre de posts parcourus.
+     */
+    public long forEach(String tag, Consumer<SocialMediaPost> action) {
+        String normalized = tag != null ? PostIndex.normalize(tag) : null;
+        String sql = STREAM.formatted(normalized != null ? STREAM_WHERE_TAG : "");
+        long[] count = new long[1];
+        SocialMediaPost[] current = new SocialMediaPost[1];
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            if (normalized != null) {
+                statement.setString(1, normalized);
+                statement.setString(2, normalized);
+            }
+            return statement;
+        }, rs -> {
+            SocialMediaPost post = current[0];
+            if (post == null || !post.getPlatform().equals(rs.getString("platform"))
+                    || !post.getId().equals(rs.getString("post_id"))) {
+                if (post != null) {
+                    action.accept(post);
+                    count[0]++;
+                }
+                post = toPost(rs);
+                current[0] = post;
+            }
+            String postTag = rs.getString("post_tag");
+            if (postTag != null) {
+                post.addTag(postTag);
+            }
+        });
+        if (current[0] != null) {
+            action.accept(current[0]);
+            count[0]++;
+        }
+        return count[0];
+    }
+
+    /**
+     * Nombre de posts archivés.
+     */
+    public long count() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM archived_post", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /** Condition « clé parmi n clés » : (platform, post_id) IN ((?, ?), ...). */
+    static String keyCondition(int count) {
+        return "(platform, post_id) IN (" + String.join(", ", Collections.nCopies(count, "(?, ?)")) + ")";
+    }
+
+    /** Paramètres de {@link #keyCondition} pour des clés plateforme:id. */
+    static Object[] keyArgs(List<String> keys) {
+        Object[] args = new Object[keys.size() * 2];
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            int colon = key.indexOf(':');
+            args[2 * i] = key.substring(0, colon);
+            args[2 * i + 1] = key.substring(colon + 1);
+        }
+        return args;
+    }
+
+    private void write(String searchTag, List<SocialMediaPost> posts) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> postRows = new ArrayList<>(posts.size());
+        List<Object[]> tagRows = new ArrayList<>();
+        List<Object[]> hitRows = new ArrayList<>();
+        List<Object[]> metricRows = new ArrayList<>(posts.size());
+        String normalizedSearch = PostIndex.normalize(searchTag);
+        for (SocialMediaPost post : posts) {
+            String id = String.valueOf(post.getId());
+            postRows.add(new Object[] {
+                    post.getPlatform(), id, post.getTitle(), post.getAuthor(), post.getSubreddit(),
+                    post.getPermalink(), post.getPostUrl(), post.getContent(), post.getScore(),
+                    post.getNumComments(), post.getLikeCount(), post.getShareCount(), post.getCreatedUtc(),
+                    post.getLogoPath(), post.getBadgeColor(), post.getBadgeTextColor(), now });
+            metricRows.add(new Object[] {
+                    post.getPlatform(), id, now, post.getScore(), post.getNumComments(), post.getLikeCount(),
+                    post.getShareCount() });
+            Set<String> tags = new LinkedHashSet<>();
+            for (Tag tag : post.getTags()) {
+                String normalized = PostIndex.normalize(tag.getName());
+                if (!normalized.isEmpty() && tags.add(normalized)) {
+                    tagRows.add(new Object[] { post.getPlatform(), id, normalized });
+                }
+            }
+            if (!normalizedSearch.isEmpty()) {
+                hitRows.add(new Object[] { normalizedSearch, post.getPlatform(), id });
+            }
+        }
+        jdbc.batchUpdate(MERGE_POST, postRows);
+        jdbc.batchUpdate(MERGE_TAG, tagRows);
+        jdbc.batchUpdate(MERGE_SEARCH_HIT, hitRows);
+        jdbc.batchUpdate(MERGE_METRIC, metricRows);
+    }
+
+    private static SocialMediaPost toPost(ResultSet rs) throws SQLException {
+        SocialMediaPost post = new SocialMediaPost();
+        post.setPlatform(rs.getString("platform"));
+        post.setId(rs.getString("post_id"));
+        post.setAuthor(rs.getString("author"));
+        post.setSubreddit(rs.getString("subreddit"));
+        post.setPermalink(rs.getString("permalink"));
+        post.setPostUrl(rs.getString("post_url"));
+        post.setBody(rs.getString("title"), rs.getString("content"));
+        post.setScore(rs.getInt("score"));
+        post.setNumComments(rs.getInt("num_comments"));
+        post.setLikeCount(rs.getInt("like_count"));
+        post.setShareCount(rs.getInt("share_count"));
+        post.setCreatedUtc(rs.getLong("created_utc"));
+        post.setLogoPath(rs.getString("logo_path"));
+        post.setBadgeColor(rs.getString("badge_color"));
+        post.setBadgeTextColor(rs.getString("badge_text_color"));
+        return post;
+    }
+}
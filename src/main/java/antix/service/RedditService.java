@@ -3,6 +3,7 @@ package antix.service;
 import antix.model.SocialMediaPost;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
@@ -18,14 +19,23 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Service
 public class RedditService implements SocialMediaService {
 
-    private static final String OAUTH_TOKEN_URL = "https://www.reddit.com/api/v1/access_token";
-    private static final String OAUTH_SEARCH_URL = "https://oauth.reddit.com/search";
-    private static final String OAUTH_ALL_SEARCH_URL = "https://oauth.reddit.com/r/all/search";
-    private static final String PUBLIC_SEARCH_URL = "https://www.reddit.com/search.json";
+    private static final Logger logger = Logger.getLogger(RedditService.class.getName());
+
+    private static final String DEFAULT_BASE_URL = "https://www.reddit.com";
+    private static final String DEFAULT_OAUTH_BASE_URL = "https://oauth.reddit.com";
+
+    // URLs des API, dérivées des URLs de base (surchargeables : staging, bouchons hors ligne)
+    private final String baseUrl;
+    private final String oauthTokenUrl;
+    private final String oauthSearchUrl;
+    private final String oauthAllSearchUrl;
+    private final String publicSearchUrl;
 
     private final HttpClient http = HttpClient.newHttpClient();
     private final ObjectMapper mapper = new ObjectMapper();
@@ -38,19 +48,33 @@ public class RedditService implements SocialMediaService {
     private final String username;
     private final String password;
 
+    // Journal des réponses brutes (null si instancié à la main)
+    private final ResponseLog responseLog;
+
     // ---- ctor Spring
+    @Autowired
     public RedditService(
             @Value("${reddit.client-id:${REDDIT_CLIENT_ID:}}") String clientId,
             @Value("${reddit.client-secret:${REDDIT_CLIENT_SECRET:}}") String clientSecret,
             @Value("${reddit.user-agent:${REDDIT_USER_AGENT:AntixBot/1.0 (+https://example.com)}}") String userAgent,
             @Value("${reddit.username:${REDDIT_USERNAME:}}") String username,
-            @Value("${reddit.password:${REDDIT_PASSWORD:}}") String password
+            @Value("${reddit.password:${REDDIT_PASSWORD:}}") String password,
+            @Value("${reddit.base-url:${REDDIT_BASE_URL:https://www.reddit.com}}") String baseUrl,
+            @Value("${reddit.oauth-base-url:${REDDIT_OAUTH_BASE_URL:https://oauth.reddit.com}}") String oauthBaseUrl,
+            ResponseLog responseLog
     ) {
         this.clientId = nz(clientId);
         this.clientSecret = nz(clientSecret);
         this.userAgent = nz(userAgent, "AntixBot/1.0 (+https://example.com)");
         this.username = nz(username);
         this.password = nz(password);
+        this.baseUrl = base(baseUrl, DEFAULT_BASE_URL);
+        String oauth = base(oauthBaseUrl, DEFAULT_OAUTH_BASE_URL);
+        this.oauthTokenUrl = this.baseUrl + "/api/v1/access_token";
+        this.oauthSearchUrl = oauth + "/search";
+        this.oauthAllSearchUrl = oauth + "/r/all/search";
+        this.publicSearchUrl = this.baseUrl + "/search.json";
+        this.responseLog = responseLog;
     }
 
     // ---- ctor no-arg (si tu instancies à la main)
@@ -60,9 +84,17 @@ public class RedditService implements SocialMediaService {
         this.userAgent = nz(System.getenv("REDDIT_USER_AGENT"), "AntixBot/1.0 (+https://example.com)");
         this.username = nz(System.getenv("REDDIT_USERNAME"));
         this.password = nz(System.getenv("REDDIT_PASSWORD"));
+        this.baseUrl = base(System.getenv("REDDIT_BASE_URL"), DEFAULT_BASE_URL);
+        String oauth = base(System.getenv("REDDIT_OAUTH_BASE_URL"), DEFAULT_OAUTH_BASE_URL);
+        this.oauthTokenUrl = this.baseUrl + "/api/v1/access_token";
+        this.oauthSearchUrl = oauth + "/search";
+        this.oauthAllSearchUrl = oauth + "/r/all/search";
+        this.publicSearchUrl = this.baseUrl + "/search.json";
+        this.responseLog = null;
     }
 
     private static String nz(String s) { return s == null ? "" : s.trim(); }
+    private static String base(String url, String def) { return nz(url, def).replaceAll("/+$", ""); }
     private static String nz(String s, String def) { String v = nz(s); return v.isEmpty() ? def : v; }
     private static String enc(String v) { return URLEncoder.encode(v, StandardCharsets.UTF_8); }
 
@@ -73,6 +105,19 @@ public class RedditService implements SocialMediaService {
         if (tag == null || tag.isBlank()) return List.of();
         int capped = Math.max(1, Math.min(limit <= 0 ? 20 : limit, 100));
 
+        // 0) Rejeu : dernière réponse journalisée pour ce tag, sans réseau
+        if (responseLog != null && responseLog.isReplay()) {
+            try {
+                Optional<String> body = responseLog.latest(getPlatformName(), tag);
+                List<SocialMediaPost> posts = body.isPresent() ? parseListing(body.get()) : List.of();
+                logger.fine(() -> "Rejeu : " + posts.size() + " posts pour " + tag);
+                return posts.size() > capped ? posts.subList(0, capped) : posts;
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Rejeu impossible pour " + tag, e);
+                return List.of();
+            }
+        }
+
         System.out.println("[RedditService] cfg: clientId=" + mask(clientId)
                 + ", secret=" + (clientSecret.isBlank() ? "(vide)" : "(présent)")
                 + ", UA=" + userAgent
@@ -112,15 +157,15 @@ public class RedditService implements SocialMediaService {
         if (token.isPresent()) {
             try {
                 String t = token.get();
-                System.out.println("[RedditService] ✅ OAuth OK, recherche via oauth.reddit.com …");
+                System.out.println("[RedditService] ✅ OAuth OK, recherche via " + oauthSearchUrl + " …");
 
-                var posts = searchOAuth(OAUTH_SEARCH_URL, tag, capped, t, "global");
+                var posts = searchOAuth(oauthSearchUrl, tag, capped, t, "global");
                 if (!posts.isEmpty()) return posts;
 
-                posts = searchOAuth(OAUTH_ALL_SEARCH_URL, tag, capped, t, "r/all");
+                posts = searchOAuth(oauthAllSearchUrl, tag, capped, t, "r/all");
                 if (!posts.isEmpty()) return posts;
 
-                posts = searchOAuth(OAUTH_SEARCH_URL, tag, capped, t, "global-new", "new");
+                posts = searchOAuth(oauthSearchUrl, tag, capped, t, "global-new", "new");
                 if (!posts.isEmpty()) return posts;
 
                 System.out.println("[RedditService] OAuth a renvoyé 0 résultat.");
@@ -148,7 +193,7 @@ public class RedditService implements SocialMediaService {
         String credentials = Base64.getEncoder()
                 .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
         String form = "grant_type=client_credentials&scope=read";
-        HttpRequest req = HttpRequest.newBuilder(URI.create(OAUTH_TOKEN_URL))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(oauthTokenUrl))
                 .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
                 .header(HttpHeaders.USER_AGENT, userAgent)
                 .header(HttpHeaders.CONTENT_TYPE, "application/x-www-form-urlencoded")
@@ -170,7 +215,7 @@ public class RedditService implements SocialMediaService {
                 .encodeToString((clientId + ":").getBytes(StandardCharsets.UTF_8)); // secret vide
         String form = "grant_type=" + enc("https://oauth.reddit.com/grants/installed_client")
                 + "&device_id=DO_NOT_TRACK_THIS_DEVICE&scope=read";
-        HttpRequest req = HttpRequest.newBuilder(URI.create(OAUTH_TOKEN_URL))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(oauthTokenUrl))
                 .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
                 .header(HttpHeaders.USER_AGENT, userAgent)
                 .header(HttpHeaders.CONTENT_TYPE, "application/x-www-form-urlencoded")
@@ -196,7 +241,7 @@ public class RedditService implements SocialMediaService {
                 + "&password=" + enc(password)
                 + "&scope=read";
 
-        HttpRequest req = HttpRequest.newBuilder(URI.create(OAUTH_TOKEN_URL))
+        HttpRequest req = HttpRequest.newBuilder(URI.create(oauthTokenUrl))
                 .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
                 .header(HttpHeaders.USER_AGENT, userAgent)
                 .header(HttpHeaders.CONTENT_TYPE, "application/x-www-form-urlencoded")
@@ -241,12 +286,13 @@ public class RedditService implements SocialMediaService {
             System.err.println("[RedditService] search(" + label + ") failed: " + resp.statusCode() + " body=" + resp.body());
             return List.of();
         }
+        logResponse("search:" + label, query, resp.body());
         return parseListing(resp.body());
     }
 
     // ======== Fallback PUBLIC ========
     private List<SocialMediaPost> searchPublicJson(String query, int limit) throws IOException, InterruptedException {
-        String url = PUBLIC_SEARCH_URL
+        String url = publicSearchUrl
                 + "?q=" + enc(query)
                 + "&limit=" + limit
                 + "&sort=relevance"
@@ -262,12 +308,23 @@ public class RedditService implements SocialMediaService {
         HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
         System.out.println("[RedditService] public search status=" + resp.statusCode());
         if (resp.statusCode() / 100 != 2) throw new IllegalStateException("Public search failed: " + resp.statusCode());
+        logResponse("public", query, resp.body());
         return parseListing(resp.body());
     }
 
+    private void logResponse(String endpoint, String tag, String body) {
+        if (responseLog != null) responseLog.append(getPlatformName(), endpoint, tag, body);
+    }
+
     // ======== PARSING ========
     private List<SocialMediaPost> parseListing(String body) throws IOException {
-        JsonNode root = mapper.readTree(body);
+        List<SocialMediaPost> out = parseListing(mapper.readTree(body));
+        System.out.println("[RedditService] parse: " + out.size() + " posts");
+        return out;
+    }
+
+    // Convertit une réponse de recherche (« Listing ») en posts ; utilisé aussi par l'import
+    List<SocialMediaPost> parseListing(JsonNode root) {
         JsonNode children = root.path("data").path("children");
         List<SocialMediaPost> out = new ArrayList<>();
         if (children.isArray()) {
@@ -279,17 +336,16 @@ public class RedditService implements SocialMediaService {
                 SocialMediaPost p = new SocialMediaPost();
                 p.setId(text(d, "id"));
                 p.setPlatform("reddit");
-                p.setTitle(title);
                 String author = text(d, "author");
                 p.setAuthor(author != null && !author.isBlank() ? "u/" + author : null);
                 p.setSubreddit(text(d, "subreddit"));
 
                 String permalink = text(d, "permalink");
-                if (permalink != null && !permalink.isBlank()) p.setPermalink("https://www.reddit.com" + permalink);
+                if (permalink != null && !permalink.isBlank()) p.setPermalink(baseUrl + permalink);
                 p.setPostUrl(text(d, "url"));
 
                 String selftext = text(d, "selftext");
-                p.setContent((selftext != null && !selftext.isBlank()) ? selftext : title);
+                p.setBody(title, (selftext != null && !selftext.isBlank()) ? selftext : title);
 
                 p.setScore(d.path("score").asInt(0));
                 p.setNumComments(d.path("num_comments").asInt(0));
@@ -298,7 +354,6 @@ public class RedditService implements SocialMediaService {
                 out.add(p);
             }
         }
-        System.out.println("[RedditService] parse: " + out.size() + " posts");
         return out;
     }
 
@@ -0,0 +1,314 @@
+package antix.service;
+
+import antix.index.PostIndex;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Journal en ajout seul des réponses brutes des plateformes, pour rejouer les
+ * charges réelles (analyse, tri, démonstrations hors ligne, mesures).
+ * <p>
+ * Le journal est découpé en segments de taille fixe projetés en mémoire
+ * ({@code segment-000000.log}, ...). Chaque enregistrement :
+ * <pre>
+ * int longueur | long horodatage | plateforme | endpoint | tag | corps
+ * </pre>
+ * (chaînes UTF-8 préfixées par leur longueur). La longueur est écrite en
+ * dernier : un enregistrement interrompu (arrêt brutal) reste à 0 et marque la
+ * fin du segment. Un index compact (plateforme, endpoint, tag, horodatage →
+ * position) est reconstruit au démarrage en ne lisant que les en-têtes.
+ * <p>
+ * En mode rejeu ({@code antix.response-log.replay}), les services lisent la
+ * dernière réponse journalisée pour un tag au lieu d'appeler le réseau.
+ * <p>
+ * Désactivé par défaut. Seuls les {@code max-segments} derniers segments sont
+ * gardés : à chaque nouveau segment, les plus anciens sont supprimés du disque
+ * et de l'index.
+ */
+@Service
+public class ResponseLog {
+
+    private static final Logger logger = Logger.getLogger(ResponseLog.class.getName());
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    /**
+     * Entrée de l'index.
+     *
+     * @param segment   Numéro du segment.
+     * @param offset    Position de l'enregistrement dans le segment.
+     * @param platform  Plateforme (reddit, mastodon).
+     * @param endpoint  Point d'accès interrogé (ex : search:global).
+     * @param tag       Tag recherché, normalisé.
+     * @param timestamp Date de réception (ms depuis l'epoch).
+     */
+    public record Entry(int segment, int offset, String platform, String endpoint, String tag, long timestamp) {}
+
+    private final boolean enabled;
+    private final boolean replay;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    // segments.get(i) est le segment numéro firstSegment + i
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int firstSegment;
+    private final List<Entry> entries = new ArrayList<>();
+    // Dernière entrée par plateforme et tag, pour le rejeu
+    private final Map<String, Entry> latest = new HashMap<>();
+    private int writePosition;
+
+    /**
+     * @param enabled       Journalise les réponses reçues.
+     * @param replay        Sert les réponses depuis le journal, sans réseau.
+     * @param directory     Répertoire des segments.
+     * @param segmentSizeMb Taille d'un segment, en Mo.
+     * @param maxSegments   Nombre de segments gardés sur disque.
+     */
+    public ResponseLog(
+            @Value("${antix.response-log.enabled:false}") boolean enabled,
+            @Value("${antix.response-log.replay:false}") boolean replay,
+            @Value("${antix.response-log.dir:./data/responses}") String directory,
+            @Value("${antix.response-log.segment-size-mb:16}") int segmentSizeMb,
+            @Value("${antix.response-log.max-segments:16}") int maxSegments) {
+        this.enabled = enabled || replay;
+        this.replay = replay;
+        this.directory = Path.of(directory);
+        this.segmentSize = Math.max(1, segmentSizeMb) * 1024 * 1024;
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    @PostConstruct
+    synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(p -> SEGMENT_NAME.matcher(p.getFileName().toString()).matches())
+                        .sorted()
+                        .toList();
+            }
+            if (!files.isEmpty()) {
+                firstSegment = segmentNumber(files.get(0));
+            }
+            for (Path file : files) {
+                MappedByteBuffer buffer = map(file, Files.size(file));
+                writePosition = scan(firstSegment + segments.size(), buffer);
+                segments.add(buffer);
+            }
+            if (!replay) {
+                trim();
+            }
+            logger.info("Journal des réponses : " + entries.size() + " réponse(s) dans "
+                    + segments.size() + " segment(s)" + (replay ? " (mode rejeu)" : ""));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Journal des réponses indisponible : " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        segments.forEach(MappedByteBuffer::force);
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    /**
+     * Ajoute une réponse au journal (sans effet si le journal est désactivé
+     * ou en mode rejeu).
+     *
+     * @param platform Plateforme.
+     * @param endpoint Point d'accès interrogé.
+     * @param tag      Tag recherché.
+     * @param body     Corps brut de la réponse.
+     */
+    public synchronized void append(String platform, String endpoint, String tag, String body) {
+        if (!enabled || replay || body == null) {
+            return;
+        }
+        byte[] platformBytes = platform.getBytes(StandardCharsets.UTF_8);
+        byte[] endpointBytes = endpoint.getBytes(StandardCharsets.UTF_8);
+        byte[] tagBytes = PostIndex.normalize(tag).getBytes(StandardCharsets.UTF_8);
+        byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        if (Math.max(platformBytes.length, Math.max(endpointBytes.length, tagBytes.length)) > 0xFFFF) {
+            return;
+        }
+        int length = 4 + 8 + 2 + platformBytes.length + 2 + endpointBytes.length + 2 + tagBytes.length
+                + 4 + bodyBytes.length;
+
+        try {
+            if (segments.isEmpty() || writePosition + length + 4 > segments.get(segments.size() - 1).capacity()) {
+                roll(length + 4);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Impossible de créer un segment du journal", e);
+            return;
+        }
+
+        int segment = firstSegment + segments.size() - 1;
+        int offset = writePosition;
+        long timestamp = System.currentTimeMillis();
+        ByteBuffer out = segment(segment).duplicate().position(offset + 4);
+        out.putLong(timestamp);
+        putBytes(out, platformBytes);
+        putBytes(out, endpointBytes);
+        putBytes(out, tagBytes);
+        out.putInt(bodyBytes.length).put(bodyBytes);
+        // Longueur écrite en dernier : l'enregistrement n'est visible qu'une fois complet
+        segment(segment).putInt(offset, length);
+        writePosition = offset + length;
+
+        index(new Entry(segment, offset, platform, endpoint, PostIndex.normalize(tag), timestamp));
+    }
+
+    /**
+     * Dernière réponse journalisée pour une plateforme et un tag.
+     *
+     * @param platform Plateforme.
+     * @param tag      Tag recherché.
+     * @return Corps de la réponse, s'il y en a une.
+     */
+    public synchronized Optional<String> latest(String platform, String tag) {
+        Entry entry = latest.get(platform + "|" + PostIndex.normalize(tag));
+        return entry != null ? Optional.of(body(entry)) : Optional.empty();
+    }
+
+    /**
+     * Index complet du journal, dans l'ordre d'écriture (corpus de rejeu).
+     */
+    public synchronized List<Entry> entries() {
+        return List.copyOf(entries);
+    }
+
+    /**
+     * Corps d'une réponse journalisée.
+     *
+     * @param entry Entrée de l'index.
+     * @return Corps brut.
+     * @throws IllegalArgumentException si le segment de l'entrée a été supprimé.
+     */
+    public synchronized String body(Entry entry) {
+        if (entry.segment() < firstSegment) {
+            throw new IllegalArgumentException("Segment supprimé : " + entry.segment());
+        }
+        ByteBuffer in = segment(entry.segment()).duplicate().position(entry.offset() + 4 + 8);
+        for (int i = 0; i < 3; i++) {
+            in.position(in.position() + 2 + Short.toUnsignedInt(in.getShort(in.position())));
+        }
+        byte[] body = new byte[in.getInt()];
+        in.get(body);
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private void roll(int minimumSize) throws IOException {
+        segments.add(map(segmentFile(firstSegment + segments.size()), Math.max(segmentSize, minimumSize)));
+        writePosition = 0;
+        trim();
+    }
+
+    /** Supprime les segments au-delà de maxSegments, les plus anciens d'abord. */
+    private void trim() {
+        int dropped = 0;
+        while (segments.size() > maxSegments) {
+            // La projection est libérée par le GC une fois le buffer oublié
+            segments.remove(0);
+            try {
+                Files.deleteIfExists(segmentFile(firstSegment));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Impossible de supprimer le segment " + firstSegment, e);
+            }
+            firstSegment++;
+            dropped++;
+        }
+        if (dropped == 0) {
+            return;
+        }
+        int stale = 0;
+        while (stale < entries.size() && entries.get(stale).segment() < firstSegment) {
+            stale++;
+        }
+        entries.subList(0, stale).clear();
+        latest.values().removeIf(entry -> entry.segment() < firstSegment);
+        logger.fine(dropped + " segment(s) du journal supprimé(s), " + stale + " réponse(s) retirée(s)");
+    }
+
+    private MappedByteBuffer segment(int number) {
+        return segments.get(number - firstSegment);
+    }
+
+    private Path segmentFile(int number) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentNumber(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // La projection reste valide après la fermeture du canal
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /** Indexe les enregistrements complets d'un segment ; renvoie la position de fin. */
+    private int scan(int segment, MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer in = buffer.duplicate().position(position + 4);
+            long timestamp = in.getLong();
+            String platform = getString(in);
+            String endpoint = getString(in);
+            String tag = getString(in);
+            index(new Entry(segment, position, platform, endpoint, tag, timestamp));
+            position += length;
+        }
+        return position;
+    }
+
+    private void index(Entry entry) {
+        entries.add(entry);
+        latest.put(entry.platform() + "|" + entry.tag(), entry);
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
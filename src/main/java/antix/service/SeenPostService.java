@@ -0,0 +1,277 @@
+package antix.service;
+
+import antix.index.BloomFilter;
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+import antix.utils.AsyncUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Posts déjà vus par chaque utilisateur, pour le mode « nouveaux seulement »
+ * de la commande h (table seen_post_filter).
+ * <p>
+ * Les clés ne sont pas stockées : chaque utilisateur a deux filtres de Bloom
+ * ({@link BloomFilter}), le courant et le précédent. Quand le courant atteint
+ * sa capacité, il devient le précédent et un filtre vide prend sa place : le
+ * taux de faux positifs reste borné et les posts vus il y a longtemps
+ * finissent par être oubliés. Les filtres modifiés sont écrits en arrière-plan,
+ * périodiquement ; ceux des utilisateurs inactifs depuis {@code idle-minutes}
+ * sont ensuite retirés de la mémoire et relus en base à leur retour.
+ */
+@Service
+public class SeenPostService {
+
+    private static final Logger logger = Logger.getLogger(SeenPostService.class.getName());
+
+    private static final String MERGE_FILTER =
+            "MERGE INTO seen_post_filter (owner, data, saved_at) KEY (owner) VALUES (?, ?, ?)";
+
+    /** Taille de la colonne seen_post_filter.data. */
+    private static final int MAX_DATA_BYTES = 1024 * 1024;
+
+    /** Filtres d'un utilisateur ; toute lecture ou écriture se fait sous son verrou. */
+    private final class Seen {
+        BloomFilter current;
+        BloomFilter previous;
+        long lastAccess = System.currentTimeMillis();
+        boolean evicted;
+
+        Seen(BloomFilter current, BloomFilter previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+
+        boolean contains(String key) {
+            return current.mightContain(key) || (previous != null && previous.mightContain(key));
+        }
+
+        void add(String key) {
+            if (contains(key)) {
+                return;
+            }
+            if (current.count() >= capacity) {
+                previous = current;
+                current = BloomFilter.forCapacity(capacity, fpp);
+            }
+            current.add(key);
+        }
+
+        byte[] toBytes() {
+            int size = current.sizeInBytes() + (previous != null ? previous.sizeInBytes() : 0);
+            ByteBuffer out = ByteBuffer.allocate(1 + size);
+            out.put((byte) (previous != null ? 2 : 1));
+            current.writeTo(out);
+            if (previous != null) {
+                previous.writeTo(out);
+            }
+            return out.array();
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final int capacity;
+    private final double fpp;
+    private final long flushMillis;
+    private final long idleMillis;
+
+    private final Map<String, Seen> seenByOwner = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> flusher;
+
+    /**
+     * @param jdbc        Accès JDBC à la base H2.
+     * @param capacity    Posts par filtre avant rotation.
+     * @param fpp         Taux de faux positifs d'un filtre plein.
+     * @param flushMillis Délai entre deux écritures des filtres modifiés.
+     * @param idleMinutes Inactivité après laquelle les filtres quittent la mémoire.
+     */
+    public SeenPostService(JdbcTemplate jdbc,
+            @Value("${antix.seen.capacity:20000}") int capacity,
+            @Value("${antix.seen.fpp:0.01}") double fpp,
+            @Value("${antix.seen.flush-ms:5000}") long flushMillis,
+            @Value("${antix.seen.idle-minutes:30}") long idleMinutes) {
+        this.jdbc = jdbc;
+        this.fpp = Math.min(0.5, Math.max(1e-6, fpp));
+        this.capacity = fittingCapacity(Math.max(100, capacity), this.fpp);
+        this.flushMillis = Math.max(100, flushMillis);
+        this.idleMillis = TimeUnit.MINUTES.toMillis(Math.max(1, idleMinutes));
+    }
+
+    /** Plus grande capacité (au plus celle demandée) dont les deux filtres tiennent dans la colonne data. */
+    private static int fittingCapacity(int capacity, double fpp) {
+        int fitting = capacity;
+        while (fitting > 100 && 1 + 2L * BloomFilter.forCapacity(fitting, fpp).sizeInBytes() > MAX_DATA_BYTES) {
+            fitting = Math.max(100, fitting - fitting / 10);
+        }
+        if (fitting < capacity) {
+            logger.warning("antix.seen.capacity ramenée de " + capacity + " à " + fitting
+                    + " pour tenir dans " + MAX_DATA_BYTES + " octets à fpp=" + fpp);
+        }
+        return fitting;
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = AsyncUtils.scheduler().scheduleWithFixedDelay(
+                () -> AsyncUtils.workers().execute(this::flush),
+                flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher != null) {
+            flusher.cancel(false);
+        }
+        flush();
+    }
+
+    /**
+     * Charge les filtres d'un utilisateur (lecture en base), pour que les
+     * appels suivants, faits depuis le thread UI, n'attendent pas la base.
+     *
+     * @param owner Identifiant de l'utilisateur.
+     */
+    public void preload(String owner) {
+        seen(owner);
+    }
+
+    /**
+     * Posts que l'utilisateur n'a pas encore vus, dans l'ordre. Un post vu
+     * peut rarement passer pour nouveau après rotation, et un post nouveau
+     * pour vu (faux positif du filtre, environ fpp).
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param posts Posts à filtrer.
+     * @return Posts non vus.
+     */
+    public List<SocialMediaPost> unseen(String owner, List<SocialMediaPost> posts) {
+        while (true) {
+            Seen seen = seen(owner);
+            synchronized (seen) {
+                if (seen.evicted) {
+                    continue;
+                }
+                seen.lastAccess = System.currentTimeMillis();
+                List<SocialMediaPost> out = new ArrayList<>();
+                for (SocialMediaPost post : posts) {
+                    if (!seen.contains(PostIndex.keyOf(post))) {
+                        out.add(post);
+                    }
+                }
+                return out;
+            }
+        }
+    }
+
+    /**
+     * Marque des posts comme vus.
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param posts Posts affichés.
+     * @return Nombre de posts qui n'avaient pas encore été vus.
+     */
+    public int markSeen(String owner, Collection<SocialMediaPost> posts) {
+        while (true) {
+            Seen seen = seen(owner);
+            synchronized (seen) {
+                // Évincé entre la lecture de la map et le verrou : on relit
+                if (seen.evicted) {
+                    continue;
+                }
+                seen.lastAccess = System.currentTimeMillis();
+                int added = 0;
+                for (SocialMediaPost post : posts) {
+                    String key = PostIndex.keyOf(post);
+                    if (!seen.contains(key)) {
+                        seen.add(key);
+                        added++;
+                    }
+                }
+                if (added > 0) {
+                    dirty.add(owner);
+                }
+                return added;
+            }
+        }
+    }
+
+    /**
+     * Écrit les filtres modifiés depuis la dernière écriture, puis retire de
+     * la mémoire ceux des utilisateurs inactifs.
+     */
+    public synchronized void flush() {
+        for (String owner : List.copyOf(dirty)) {
+            dirty.remove(owner);
+            Seen seen = seenByOwner.get(owner);
+            if (seen == null) {
+                continue;
+            }
+            byte[] data;
+            synchronized (seen) {
+                data = seen.toBytes();
+            }
+            try {
+                jdbc.update(MERGE_FILTER, owner, data, Timestamp.from(Instant.now()));
+            } catch (RuntimeException e) {
+                dirty.add(owner);
+                logger.log(Level.WARNING, "Échec de l'écriture des posts vus de " + owner, e);
+            }
+        }
+        evictIdle();
+    }
+
+    /** Retire les filtres écrits et inutilisés depuis idleMillis. */
+    private void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleMillis;
+        for (Map.Entry<String, Seen> entry : seenByOwner.entrySet()) {
+            Seen seen = entry.getValue();
+            synchronized (seen) {
+                if (seen.lastAccess < idleSince && !dirty.contains(entry.getKey())) {
+                    seen.evicted = true;
+                    seenByOwner.remove(entry.getKey(), seen);
+                }
+            }
+        }
+    }
+
+    private Seen seen(String owner) {
+        return seenByOwner.computeIfAbsent(owner, this::load);
+    }
+
+    private Seen load(String owner) {
+        try {
+            List<byte[]> rows = jdbc.queryForList(
+                    "SELECT data FROM seen_post_filter WHERE owner = ?", byte[].class, owner);
+            if (!rows.isEmpty()) {
+                ByteBuffer in = ByteBuffer.wrap(rows.get(0));
+                int generations = in.get();
+                BloomFilter current = BloomFilter.readFrom(in);
+                BloomFilter previous = generations > 1 ? BloomFilter.readFrom(in) : null;
+                return new Seen(current, previous);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Posts vus indisponibles pour " + owner + ", filtre vide", e);
+        }
+        return new Seen(BloomFilter.forCapacity(capacity, fpp), null);
+    }
+}
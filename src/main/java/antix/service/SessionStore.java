@@ -0,0 +1,95 @@
+package antix.service;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Snapshots binaires de l'état des sessions, par utilisateur (table
+ * session_snapshot).
+ * <p>
+ * Les écritures passent par un thread dédié et sont fusionnées : seul le
+ * dernier snapshot en attente d'un utilisateur est écrit, quelle que soit la
+ * fréquence des modifications.
+ */
+@Service
+public class SessionStore {
+
+    private static final Logger logger = Logger.getLogger(SessionStore.class.getName());
+
+    private static final String MERGE_SNAPSHOT =
+            "MERGE INTO session_snapshot (owner, data, saved_at) KEY (owner) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("antix-session").factory());
+
+    public SessionStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Dernier snapshot d'un utilisateur (celui en attente d'écriture s'il y en a un).
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @return Octets du snapshot (vide s'il n'y en a pas ou si la base est indisponible).
+     */
+    public Optional<byte[]> load(String owner) {
+        byte[] waiting = pending.get(owner);
+        if (waiting != null) {
+            return Optional.of(waiting);
+        }
+        try {
+            List<byte[]> rows = jdbc.queryForList(
+                    "SELECT data FROM session_snapshot WHERE owner = ?", byte[].class, owner);
+            return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Snapshot de session indisponible pour " + owner, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Enregistre le snapshot d'un utilisateur (asynchrone, remplace un
+     * snapshot encore en attente).
+     *
+     * @param owner Identifiant de l'utilisateur.
+     * @param data  Octets du snapshot.
+     */
+    public void save(String owner, byte[] data) {
+        if (pending.put(owner, data) != null) {
+            return; // Une écriture est déjà prévue : elle prendra ce snapshot
+        }
+        writer.execute(() -> {
+            byte[] latest = pending.remove(owner);
+            if (latest == null) {
+                return;
+            }
+            try {
+                jdbc.update(MERGE_SNAPSHOT, owner, latest, Timestamp.from(Instant.now()));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Échec de l'enregistrement du snapshot de " + owner, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package antix.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Exécuteurs partagés par toutes les sessions.
+ * <p>
+ * Les tâches d'entrée/sortie (appels Reddit / Mastodon) tournent sur des
+ * threads virtuels : un thread bloqué sur le réseau ne coûte presque rien.
+ * Un unique planificateur sert aux délais (timeouts, minuteries).
+ */
+public final class AsyncUtils {
+
+    private static final ExecutorService WORKERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "antix-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncUtils() {}
+
+    /** Exécuteur à threads virtuels pour les tâches bloquantes. */
+    public static ExecutorService workers() {
+        return WORKERS;
+    }
+
+    /** Planificateur partagé pour les tâches différées ou périodiques. */
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+}
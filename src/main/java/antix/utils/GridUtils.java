@@ -1,107 +1,111 @@
 package antix.utils;
 
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.components.PlatformBadge;
 import com.vaadin.flow.component.grid.Grid;
-import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.component.html.Span;
-import com.vaadin.flow.component.orderedlayout.FlexComponent;
-import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
-import com.vaadin.flow.component.orderedlayout.VerticalLayout;
-import com.vaadin.flow.data.provider.Query;
-import org.jsoup.Jsoup;
-import com.vaadin.flow.component.html.Image;
-
-import java.util.List;
-import java.util.stream.Collectors;
+import com.vaadin.flow.component.grid.dataview.GridLazyDataView;
+import com.vaadin.flow.data.renderer.LitRenderer;
 
 public final class GridUtils {
     
     private GridUtils() {}
 
-    public static List<SocialMediaPost> fetchAll(Grid<SocialMediaPost> grid) {
-        return grid.getDataProvider()
-                .fetch(new Query<>())
-                .collect(Collectors.toList());
+    /**
+     * Branche la grille sur le résultat de la session via un fournisseur
+     * paresseux : le client ne reçoit que la page demandée (offset / limit),
+     * lue directement dans la liste.
+     * <p>
+     * Les lignes sont identifiées par leur clé plateforme:id, et chaque
+     * modification est appliquée selon sa différence : rien si le résultat est
+     * identique, un rafraîchissement ligne à ligne si seuls des contenus ont
+     * changé, sinon un rafraîchissement de la fenêtre visible (le défilement
+     * et la sélection sont conservés).
+     *
+     * @param grid    Grille à alimenter.
+     * @param results Posts affichés.
+     */
+    public static void bindResults(Grid<SocialMediaPost> grid, PostResultSet results) {
+        GridLazyDataView<SocialMediaPost> view = grid.setItems(
+                query -> {
+                    int from = Math.min(query.getOffset(), results.size());
+                    int to = Math.min(from + query.getLimit(), results.size());
+                    return results.subList(from, to).stream();
+                },
+                query -> results.size());
+        view.setIdentifierProvider(PostIndex::keyOf);
+        results.addChangeListener(change -> {
+            if (change.isStructural()) {
+                view.refreshAll();
+            } else {
+                change.updated().forEach(view::refreshItem);
+            }
+        });
     }
 
-public static void addIndexColumn(Grid<SocialMediaPost> grid) {
-    grid.addColumn(post -> {
-        // Solution simple : utiliser fetchAll que tu as déjà défini
-        List<SocialMediaPost> items = fetchAll(grid);
-        return items.indexOf(post) + 1;
-    }).setWidth("50px").setHeader("#").setFlexGrow(0);
-}
+    /**
+     * Colonne du numéro de ligne : la position vient de la table post → position
+     * du résultat, en O(1) par ligne.
+     *
+     * @param grid    Grille.
+     * @param results Posts affichés.
+     */
+    public static void addIndexColumn(Grid<SocialMediaPost> grid, PostResultSet results) {
+        grid.addColumn(post -> results.indexOf(post) + 1)
+                .setWidth("50px").setHeader("#").setFlexGrow(0);
+    }
 
-public static void addPlatformColumn(Grid<SocialMediaPost> grid) {
-    grid.addComponentColumn(post -> {
-        // Container pour centrer parfaitement
-        Div container = new Div();
-        container.getStyle()
-            .set("display", "flex")
-            .set("justify-content", "center")
-            .set("align-items", "center")
-            .set("height", "100%");
-        
-        Image logo = new Image(post.getLogoPath(), post.getPlatformDisplayName());
-        logo.setWidth("24px");   // ✅ Plus grand (était 20px)
-        logo.setHeight("24px");  // ✅ Plus grand (était 20px)
-        logo.getStyle()
-            .set("border-radius", "4px")      // Coins légèrement plus arrondis
-            .set("object-fit", "contain")     // Garde les proportions
-            .set("display", "block");         // Assure un affichage proper
-        logo.setTitle(post.getPlatformDisplayName()); // Tooltip
-        
-        container.add(logo);
-        return container;
-    })
-    .setWidth("60px")        // ✅ Largeur fixe pour la colonne
-    .setFlexGrow(0)         // ✅ Empêche l'expansion automatique
-    .setHeader("P");
-}
+    /**
+     * Colonne du logo de plateforme, rendue côté client : le serveur n'envoie
+     * que l'URL du logo et le nom de la plateforme.
+     *
+     * @param grid Grille.
+     */
+    public static void addPlatformColumn(Grid<SocialMediaPost> grid) {
+        grid.addColumn(LitRenderer.<SocialMediaPost>of("""
+                <div style="display: flex; justify-content: center; align-items: center; height: 100%;">
+                    <img src="${item.logo}" alt="${item.platform}" title="${item.platform}"
+                         style="width: 24px; height: 24px; border-radius: 4px; object-fit: contain; display: block;">
+                </div>
+                """)
+                .withProperty("logo", SocialMediaPost::getLogoPath)
+                .withProperty("platform", SocialMediaPost::getPlatformDisplayName))
+            .setWidth("60px")        // ✅ Largeur fixe pour la colonne
+            .setFlexGrow(0)         // ✅ Empêche l'expansion automatique
+            .setHeader("P");
+    }
 
+    /**
+     * Colonne principale (badge, auteur, engagement, aperçu du contenu).
+     * <p>
+     * Gabarit Lit évalué côté client : chaque ligne ne coûte que quelques
+     * propriétés texte, sans arbre de composants serveur. Le badge reprend le
+     * style {@link PlatformBadge.Size#SMALL}.
+     *
+     * @param grid Grille.
+     */
     public static void addPostInfoColumn(Grid<SocialMediaPost> grid) {
-        grid.addComponentColumn(post -> {
-            Div container = new Div();
-            container.addClassName("post-info-row");
-            container.setWidthFull();
-
-            // Badge de plateforme utilisant les nouvelles méthodes du modèle
-            PlatformBadge platformBadge = new PlatformBadge(post, PlatformBadge.Size.SMALL, PlatformBadge.Style.BADGE);
-
-            Span authorName = new Span(post.getDisplayName());
-            authorName.addClassName("author-name");
-            authorName.getStyle().set("font-weight", "bold").set("margin-right", "0.5em");
-
-            Span platformInfo = new Span(post.getPlatformInfo());
-            platformInfo.addClassName("username");
-            platformInfo.getStyle().setColor("gray").setFontSize("small").set("margin-right", "1em");
-
-            // Contenu du post
-            Div contentPreview = new Div();
-            String textContent = Jsoup.parse(post.getContent()).text();
-            String previewText = textContent.length() > 150 ? textContent.substring(0, 150) + "..." : textContent;
-            contentPreview.setText(previewText);
-            contentPreview.addClassName("post-content");
-            contentPreview.setWidthFull();
-            contentPreview.getStyle().set("white-space", "normal").set("word-break", "break-word");
-
-            Span scoreSpan = new Span(post.getEngagementText());
-            scoreSpan.addClassName("post-date");
-            scoreSpan.getStyle().setColor("gray").setFontSize("small");
-
-            // Header avec badge
-            HorizontalLayout header = new HorizontalLayout(platformBadge, authorName, platformInfo, scoreSpan);
-            header.setAlignItems(FlexComponent.Alignment.CENTER);
-            header.setWidthFull();
-
-            VerticalLayout postLayout = new VerticalLayout(header, contentPreview);
-            postLayout.setSpacing(false);
-            postLayout.setPadding(false);
-            postLayout.setWidthFull();
-
-            container.add(postLayout);
-            return container;
-        }).setAutoWidth(true);
+        grid.addColumn(LitRenderer.<SocialMediaPost>of("""
+                <div class="post-info-row" style="width: 100%;">
+                    <div style="display: flex; align-items: center; gap: var(--lumo-space-m); width: 100%;">
+                        <span style="background-color: ${item.badgeColor}; color: ${item.badgeTextColor};
+                                     padding: 2px 6px; border-radius: 12px; font-size: 10px; font-weight: bold;
+                                     display: inline-block; white-space: nowrap;">${item.platform}</span>
+                        <span class="author-name" style="font-weight: bold; margin-right: 0.5em;">${item.author}</span>
+                        <span class="username" style="color: gray; font-size: small; margin-right: 1em;">${item.platformInfo}</span>
+                        <span class="post-date" style="color: gray; font-size: small;">${item.engagement}</span>
+                    </div>
+                    <div class="post-content" style="width: 100%; white-space: normal; word-break: break-word;">${item.preview}</div>
+                </div>
+                """)
+                .withProperty("badgeColor", SocialMediaPost::getBadgeColor)
+                .withProperty("badgeTextColor", SocialMediaPost::getBadgeTextColor)
+                .withProperty("platform", SocialMediaPost::getPlatformDisplayName)
+                .withProperty("author", SocialMediaPost::getDisplayName)
+                .withProperty("platformInfo", SocialMediaPost::getPlatformInfo)
+                .withProperty("engagement", SocialMediaPost::getEngagementText)
+                .withProperty("preview", post -> HtmlSanitizer.preview(post.getContent())))
+            .setAutoWidth(true);
     }
 }
@@ -0,0 +1,75 @@
+package antix.utils;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Entities;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+
+/**
+ * Nettoyage du HTML provenant des plateformes avant affichage.
+ * <p>
+ * La liste des balises et attributs autorisés est construite une seule fois ;
+ * tout le reste (scripts, gestionnaires d'événements, iframes, styles...) est
+ * supprimé. Les liens s'ouvrent dans un nouvel onglet, sans referrer.
+ */
+public final class HtmlSanitizer {
+
+    private static final Safelist SAFELIST = Safelist.relaxed()
+            .addAttributes("a", "target", "rel")
+            .addEnforcedAttribute("a", "target", "_blank")
+            .addEnforcedAttribute("a", "rel", "noopener noreferrer nofollow")
+            .addAttributes("span", "class")
+            .preserveRelativeLinks(false);
+
+    private static final Cleaner CLEANER = new Cleaner(SAFELIST);
+
+    private HtmlSanitizer() {}
+
+    /**
+     * Nettoie un fragment HTML.
+     *
+     * @param html Fragment d'origine (peut être null).
+     * @return Fragment ne contenant que des éléments autorisés.
+     */
+    public static String sanitize(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        Document clean = CLEANER.clean(Jsoup.parseBodyFragment(html));
+        clean.outputSettings().prettyPrint(false);
+        return clean.body().html();
+    }
+
+    /**
+     * Aperçu texte d'un fragment HTML (150 caractères au plus).
+     *
+     * @param html Fragment d'origine (peut être null).
+     * @return Texte sans balises.
+     */
+    public static String preview(String html) {
+        String text = text(html);
+        return text.length() > 150 ? text.substring(0, 150) + "..." : text;
+    }
+
+    /**
+     * Texte d'un fragment HTML, sans balises.
+     *
+     * @param html Fragment d'origine (peut être null).
+     * @return Texte brut (vide si html est null).
+     */
+    public static String text(String html) {
+        return html == null || html.isEmpty() ? "" : Jsoup.parse(html).text();
+    }
+
+    /**
+     * Échappe un texte pour l'insérer dans du HTML (contenu ou valeur
+     * d'attribut entre guillemets simples ou doubles).
+     *
+     * @param text Texte brut (peut être null).
+     * @return Texte échappé.
+     */
+    public static String escape(String text) {
+        return text == null ? "" : Entities.escape(text).replace("'", "&#39;").replace("\"", "&quot;");
+    }
+}
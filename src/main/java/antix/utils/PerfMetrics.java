@@ -0,0 +1,87 @@
+package antix.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registre des mesures de performance de l'application (toutes sessions).
+ * <p>
+ * Chaque métrique garde un compteur, le maximum et les dernières valeurs
+ * (fenêtre glissante) pour calculer médiane et 95e centile.
+ */
+public final class PerfMetrics {
+
+    /** Délai entre la saisie d'une commande et l'affichage du premier post. */
+    public static final String TIME_TO_FIRST_POST = "time_to_first_post";
+
+    private static final int WINDOW = 256;
+
+    private static final Map<String, Metric> METRICS = new ConcurrentHashMap<>();
+
+    private PerfMetrics() {}
+
+    /**
+     * Résumé d'une métrique, en millisecondes.
+     */
+    public record Snapshot(long count, double lastMs, double p50Ms, double p95Ms, double maxMs) {}
+
+    /**
+     * Enregistre une durée.
+     *
+     * @param name  Nom de la métrique.
+     * @param nanos Durée en nanosecondes.
+     */
+    public static void recordNanos(String name, long nanos) {
+        METRICS.computeIfAbsent(name, n -> new Metric()).record(nanos);
+    }
+
+    /**
+     * Enregistre le temps écoulé depuis un instant {@link System#nanoTime()}.
+     *
+     * @param name      Nom de la métrique.
+     * @param startNano Instant de départ.
+     */
+    public static void recordSince(String name, long startNano) {
+        recordNanos(name, System.nanoTime() - startNano);
+    }
+
+    /**
+     * Résumés de toutes les métriques, triés par nom.
+     */
+    public static Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> out = new TreeMap<>();
+        METRICS.forEach((name, metric) -> out.put(name, metric.snapshot()));
+        return out;
+    }
+
+    private static final class Metric {
+        private final long[] window = new long[WINDOW];
+        private long count;
+        private long max;
+
+        synchronized void record(long nanos) {
+            window[(int) (count % WINDOW)] = nanos;
+            count++;
+            max = Math.max(max, nanos);
+        }
+
+        synchronized Snapshot snapshot() {
+            int n = (int) Math.min(count, WINDOW);
+            if (n == 0) {
+                return new Snapshot(0, 0, 0, 0, 0);
+            }
+            long last = window[(int) ((count - 1) % WINDOW)];
+            long[] sorted = Arrays.copyOf(window, n);
+            Arrays.sort(sorted);
+            return new Snapshot(count, toMs(last), toMs(sorted[(n - 1) / 2]),
+                    toMs(sorted[(int) Math.ceil(n * 0.95) - 1]), toMs(max));
+        }
+
+        private static double toMs(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
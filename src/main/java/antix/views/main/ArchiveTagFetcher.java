@@ -0,0 +1,89 @@
+package antix.views.main;
+
+import antix.model.SocialMediaPost;
+import antix.service.PostArchive;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Récupération des posts d'un tag adossée à l'{@link PostArchive}.
+ * <p>
+ * En mode {@link Source#LIVE}, un tag récupéré récemment (voir
+ * {@code antix.archive.fresh-minutes}) est servi depuis l'archive, sans appel
+ * réseau ; sinon les plateformes sont interrogées et chaque lot reçu est
+ * archivé en arrière-plan. En mode {@link Source#ARCHIVE}, seule l'archive est
+ * lue : les requêtes portent sur l'historique, hors ligne.
+ */
+public class ArchiveTagFetcher implements TagFetcher {
+
+    private static final Logger logger = Logger.getLogger(ArchiveTagFetcher.class.getName());
+
+    /** Origine des posts récupérés. */
+    public enum Source {
+        LIVE, ARCHIVE
+    }
+
+    private final TagFetcher live;
+    private final PostArchive archive;
+    private volatile Source source;
+
+    /**
+     * @param live    Récupération réseau, plateforme par plateforme.
+     * @param archive Archive des posts.
+     */
+    public ArchiveTagFetcher(TagFetcher live, PostArchive archive) {
+        this.live = live;
+        this.archive = archive;
+        this.source = archive.isOffline() ? Source.ARCHIVE : Source.LIVE;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public PostArchive getArchive() {
+        return archive;
+    }
+
+    @Override
+    public void fetch(String tag, Consumer<List<SocialMediaPost>> onBatch)
+            throws InterruptedException, ExecutionException {
+        if (source == Source.ARCHIVE || isFresh(tag)) {
+            List<SocialMediaPost> archived = archive.findByTag(tag);
+            logger.fine(() -> archived.size() + " post(s) lus dans l'archive pour le tag: " + tag);
+            if (!archived.isEmpty()) {
+                onBatch.accept(archived);
+            }
+            return;
+        }
+
+        AtomicInteger received = new AtomicInteger();
+        live.fetch(tag, batch -> {
+            archive.archive(tag, batch);
+            received.addAndGet(batch.size());
+            onBatch.accept(batch);
+        });
+        // Un tag sans résultat (plateformes indisponibles...) sera redemandé au réseau
+        if (received.get() > 0) {
+            archive.markFetched(tag, received.get());
+        }
+    }
+
+    private boolean isFresh(String tag) {
+        try {
+            return archive.isFresh(tag);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Archive indisponible, récupération sur le réseau", e);
+            return false;
+        }
+    }
+}
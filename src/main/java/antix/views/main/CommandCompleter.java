@@ -0,0 +1,72 @@
+package antix.views.main;
+
+import antix.index.PostIndex;
+import antix.index.PrefixTrie;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Suggestions d'autocomplétion du prompt (touche Tab).
+ * <p>
+ * Les suggestions sont des lignes complètes : commandes de l'historique
+ * commençant par le texte saisi, puis, pour le premier mot, les noms de
+ * commandes, et pour les arguments de h / hashtag, les tags connus de l'index.
+ * Toutes viennent de {@link PrefixTrie} : le coût ne dépend que de la longueur
+ * du texte, pas de la taille de l'historique ni de l'index.
+ */
+public class CommandCompleter {
+
+    /** Commandes dont les arguments sont des tags. */
+    private static final Set<String> TAG_COMMANDS = Set.of("h", "hashtag");
+    /** Opérateurs pouvant précéder un tag dans une requête. */
+    private static final String TAG_OPERATORS = "!(";
+
+    private final PrefixTrie commands = new PrefixTrie();
+    private final CommandHistory history;
+    private final PostIndex index;
+
+    /**
+     * @param aliases Noms des commandes disponibles.
+     * @param history Historique des commandes de l'utilisateur.
+     * @param index   Index des posts (tags connus).
+     */
+    public CommandCompleter(Collection<String> aliases, CommandHistory history, PostIndex index) {
+        aliases.forEach(alias -> commands.add(alias, 1));
+        this.history = history;
+        this.index = index;
+    }
+
+    /**
+     * Suggestions pour le texte saisi.
+     *
+     * @param text Contenu du prompt.
+     * @return Lignes complètes proposées, sans doublon, la plus probable d'abord.
+     */
+    public List<String> complete(String text) {
+        Set<String> out = new LinkedHashSet<>(history.complete(text, PrefixTrie.MAX_SUGGESTIONS));
+
+        int firstSpace = text.indexOf(' ');
+        if (firstSpace < 0) {
+            out.addAll(commands.complete(text, PrefixTrie.MAX_SUGGESTIONS));
+        } else if (TAG_COMMANDS.contains(text.substring(0, firstSpace))) {
+            int lastSpace = text.lastIndexOf(' ');
+            String token = text.substring(lastSpace + 1);
+            int operators = 0;
+            while (operators < token.length() && TAG_OPERATORS.indexOf(token.charAt(operators)) >= 0) {
+                operators++;
+            }
+            String prefix = token.substring(operators);
+            // Les prédicats (likes:>5, c:mot...) ne sont pas des tags
+            if (!prefix.isEmpty() && !prefix.contains(":")) {
+                String head = text.substring(0, lastSpace + 1) + token.substring(0, operators);
+                index.completeTag(prefix, PrefixTrie.MAX_SUGGESTIONS).forEach(tag -> out.add(head + tag));
+            }
+        }
+
+        out.remove(text);
+        return out.stream().limit(PrefixTrie.MAX_SUGGESTIONS).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package antix.views.main;
+
+import antix.utils.AsyncUtils;
+import antix.utils.FeedbackUtils;
+import antix.views.main.commands.AsyncCommand;
+import antix.views.main.commands.CommandContext;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exécuteur des commandes asynchrones d'une session.
+ * <p>
+ * Une seule commande asynchrone est en cours à la fois : en lancer une
+ * nouvelle annule la précédente, dont le résultat ne sera jamais appliqué.
+ * Chaque commande a un délai maximal ; une barre de progression est affichée
+ * tant qu'elle tourne. Les méthodes publiques s'appellent depuis le thread UI.
+ */
+public class CommandExecutor {
+
+    private static final Logger logger = Logger.getLogger(CommandExecutor.class.getName());
+
+    private final UI ui;
+    private final ProgressBar progress;
+
+    private CommandContext current;
+    private Future<?> inFlight;
+    private ScheduledFuture<?> timeout;
+    private Runnable onIdle = () -> { };
+
+    /**
+     * @param ui       Interface de la session.
+     * @param progress Indicateur affiché pendant l'exécution.
+     */
+    public CommandExecutor(UI ui, ProgressBar progress) {
+        this.ui = ui;
+        this.progress = progress;
+        progress.setIndeterminate(true);
+        progress.setVisible(false);
+    }
+
+    /**
+     * Action exécutée (thread UI) à la fin de chaque commande asynchrone,
+     * terminée ou annulée.
+     *
+     * @param onIdle Action à exécuter.
+     */
+    public void setOnIdle(Runnable onIdle) {
+        this.onIdle = onIdle;
+    }
+
+    /**
+     * Lance une commande hors du thread UI, en annulant celle en cours.
+     *
+     * @param command Commande à exécuter.
+     * @param input   Entrée utilisateur.
+     */
+    public void submit(AsyncCommand command, String input) {
+        cancel();
+
+        CommandContext context = new CommandContext(ui);
+        current = context;
+        progress.setVisible(true);
+
+        inFlight = AsyncUtils.workers().submit(() -> run(command, input, context));
+        long millis = command.getTimeout().toMillis();
+        timeout = AsyncUtils.scheduler().schedule(() -> access(() -> {
+            if (current == context) {
+                cancel();
+                FeedbackUtils.showError("⏱️ \"" + input + "\" a dépassé le délai de " + (millis / 1000) + " s.");
+            }
+        }), millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Annule la commande en cours, s'il y en a une.
+     */
+    public void cancel() {
+        if (current == null) {
+            return;
+        }
+        current.cancel();
+        inFlight.cancel(true);
+        finish(current);
+    }
+
+    private void run(AsyncCommand command, String input, CommandContext context) {
+        try {
+            Runnable apply = command.prepare(input, context);
+            context.checkCancelled();
+            context.apply(apply);
+        } catch (CancellationException | InterruptedException e) {
+            // Commande remplacée ou expirée : rien à appliquer
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Échec de la commande \"" + input + "\"", e);
+            context.apply(() -> FeedbackUtils.showError("Erreur lors de l'exécution de la commande : " + e.getMessage()));
+        } finally {
+            access(() -> finish(context));
+        }
+    }
+
+    private void finish(CommandContext context) {
+        if (current != context) {
+            return;
+        }
+        timeout.cancel(false);
+        current = null;
+        inFlight = null;
+        timeout = null;
+        progress.setVisible(false);
+        onIdle.run();
+    }
+
+    private void access(Runnable action) {
+        try {
+            ui.access(action::run);
+        } catch (UIDetachedException e) {
+            // Session fermée
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package antix.views.main;
+
+import antix.index.PrefixTrie;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Historique borné des commandes saisies, de la plus ancienne à la plus
+ * récente.
+ * <p>
+ * Les commandes sont rangées dans un tampon circulaire : au-delà de la
+ * capacité, la plus ancienne est écrasée. Un {@link PrefixTrie} des lignes
+ * présentes (pondérées par leur nombre d'occurrences) sert à l'autocomplétion
+ * et à la recherche par préfixe, sans reparcourir l'historique.
+ */
+public class CommandHistory extends AbstractList<String> implements RandomAccess {
+
+    private final String[] ring;
+    private final PrefixTrie trie = new PrefixTrie();
+    private int head;
+    private int size;
+
+    /**
+     * @param capacity Nombre maximal de commandes gardées.
+     */
+    public CommandHistory(int capacity) {
+        this.ring = new String[Math.max(1, capacity)];
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Ajoute une commande, en écrasant la plus ancienne si l'historique est plein.
+     *
+     * @param command Commande saisie.
+     * @return true.
+     */
+    @Override
+    public boolean add(String command) {
+        if (size == ring.length) {
+            trie.remove(ring[head], 1);
+            ring[head] = command;
+            head = (head + 1) % ring.length;
+        } else {
+            ring[(head + size) % ring.length] = command;
+            size++;
+        }
+        trie.add(command, 1);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> commands) {
+        commands.forEach(this::add);
+        return !commands.isEmpty();
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return ring[(head + index) % ring.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Commandes distinctes commençant par un préfixe, les plus fréquentes
+     * (puis les plus récentes) d'abord.
+     *
+     * @param prefix Début de commande.
+     * @param limit  Nombre maximal de résultats.
+     * @return Commandes correspondantes.
+     */
+    public List<String> complete(String prefix, int limit) {
+        return trie.complete(prefix, limit);
+    }
+}
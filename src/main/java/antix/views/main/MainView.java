@@ -1,95 +1,213 @@
 package antix.views.main;
 
 import antix.factory.CommandFactory;
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
+import antix.service.FavoriteService;
+import antix.service.HistoryStore;
 import antix.service.MastodonService;
+import antix.service.PostArchive;
 import antix.service.RedditService;
+import antix.service.SeenPostService;
+import antix.service.SessionStore;
+import antix.service.SocialMediaService;
+import antix.utils.AsyncUtils;
 import antix.utils.FeedbackUtils;
 import antix.utils.GridUtils;
-import antix.components.PlatformBadge;
+import antix.views.main.commands.AsyncCommand;
 import antix.views.main.commands.Command;
+import antix.views.main.commands.ContentSearchCommand;
+import antix.views.main.commands.FilterCommand;
+import antix.views.main.commands.HashtagCommand;
 import antix.views.main.commands.PlayCommand;
+import antix.views.main.commands.ResetCommand;
+import antix.views.main.commands.SortCommand;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import org.apache.commons.lang3.StringUtils;
-import com.vaadin.flow.data.provider.Query;
-import com.vaadin.flow.component.Key;
-import com.vaadin.flow.component.KeyModifier;
-import com.vaadin.flow.component.ComponentEventListener;
-import com.vaadin.flow.component.KeyDownEvent;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
 
 import java.util.*;
-import java.util.function.Supplier;
-import java.util.logging.Logger;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @PageTitle("NoelMusk - Test pour la bande")
 @Route("")
 public class MainView extends VerticalLayout {
     
     private static final Logger logger = Logger.getLogger(MainView.class.getName());
+    private static final String DEFAULT_TAG = "programming"; // Tag rechargé par reset
+    private static final int MAX_POSTS_PER_SERVICE = 80;
+    private static final long SNAPSHOT_DELAY_MS = 500; // Regroupe les modifications rapprochées
     
     private final Grid<SocialMediaPost> grid;
     private final Div contentDiv;
-    private final List<String> commandesTapees = new ArrayList<>();
+    private final CommandHistory commandesTapees; // Historique borné, persisté par utilisateur
+    private final Div promptSuggestions = new Div(); // Suggestions de la touche Tab
     
-    // ✅ Nouveaux attributs pour la navigation dans l'historique
-    private int historyIndex = -1;
-    private String currentInput = "";
     private TextField prompt; // Référence au champ de commande
-    private boolean isNavigatingHistory = false; // Flag pour désactiver le listener
     private Map<String, Command> commandMap; // Référence aux commandes
     private PlayCommand playCmd; // Référence au PlayCommand
     
-    private final RedditService redditService = new RedditService();
-    private final MastodonService mastodonService = new MastodonService(); 
+    private final RedditService redditService; // Services partagés entre les sessions (beans Spring)
+    private final MastodonService mastodonService;
+    private final FavoriteService favoriteService; // Favoris persistés (écriture différée)
+    private final HistoryStore historyStore;
+    private final SeenPostService seenPostService; // Posts déjà vus (mode h <tag> new)
+    private CommandCompleter completer; // Autocomplétion du prompt (Tab)
+    private final ArchiveTagFetcher tagFetcher; // Plateformes ou archive locale (commande source)
+    private final String userId = UserIdentity.current(); // Identifiant anonyme du navigateur (cookie)
+    private final PostIndex postIndex = new PostIndex(); // Index local des posts chargés
+    private final PostResultSet results = new PostResultSet(); // Posts affichés, indexés par id
+    private final ProgressBar progressBar = new ProgressBar(); // Visible pendant une commande asynchrone
+    private final CommandExecutor commandExecutor = new CommandExecutor(UI.getCurrent(), progressBar);
+    private final PostDetailCache detailCache = new PostDetailCache(); // HTML du détail par post
+    private final Div detailPane = new Div(); // Panneau de détail persistant
+    private String displayedDetailKey; // Clé du post affiché dans detailPane
+    private final NeighbourPrefetcher prefetcher = new NeighbourPrefetcher(getElement(), results, detailCache);
+    private final SessionFootprint footprint; // Mémoire estimée de la session et budgets
+    private final SessionStore sessionStore; // Snapshot de la vue, restauré au rechargement
+    private final List<String> viewCommands = new ArrayList<>(); // Recherche, filtres et tris de la vue
+    private final UI ui = UI.getCurrent();
+    private boolean snapshotPending;
     
-    public MainView() {
+    public MainView(RedditService redditService, MastodonService mastodonService,
+            FavoriteService favoriteService, PostArchive postArchive, HistoryStore historyStore,
+            SessionStore sessionStore, SessionBudget budget, SeenPostService seenPostService) {
+        this.redditService = redditService;
+        this.mastodonService = mastodonService;
+        this.favoriteService = favoriteService;
+        this.tagFetcher = new ArchiveTagFetcher(this::fetchPostsFromTag, postArchive);
+        this.historyStore = historyStore;
+        this.sessionStore = sessionStore;
+        this.seenPostService = seenPostService;
+        this.commandesTapees = new CommandHistory(budget.getMaxHistory());
+        commandesTapees.addAll(historyStore.load(userId, commandesTapees.capacity()));
+        this.footprint = new SessionFootprint(budget, results, postIndex, commandesTapees, detailCache);
+        commandExecutor.setOnIdle(footprint::enforce);
+
         // ✅ Initialisation du TextField
         this.prompt = new TextField();
         prompt.setId("prompt-field");
         prompt.setWidth("100%");
         
-        // ✅ Ajout du gestionnaire pour les flèches avec JavaScript
-        prompt.addKeyDownListener(this::handleKeyDown);
-        
-        // ✅ Ajout du gestionnaire pour Enter (exécution directe)
-        prompt.addKeyPressListener(Key.ENTER, event -> {
-            String command = prompt.getValue().trim();
-            if (!command.isEmpty()) {
-                System.out.println("🎯 Exécution via Enter: '" + command + "'");
-                executeCommand(command);
-            }
-        });
-        
-        // Ajout d'un gestionnaire JavaScript pour empêcher le comportement par défaut des flèches
-        prompt.getElement().addEventListener("keydown", event -> {
-            // Ce code sera exécuté côté serveur, mais on peut ajouter du JS côté client
-        });
-        
-        // JavaScript pour gérer les flèches côté client
+        // ✅ Historique (flèches haut / bas) et validation (Entrée) gérés dans le navigateur :
+        // le serveur ne reçoit que les commandes validées, l'historique suit avec elles.
+        // Tab demande des suggestions au serveur, puis les fait défiler.
+        JsonArray history = Json.createArray();
+        commandesTapees.forEach(cmd -> history.set(history.length(), cmd));
         prompt.getElement().executeJs("""
-            this.addEventListener('keydown', function(e) {
-                if (e.key === 'ArrowUp' || e.key === 'ArrowDown') {
-                    // Laisser Vaadin gérer l'événement côté serveur
-                    // mais empêcher le déplacement du curseur
-                    if (e.key === 'ArrowUp' || e.key === 'ArrowDown') {
-                        setTimeout(() => {
-                            this.setSelectionRange(this.value.length, this.value.length);
-                        }, 0);
+            const prompt = this;
+            const view = $0;
+            const history = $1;
+            const capacity = $2;
+            const suggestions = $3;
+            let index = history.length;
+            let draft = '';
+            let proposals = [];
+            let proposal = -1;
+            const propose = items => {
+                proposals = items;
+                proposal = -1;
+                suggestions.textContent = items.length > 1 ? items.join('   ·   ') : '';
+            };
+            const show = value => {
+                prompt.value = value;
+                setTimeout(() => {
+                    const input = prompt.inputElement;
+                    if (input) {
+                        input.setSelectionRange(value.length, value.length);
+                    }
+                }, 0);
+            };
+            prompt.addEventListener('keydown', e => {
+                if (e.key !== 'Tab' && proposals.length) {
+                    propose([]);
+                }
+                if (e.key === 'Tab') {
+                    e.preventDefault();
+                    if (proposals.length > 1 && prompt.value === proposals[Math.max(0, proposal)]) {
+                        proposal = (proposal + 1) % proposals.length;
+                        show(proposals[proposal]);
+                        return;
+                    }
+                    const typed = prompt.value;
+                    view.$server.complete(typed).then(items => {
+                        if (prompt.value !== typed || !items || items.length === 0) {
+                            return;
+                        }
+                        propose(items);
+                        // Plus long préfixe commun, sinon la première suggestion
+                        let common = items[0];
+                        for (const item of items) {
+                            while (!item.startsWith(common)) {
+                                common = common.slice(0, -1);
+                            }
+                        }
+                        if (items.length > 1 && common.length > typed.length) {
+                            show(common);
+                        } else {
+                            proposal = 0;
+                            show(items[0]);
+                        }
+                    });
+                } else if (e.key === 'ArrowUp') {
+                    e.preventDefault();
+                    if (history.length === 0) {
+                        return;
+                    }
+                    if (index === history.length) {
+                        draft = prompt.value;
+                    }
+                    index = Math.max(0, index - 1);
+                    show(history[index]);
+                } else if (e.key === 'ArrowDown') {
+                    e.preventDefault();
+                    if (index >= history.length) {
+                        return;
+                    }
+                    index++;
+                    show(index === history.length ? draft : history[index]);
+                } else if (e.key === 'Enter') {
+                    const text = prompt.value.trim();
+                    if (!text) {
+                        return;
+                    }
+                    e.preventDefault();
+                    if (history[history.length - 1] !== text) {
+                        history.push(text);
+                        if (history.length > capacity) {
+                            history.shift();
+                        }
                     }
+                    index = history.length;
+                    draft = '';
+                    prompt.value = '';
+                    view.$server.submit(text);
                 }
             });
-        """);
+        """, getElement(), history, commandesTapees.capacity(), promptSuggestions.getElement());
         
         // Code JavaScript existant...
         UI.getCurrent().getPage().executeJs("""
@@ -157,62 +275,41 @@ public class MainView extends VerticalLayout {
 
         this.contentDiv = new Div();
         contentDiv.setWidthFull();
+        detailPane.setId("detail-pane");
+        detailPane.setWidthFull();
 
         // ✅ Utilisation de GridUtils
-        GridUtils.addIndexColumn(grid);
+        GridUtils.addIndexColumn(grid, results);
         GridUtils.addPlatformColumn(grid);
         GridUtils.addPostInfoColumn(grid);
+        GridUtils.bindResults(grid, results);
+        results.addChangeListener(change -> prefetcher.invalidate());
+        prefetcher.install(prompt.getElement());
 
-        List<SocialMediaPost> favoris = new ArrayList<>();
-        
         PostSelector selector = this::selectAndDisplay;
 
-        Supplier<List<SocialMediaPost>> defaultSupplier = () -> this.fetchPostsFromTag("programming");
-
         // ✅ Mise à jour pour passer la référence à l'historique
         Map<String, Command> commandMap = CommandFactory.build(
                 grid,
+                results,
                 contentDiv,
                 selector,
-                favoris,
-                defaultSupplier,
-                this::fetchPostsFromTag,
-                commandesTapees); // Utilise la même liste pour l'historique
+                favoriteService,
+                userId,
+                DEFAULT_TAG,
+                tagFetcher,
+                commandesTapees, // Utilise la même liste pour l'historique
+                postIndex,
+                footprint,
+                seenPostService);
 
         PlayCommand playCmd = (PlayCommand) commandMap.get("play");
         
         // ✅ Stockage des références pour executeCommand
         this.commandMap = commandMap;
+        this.completer = new CommandCompleter(commandMap.keySet(), commandesTapees, postIndex);
         this.playCmd = playCmd;
         
-        // ✅ Gestionnaire d'événements modifié pour utiliser l'historique
-        prompt.addValueChangeListener(v -> {
-            // ✅ Ignorer si on navigue dans l'historique
-            if (isNavigatingHistory) {
-                System.out.println("🚫 Navigation en cours - Événement ignoré");
-                return;
-            }
-            
-            String text = v.getValue().trim();
-            if (text.isEmpty())
-                return;
-
-            playCmd.stop();
-            
-            // ✅ Ajouter à l'historique avec la nouvelle méthode
-            addToHistory(text);
-
-            String commandKey = text.split(" ")[0];
-            Command command = commandMap.getOrDefault(commandKey, null);
-
-            if (command != null) {
-                command.execute(text);
-            } else {
-                FeedbackUtils.showError("Commande inconnue : \"" + commandKey + "\"");
-            }
-            prompt.setValue("");
-        });
-
         // Reste du layout existant...
         var horizontalLayout = new HorizontalLayout();
         horizontalLayout.setSizeFull();
@@ -229,7 +326,13 @@ public class MainView extends VerticalLayout {
 
         add(horizontalLayout);
 
-        var promptContainer = new VerticalLayout(prompt);
+        progressBar.setWidth("100%");
+        promptSuggestions.setId("prompt-suggestions");
+        promptSuggestions.getStyle().set("font-size", "var(--lumo-font-size-s)");
+        promptSuggestions.getStyle().set("color", "var(--lumo-secondary-text-color)");
+        promptSuggestions.getStyle().set("white-space", "pre");
+        promptSuggestions.getStyle().set("overflow", "hidden");
+        var promptContainer = new VerticalLayout(progressBar, promptSuggestions, prompt);
         promptContainer.setWidth("100%");
         promptContainer.setPadding(false);
         promptContainer.setSpacing(false);
@@ -240,6 +343,19 @@ public class MainView extends VerticalLayout {
         setFlexGrow(0, promptContainer);
 
         grid.addSelectionListener(event -> selectItemListener(grid, contentDiv, event));
+
+        // ✅ Utilisateur de retour : on retrouve sa vue, sans réseau ni écran d'accueil
+        boolean restored = restoreSession(postArchive);
+        results.addChangeListener(change -> scheduleSnapshot());
+        grid.addSelectionListener(event -> scheduleSnapshot());
+        addDetachListener(event -> {
+            if (snapshotPending) {
+                saveSnapshot();
+            }
+        });
+        if (restored) {
+            return;
+        }
         
         // --- ONBOARDING OVERLAY ---
         Div onboardingOverlay = new Div();
@@ -364,279 +480,261 @@ public class MainView extends VerticalLayout {
 
     }
 
-    private void handleKeyDown(KeyDownEvent event) {
-        System.out.println("🔍 Touche détectée: " + event.getKey());
-        System.out.println("📚 Historique actuel: " + commandesTapees.size() + " commandes");
-        System.out.println("📍 Index actuel: " + historyIndex);
-        
-        // ✅ Correction: utiliser toString() ou comparaison directe
-        String keyPressed = event.getKey().toString();
-        
-        if ("ArrowUp".equals(keyPressed)) {
-            System.out.println("⬆️ Flèche du haut détectée - Navigation UP");
-            navigateHistoryUp();
-        } else if ("ArrowDown".equals(keyPressed)) {
-            System.out.println("⬇️ Flèche du bas détectée - Navigation DOWN");
-            navigateHistoryDown();
-        } else if ("ArrowRight".equals(keyPressed)) {
-            System.out.println("➡️ Flèche droite détectée - Commande NEXT");
-            executeCommand("n");
-        } else if ("ArrowLeft".equals(keyPressed)) {
-            System.out.println("⬅️ Flèche gauche détectée - Commande PREVIOUS");
-            executeCommand("p");
-        } else {
-            // Si l'utilisateur tape autre chose, réinitialiser l'index
-            if (!isNavigationKey(event.getKey())) {
-                historyIndex = commandesTapees.size();
-            }
-        }
-    }
-    
-    // Vérifier si c'est une touche de navigation (à ignorer pour la réinitialisation)
-    private boolean isNavigationKey(Key key) {
-        String keyPressed = key.toString();
-        return "ArrowUp".equals(keyPressed) || "ArrowDown".equals(keyPressed) || 
-               "ArrowLeft".equals(keyPressed) || "ArrowRight".equals(keyPressed) ||
-               "Shift".equals(keyPressed) || "Control".equals(keyPressed) || "Alt".equals(keyPressed) ||
-               "Home".equals(keyPressed) || "End".equals(keyPressed);
-    }
-    
     // Ajouter une commande à l'historique
     public void addToHistory(String command) {
         if (!command.trim().isEmpty()) {
             // Éviter les doublons consécutifs
             if (commandesTapees.isEmpty() || !commandesTapees.get(commandesTapees.size() - 1).equals(command)) {
                 commandesTapees.add(command);
+                historyStore.append(userId, command, commandesTapees.capacity());
             }
         }
-        // Réinitialiser l'index après ajout
-        historyIndex = commandesTapees.size();
-        currentInput = "";
     }
     
-    // Navigation vers le haut dans l'historique (commandes plus anciennes)
-    private void navigateHistoryUp() {
-        System.out.println("🔄 Navigation UP - Historique: " + commandesTapees.size() + " éléments");
-        
-        if (commandesTapees.isEmpty()) {
-            System.out.println("❌ Historique vide");
-            return;
-        }
-        
-        // Sauvegarder la saisie actuelle si on est à la fin
-        if (historyIndex == commandesTapees.size()) {
-            currentInput = prompt.getValue();
-            System.out.println("💾 Sauvegarde input actuel: '" + currentInput + "'");
-        }
-        
-        if (historyIndex > 0) {
-            historyIndex--;
-            String command = commandesTapees.get(historyIndex);
-            System.out.println("✅ Navigation vers: '" + command + "' (index " + historyIndex + ")");
-            
-            // ✅ Désactiver temporairement le listener
-            isNavigatingHistory = true;
-            prompt.setValue(command);
-            isNavigatingHistory = false;
-            
-            // Placer le curseur à la fin
-            prompt.getElement().executeJs("this.setSelectionRange(this.value.length, this.value.length)");
-        } else if (historyIndex == 0) {
-            // Déjà à la première commande, rester dessus
-            String command = commandesTapees.get(0);
-            System.out.println("🔄 Reste sur première commande: '" + command + "'");
-            
-            // ✅ Désactiver temporairement le listener
-            isNavigatingHistory = true;
-            prompt.setValue(command);
-            isNavigatingHistory = false;
-            
-            prompt.getElement().executeJs("this.setSelectionRange(this.value.length, this.value.length)");
-        } else {
-            // Premier accès à l'historique
-            historyIndex = commandesTapees.size() - 1;
-            if (historyIndex >= 0) {
-                String command = commandesTapees.get(historyIndex);
-                System.out.println("🎯 Premier accès à l'historique: '" + command + "' (index " + historyIndex + ")");
-                
-                // ✅ Désactiver temporairement le listener
-                isNavigatingHistory = true;
-                prompt.setValue(command);
-                isNavigatingHistory = false;
-                
-                prompt.getElement().executeJs("this.setSelectionRange(this.value.length, this.value.length)");
-            }
+    // Appelé par le navigateur sur Tab : suggestions pour le texte du prompt
+    @ClientCallable
+    private JsonArray complete(String text) {
+        JsonArray out = Json.createArray();
+        if (text != null && completer != null) {
+            completer.complete(text).forEach(line -> out.set(out.length(), line));
         }
+        return out;
     }
-    
-    // Navigation vers le bas dans l'historique (commandes plus récentes)
-    private void navigateHistoryDown() {
-        System.out.println("🔄 Navigation DOWN - Historique: " + commandesTapees.size() + " éléments");
-        
-        if (commandesTapees.isEmpty() || historyIndex < 0) {
-            System.out.println("❌ Historique vide ou index invalide");
-            return;
-        }
-        
-        if (historyIndex < commandesTapees.size() - 1) {
-            historyIndex++;
-            String command = commandesTapees.get(historyIndex);
-            System.out.println("✅ Navigation vers: '" + command + "' (index " + historyIndex + ")");
-            
-            // ✅ Désactiver temporairement le listener
-            isNavigatingHistory = true;
-            prompt.setValue(command);
-            isNavigatingHistory = false;
-            
-            prompt.getElement().executeJs("this.setSelectionRange(this.value.length, this.value.length)");
-        } else if (historyIndex == commandesTapees.size() - 1) {
-            // Retour à la saisie actuelle
-            historyIndex = commandesTapees.size();
-            System.out.println("🔄 Retour à la saisie actuelle: '" + currentInput + "'");
-            
-            // ✅ Désactiver temporairement le listener
-            isNavigatingHistory = true;
-            prompt.setValue(currentInput);
-            isNavigatingHistory = false;
-            
-            prompt.getElement().executeJs("this.setSelectionRange(this.value.length, this.value.length)");
+
+    // Appelé par le navigateur à la validation d'une commande (Entrée)
+    @ClientCallable
+    private void submit(String text) {
+        if (text != null && !text.isBlank()) {
+            executeCommand(text.trim());
         }
     }
 
     // ✅ Nouvelle méthode pour exécuter les commandes
     private void executeCommand(String command) {
-        playCmd.stop();
-        
         // ✅ Ajouter à l'historique
         addToHistory(command);
+        dispatch(command);
+    }
+
+    private void dispatch(String command) {
+        playCmd.stop();
 
         String commandKey = command.split(" ")[0];
         Command commandObj = commandMap.getOrDefault(commandKey, null);
 
         if (commandObj != null) {
-            commandObj.execute(command);
+            trackView(commandObj, command);
+            runCommand(commandObj, command);
+            if (!(commandObj instanceof AsyncCommand)) {
+                footprint.enforce();
+            }
         } else {
             FeedbackUtils.showError("Commande inconnue : \"" + commandKey + "\"");
         }
-        
-        // ✅ Vider le champ après exécution
-        prompt.setValue("");
     }
-    public List<SocialMediaPost> fetchPostsFromTag(String tag) {
-        return fetchPostsFromTag(tag, 80);
+
+    // Retient les commandes qui ont produit la vue : une recherche repart de zéro, filtres et tris s'ajoutent
+    private void trackView(Command command, String text) {
+        if (command instanceof HashtagCommand || command instanceof ResetCommand) {
+            viewCommands.clear();
+            viewCommands.add(SessionSnapshot.truncate(text));
+        } else if (command instanceof FilterCommand || command instanceof SortCommand
+                || command instanceof ContentSearchCommand) {
+            viewCommands.add(SessionSnapshot.truncate(text));
+            if (viewCommands.size() > SessionSnapshot.MAX_COMMANDS) {
+                // Garde la recherche, oublie le plus ancien filtre ou tri
+                viewCommands.remove(1);
+            }
+        }
     }
 
-    public List<SocialMediaPost> fetchPostsFromTag(String tag, int maxPerService) {
-        if (StringUtils.isEmpty(tag)) {
-            return List.of();
+    /**
+     * Restaure la vue de la session précédente de l'utilisateur : posts relus
+     * dans l'archive locale (aucun appel réseau), sélection, source et
+     * commandes ayant produit la vue.
+     *
+     * @return true si un snapshot a été trouvé.
+     */
+    private boolean restoreSession(PostArchive archive) {
+        Optional<byte[]> data = sessionStore.load(userId);
+        if (data.isEmpty()) {
+            return false;
+        }
+        SessionSnapshot snapshot;
+        try {
+            snapshot = SessionSnapshot.decode(data.get());
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Snapshot de session ignoré pour " + userId, e);
+            return false;
         }
 
-        List<SocialMediaPost> allPosts = new ArrayList<>();
-        
+        List<SocialMediaPost> posts;
         try {
-            System.out.println("🔍 Tentative de récupération des posts Reddit pour le tag: " + tag);
-            List<SocialMediaPost> redditPosts = redditService.fetchPostsFromTag(tag, maxPerService);
-            System.out.println("✅ Posts Reddit récupérés: " + redditPosts.size() + "/" + maxPerService + " max");
-            allPosts.addAll(redditPosts);
-            
-            System.out.println("🔍 Tentative de récupération des posts Mastodon pour le tag: " + tag);
-            List<SocialMediaPost> mastodonPosts = mastodonService.fetchPostsFromTag(tag, maxPerService);
-            System.out.println("✅ Posts Mastodon récupérés: " + mastodonPosts.size() + "/" + maxPerService + " max");
-            allPosts.addAll(mastodonPosts);
-            
-            allPosts.sort((post1, post2) -> post2.getCreatedAt().compareTo(post1.getCreatedAt()));
-            
-            System.out.println("🎯 TOTAL FINAL: " + allPosts.size() + " posts");
-            System.out.println("📊 Répartition: " + redditPosts.size() + " Reddit + " + mastodonPosts.size() + " Mastodon");
-            
-            updateGrid(allPosts);
-            
-            return allPosts;
-            
-        } catch (Exception e) {
-            System.out.println("❌ ERREUR lors de la récupération des posts: " + e.getMessage());
-            logger.log(Level.SEVERE, "Erreur lors de la récupération des posts", e);
-            FeedbackUtils.showError("Erreur lors de la récupération des posts : " + e.getMessage());
-            
-            return new ArrayList<>();
+            posts = archive.findByKeys(snapshot.keys());
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Archive indisponible, session restaurée sans posts", e);
+            posts = List.of();
+        }
+        tagFetcher.setSource(snapshot.source());
+        viewCommands.addAll(snapshot.viewCommands());
+        postIndex.addAll(searchTagOf(viewCommands), posts);
+        results.setItems(posts);
+
+        if (snapshot.selected() >= 0 && snapshot.selected() < snapshot.keys().size()) {
+            String selectedKey = snapshot.keys().get(snapshot.selected());
+            for (int i = 0; i < results.size(); i++) {
+                if (PostIndex.keyOf(results.get(i)).equals(selectedKey)) {
+                    selectAndDisplay(results.get(i));
+                    grid.scrollToIndex(i);
+                    break;
+                }
+            }
         }
+
+        FeedbackUtils.showMessage("Session restaurée"
+                + (viewCommands.isEmpty() ? "" : " : " + String.join(" → ", viewCommands))
+                + " (" + posts.size() + " posts)");
+        return true;
     }
 
-    public void updateGrid(List<SocialMediaPost> posts) {
-        System.out.println("🔄 Mise à jour du grid avec " + posts.size() + " posts");
-        grid.setItems(posts);
-        grid.getDataProvider().refreshAll();
-        
-        if (!posts.isEmpty()) {
-            System.out.println("✅ Grid mis à jour avec succès");
+    // Tag de recherche de la vue (h <tag> ou reset), pour réindexer les posts restaurés
+    private static String searchTagOf(List<String> commands) {
+        if (commands.isEmpty()) {
+            return null;
+        }
+        String[] words = commands.get(0).trim().split("\\s+");
+        if (words[0].equals("reset")) {
+            return DEFAULT_TAG;
+        }
+        return words.length > 1 ? words[1] : null;
+    }
+
+    // Enregistre la vue peu après la dernière modification (résultat ou sélection)
+    private void scheduleSnapshot() {
+        if (snapshotPending || ui == null) {
+            return;
+        }
+        snapshotPending = true;
+        AsyncUtils.scheduler().schedule(() -> {
+            try {
+                ui.access(() -> {
+                    if (snapshotPending) {
+                        saveSnapshot();
+                    }
+                });
+            } catch (UIDetachedException e) {
+                // Vue fermée : le snapshot a été enregistré au détachement
+            }
+        }, SNAPSHOT_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void saveSnapshot() {
+        snapshotPending = false;
+        List<String> keys = new ArrayList<>(results.size());
+        results.forEach(post -> keys.add(PostIndex.keyOf(post)));
+        SocialMediaPost selected = grid.asSingleSelect().getValue();
+        int position = selected != null ? results.indexOf(selected) : -1;
+        sessionStore.save(userId,
+                new SessionSnapshot(keys, position, tagFetcher.getSource(), List.copyOf(viewCommands)).encode());
+    }
+
+    // Les commandes réseau partent sur l'exécuteur asynchrone (une nouvelle annule la précédente)
+    private void runCommand(Command command, String text) {
+        if (command instanceof AsyncCommand asyncCommand) {
+            commandExecutor.submit(asyncCommand, text);
         } else {
-            System.out.println("⚠️ Aucun post à afficher dans le grid");
+            command.execute(text);
+        }
+    }
+    /**
+     * Récupère les posts d'un tag sur les deux plateformes en parallèle.
+     * Chaque plateforme forme un lot, trié du plus récent au plus ancien et
+     * transmis dès qu'elle répond. Appelée hors du thread UI par les commandes
+     * asynchrones : ne touche ni à l'interface ni à l'index.
+     */
+    public void fetchPostsFromTag(String tag, Consumer<List<SocialMediaPost>> onBatch)
+            throws InterruptedException, ExecutionException {
+        if (StringUtils.isEmpty(tag)) {
+            return;
+        }
+
+        List<SocialMediaService> services = List.of(redditService, mastodonService);
+        CompletionService<List<SocialMediaPost>> completion = new ExecutorCompletionService<>(AsyncUtils.workers());
+        List<Future<List<SocialMediaPost>>> pending = new ArrayList<>();
+        for (SocialMediaService service : services) {
+            pending.add(completion.submit(() -> {
+                System.out.println("🔍 Tentative de récupération des posts " + service.getPlatformName() + " pour le tag: " + tag);
+                List<SocialMediaPost> posts = new ArrayList<>(service.fetchPostsFromTag(tag, MAX_POSTS_PER_SERVICE));
+                System.out.println("✅ Posts " + service.getPlatformName() + " récupérés: " + posts.size() + "/" + MAX_POSTS_PER_SERVICE + " max");
+                posts.sort((post1, post2) -> Long.compare(post2.getCreatedUtc(), post1.getCreatedUtc()));
+                return posts;
+            }));
+        }
+
+        try {
+            for (int i = 0; i < services.size(); i++) {
+                onBatch.accept(completion.take().get());
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
         }
     }
 
     private void selectItemListener(Grid<SocialMediaPost> grid, Div contentDiv,
             com.vaadin.flow.data.selection.SelectionEvent<Grid<SocialMediaPost>, SocialMediaPost> event) {
-        grid.getDataProvider().fetch(new Query<>()).forEach(p -> grid.setDetailsVisible(p, false));
-        event.getFirstSelectedItem().ifPresent(this::selectAndDisplay);
+        event.getFirstSelectedItem().ifPresent(this::showDetails);
     }
 
     public void selectAndDisplay(SocialMediaPost post) {
         grid.select(post);
-        contentDiv.removeAll();
-
-        if (post != null) {
-            VerticalLayout container = new VerticalLayout();
-            container.setWidthFull();
-            container.setSpacing(false);
-
-            PlatformBadge largeBadge = new PlatformBadge(post, PlatformBadge.Size.LARGE, PlatformBadge.Style.BADGE);
-            HorizontalLayout platformHeader = new HorizontalLayout(largeBadge);
-            container.add(platformHeader);
-
-            HorizontalLayout header = new HorizontalLayout();
-            header.setWidthFull();
-            header.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
-            header.setAlignItems(FlexComponent.Alignment.START);
-
-            VerticalLayout userInfo = new VerticalLayout();
-            userInfo.setSpacing(false);
-            userInfo.setPadding(false);
-
-            Div displayNameDiv = new Div();
-            displayNameDiv.getStyle().set("font-weight", "bold");
-            displayNameDiv.setText(post.getDisplayName());
-
-            Div platformDiv = new Div();
-            platformDiv.getStyle().set("color", "orange");
-            platformDiv.setText(post.getPlatformInfo());
-
-            Div dateDiv = new Div();
-            dateDiv.getStyle().set("color", "gray");
-            dateDiv.getStyle().set("font-size", "0.9em");
-            dateDiv.getStyle().set("margin-top", "4px");
-            dateDiv.setText("📅 " + post.getFormattedDate());
-
-            userInfo.add(displayNameDiv, platformDiv, dateDiv); 
-
-            Div scoreDiv = new Div();
-            scoreDiv.getStyle().set("font-size", "0.8em");
-            scoreDiv.getStyle().set("color", "gray");
-            scoreDiv.setText(post.getScoreText());
-
-            header.add(userInfo, scoreDiv);
-            container.add(header);
-            
-            Div postContent = new Div();
-            postContent.getElement().setProperty("innerHTML", post.getContent());
-            container.add(postContent);
-            
-            Div engagementDiv = new Div();
-            engagementDiv.setText(post.getEngagementText());
-            container.add(engagementDiv);
+        showDetails(post);
+    }
 
+    // Affiche le détail d'un post dans le panneau persistant (HTML nettoyé, mis en cache)
+    private void showDetails(SocialMediaPost post) {
+        if (post == null) {
             contentDiv.removeAll();
-            contentDiv.add(container);
-            grid.setDetailsVisible(post, true);
+            displayedDetailKey = null;
+            return;
         }
+
+        // Les autres commandes (help, hist, taglist...) remplacent le contenu du panneau
+        boolean paneAttached = detailPane.getParent().map(parent -> parent == contentDiv).orElse(false);
+        String key = PostDetailCache.cacheKey(post);
+        boolean unchanged = paneAttached && key.equals(displayedDetailKey);
+        if (!unchanged) {
+            if (!paneAttached) {
+                contentDiv.removeAll();
+                contentDiv.add(detailPane);
+            }
+            // Le navigateur modifie aussi ce panneau (navigation locale) : pas de propriété côté serveur
+            detailPane.getElement().executeJs("this.innerHTML = $0", detailCache.get(post));
+            displayedDetailKey = key;
+        }
+        if (!unchanged || !prefetcher.hasWindow()) {
+            prefetcher.push(results.indexOf(post), -1);
+        }
+    }
+
+    // Appelé par le navigateur après une navigation locale (flèches) : le détail est déjà affiché
+    @ClientCallable
+    private void syncSelection(int position, double version, int seq) {
+        if ((long) version != results.version() || position < 0 || position >= results.size()) {
+            // Fenêtre périmée : on réaffiche l'état du serveur
+            displayedDetailKey = null;
+            showDetails(grid.asSingleSelect().getValue());
+            return;
+        }
+        SocialMediaPost post = results.get(position);
+        displayedDetailKey = PostDetailCache.cacheKey(post);
+        grid.select(post);
+        grid.scrollToIndex(position);
+        prefetcher.push(position, seq);
+    }
+
+    // Appelé par le navigateur quand le voisin n'est pas préchargé
+    @ClientCallable
+    private void navigate(int delta) {
+        dispatch(delta > 0 ? "n" : "p");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package antix.views.main;
+
+import antix.index.PostResultSet;
+import antix.model.SocialMediaPost;
+
+import com.vaadin.flow.dom.Element;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Préchargement côté navigateur du détail des posts voisins du post affiché.
+ * <p>
+ * Le serveur envoie le HTML (déjà en cache, voir {@link PostDetailCache}) des
+ * {@value #RADIUS} posts précédents et suivants. Les flèches gauche / droite
+ * du prompt affichent alors le voisin localement, sans aller-retour ; la
+ * sélection est ensuite synchronisée de façon asynchrone avec le serveur
+ * ({@code syncSelection}), qui renvoie la nouvelle fenêtre. Seuls les posts
+ * absents de la fenêtre précédente voyagent avec leur HTML.
+ * <p>
+ * Si le voisin n'est pas préchargé, la navigation repasse par le serveur
+ * ({@code navigate}).
+ */
+public class NeighbourPrefetcher {
+
+    /** Nombre de voisins préchargés de chaque côté. */
+    public static final int RADIUS = 3;
+
+    private static final String SCRIPT = """
+            const view = this;
+            const prompt = $0;
+            view.$antixNav = {
+                version: -1, current: -1, seq: 0, keys: new Map(), html: new Map(),
+                setWindow(payload) {
+                    const previous = this.html;
+                    this.keys = new Map();
+                    this.html = new Map();
+                    if (!payload) {
+                        this.current = -1;
+                        return;
+                    }
+                    this.version = payload.version;
+                    // Une réponse à un déplacement plus ancien ne ramène pas la position en arrière
+                    if (payload.seq < 0 || payload.seq >= this.seq) {
+                        this.current = payload.current;
+                    }
+                    for (const item of payload.items) {
+                        const html = item.html != null ? item.html : previous.get(item.key);
+                        if (html != null) {
+                            this.keys.set(item.pos, item.key);
+                            this.html.set(item.key, html);
+                        }
+                    }
+                },
+                move(delta) {
+                    const target = this.current + delta;
+                    const key = this.keys.get(target);
+                    const pane = document.getElementById('detail-pane');
+                    if (this.current < 0 || key == null || !pane) {
+                        return false;
+                    }
+                    pane.innerHTML = this.html.get(key);
+                    this.current = target;
+                    view.$server.syncSelection(target, this.version, ++this.seq);
+                    return true;
+                }
+            };
+            prompt.addEventListener('keydown', e => {
+                if (e.key !== 'ArrowLeft' && e.key !== 'ArrowRight') {
+                    return;
+                }
+                const delta = e.key === 'ArrowRight' ? 1 : -1;
+                if (!view.$antixNav.move(delta)) {
+                    view.$server.navigate(delta);
+                }
+            });
+            """;
+
+    private final Element host;
+    private final PostResultSet results;
+    private final PostDetailCache cache;
+    private Set<String> lastWindow = new HashSet<>();
+
+    /**
+     * @param host    Élément de la vue portant les méthodes {@code @ClientCallable}.
+     * @param results Posts affichés.
+     * @param cache   Cache du HTML de détail.
+     */
+    public NeighbourPrefetcher(Element host, PostResultSet results, PostDetailCache cache) {
+        this.host = host;
+        this.results = results;
+        this.cache = cache;
+    }
+
+    /**
+     * Installe le script de navigation locale sur le prompt.
+     *
+     * @param prompt Champ de saisie des commandes.
+     */
+    public void install(Element prompt) {
+        host.executeJs(SCRIPT, prompt);
+    }
+
+    /**
+     * Envoie au navigateur la fenêtre de voisins autour d'une position.
+     *
+     * @param position Position du post affiché dans le résultat (-1 pour vider).
+     * @param seq      Numéro du déplacement local auquel on répond, -1 pour
+     *                 une sélection faite côté serveur.
+     */
+    public void push(int position, int seq) {
+        if (position < 0 || position >= results.size()) {
+            invalidate();
+            return;
+        }
+        JsonObject payload = Json.createObject();
+        payload.put("version", results.version());
+        payload.put("current", position);
+        payload.put("seq", seq);
+        JsonArray items = Json.createArray();
+        Set<String> window = new HashSet<>();
+        int from = Math.max(0, position - RADIUS);
+        int to = Math.min(results.size() - 1, position + RADIUS);
+        for (int pos = from; pos <= to; pos++) {
+            SocialMediaPost post = results.get(pos);
+            String key = PostDetailCache.cacheKey(post);
+            JsonObject item = Json.createObject();
+            item.put("pos", pos);
+            item.put("key", key);
+            if (!lastWindow.contains(key)) {
+                item.put("html", cache.get(post));
+            }
+            items.set(items.length(), item);
+            window.add(key);
+        }
+        payload.put("items", items);
+        lastWindow = window;
+        host.executeJs("this.$antixNav && this.$antixNav.setWindow($0)", payload);
+    }
+
+    /** true si une fenêtre de voisins a été envoyée depuis la dernière invalidation. */
+    public boolean hasWindow() {
+        return !lastWindow.isEmpty();
+    }
+
+    /**
+     * Vide la fenêtre côté navigateur (résultat modifié, panneau remplacé...).
+     */
+    public void invalidate() {
+        if (lastWindow.isEmpty()) {
+            return;
+        }
+        lastWindow = new HashSet<>();
+        host.executeJs("this.$antixNav && this.$antixNav.setWindow(null)");
+    }
+}
@@ -0,0 +1,154 @@
+package antix.views.main;
+
+import antix.components.PlatformBadge;
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+import antix.utils.HtmlSanitizer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache LRU du panneau de détail, par session.
+ * <p>
+ * Pour chaque post, le HTML complet du détail (en-tête, contenu nettoyé par
+ * {@link HtmlSanitizer}, engagement) est construit une fois puis réutilisé :
+ * revenir sur un post déjà vu (flèches, play) ne coûte qu'une lecture du
+ * cache. La clé combine plateforme:id et une empreinte du contenu affiché,
+ * de sorte qu'un post rafraîchi est reconstruit.
+ */
+public class PostDetailCache {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<String, String> entries;
+    private long hits;
+    private long misses;
+
+    public PostDetailCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Nombre maximal de posts gardés en cache.
+     */
+    public PostDetailCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * HTML du détail d'un post, construit au premier accès.
+     *
+     * @param post Post à afficher.
+     * @return Fragment HTML prêt à être injecté.
+     */
+    public String get(SocialMediaPost post) {
+        String key = cacheKey(post);
+        String html = entries.get(key);
+        if (html != null) {
+            hits++;
+            return html;
+        }
+        misses++;
+        html = render(post);
+        entries.put(key, html);
+        return html;
+    }
+
+    /**
+     * Clé de cache : plateforme:id et empreinte du contenu affiché.
+     *
+     * @param post Post.
+     * @return Clé.
+     */
+    public static String cacheKey(SocialMediaPost post) {
+        int fingerprint = Objects.hash(post.getContent(), post.getScoreText(), post.getEngagementText(),
+                post.getDisplayName(), post.getPlatformInfo());
+        return PostIndex.keyOf(post) + "#" + Integer.toHexString(fingerprint);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Empreinte mémoire estimée du cache (clés et HTML), en octets.
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            bytes += entryBytes(entry);
+        }
+        return bytes;
+    }
+
+    /**
+     * Évince les entrées les moins récemment utilisées jusqu'à passer sous
+     * un budget.
+     *
+     * @param maxBytes Empreinte maximale, en octets.
+     * @return Nombre d'entrées évincées.
+     */
+    public int trimTo(long maxBytes) {
+        long bytes = sizeInBytes();
+        int evicted = 0;
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= entryBytes(eldest.next());
+            eldest.remove();
+            evicted++;
+        }
+        return evicted;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    // Entrée de LinkedHashMap + deux chaînes (en-tête, tableau, 2 octets par caractère)
+    private static long entryBytes(Map.Entry<String, String> entry) {
+        return 56L + 2 * 40L + 2L * (entry.getKey().length() + entry.getValue().length());
+    }
+
+    private static String render(SocialMediaPost post) {
+        PlatformBadge.Size badge = PlatformBadge.Size.LARGE;
+        StringBuilder html = new StringBuilder(256 + (post.getContent() == null ? 0 : post.getContent().length()));
+        html.append("<div class='post-detail' style='display: flex; flex-direction: column; gap: var(--lumo-space-s); width: 100%;'>");
+
+        // Badge de plateforme (même rendu que PlatformBadge LARGE / BADGE)
+        html.append("<div><span style='background-color: ").append(HtmlSanitizer.escape(post.getBadgeColor()))
+            .append("; color: ").append(HtmlSanitizer.escape(post.getBadgeTextColor()))
+            .append("; padding: ").append(badge.getPadding())
+            .append("; border-radius: ").append(badge.getBorderRadius())
+            .append("; font-size: ").append(badge.getFontSize())
+            .append("; font-weight: bold; display: inline-block; white-space: nowrap;'>")
+            .append(HtmlSanitizer.escape(post.getPlatformDisplayName())).append("</span></div>");
+
+        // En-tête : auteur, plateforme, date / score
+        html.append("<div style='display: flex; justify-content: space-between; align-items: flex-start; width: 100%;'>")
+            .append("<div>")
+            .append("<div style='font-weight: bold;'>").append(HtmlSanitizer.escape(post.getDisplayName())).append("</div>")
+            .append("<div style='color: orange;'>").append(HtmlSanitizer.escape(post.getPlatformInfo())).append("</div>")
+            .append("<div style='color: gray; font-size: 0.9em; margin-top: 4px;'>📅 ")
+            .append(HtmlSanitizer.escape(post.getFormattedDate())).append("</div>")
+            .append("</div>")
+            .append("<div style='font-size: 0.8em; color: gray;'>").append(HtmlSanitizer.escape(post.getScoreText())).append("</div>")
+            .append("</div>");
+
+        html.append("<div class='post-detail-content'>").append(HtmlSanitizer.sanitize(post.getContent())).append("</div>");
+        html.append("<div>").append(HtmlSanitizer.escape(post.getEngagementText())).append("</div>");
+        html.append("</div>");
+        return html.toString();
+    }
+}
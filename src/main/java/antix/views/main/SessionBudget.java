@@ -0,0 +1,50 @@
+package antix.views.main;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Budgets mémoire appliqués à chaque session (voir {@link SessionFootprint}),
+ * lus dans la configuration ({@code antix.session.*}).
+ */
+@Component
+public class SessionBudget {
+
+    private final int maxRows;
+    private final int maxHistory;
+    private final long maxIndexBytes;
+    private final long maxDetailCacheBytes;
+
+    /**
+     * @param maxRows             Nombre maximal de posts affichés dans la grille.
+     * @param maxHistory          Nombre maximal de commandes gardées dans l'historique.
+     * @param maxIndexKb          Empreinte maximale de l'index (posts compris), en Ko.
+     * @param maxDetailCacheKb    Empreinte maximale du cache de détail, en Ko.
+     */
+    public SessionBudget(
+            @Value("${antix.session.max-rows:500}") int maxRows,
+            @Value("${antix.session.max-history:200}") int maxHistory,
+            @Value("${antix.session.max-index-kb:8192}") long maxIndexKb,
+            @Value("${antix.session.max-detail-cache-kb:2048}") long maxDetailCacheKb) {
+        this.maxRows = Math.max(1, maxRows);
+        this.maxHistory = Math.max(1, maxHistory);
+        this.maxIndexBytes = Math.max(1, maxIndexKb) * 1024;
+        this.maxDetailCacheBytes = Math.max(1, maxDetailCacheKb) * 1024;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getMaxHistory() {
+        return maxHistory;
+    }
+
+    public long getMaxIndexBytes() {
+        return maxIndexBytes;
+    }
+
+    public long getMaxDetailCacheBytes() {
+        return maxDetailCacheBytes;
+    }
+}
@@ -0,0 +1,168 @@
+package antix.views.main;
+
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
+import antix.model.SocialMediaPost;
+import antix.model.Tag;
+import antix.utils.FeedbackUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Estimation de la mémoire retenue par une session, par composant, et
+ * application des budgets de {@link SessionBudget}.
+ * <p>
+ * Les tailles sont des estimations (en-têtes d'objets, chaînes à 2 octets par
+ * caractère, entrées de tables) : elles servent à comparer les composants et
+ * à déclencher les budgets, pas à mesurer le tas au octet près. Les posts sont
+ * comptés une seule fois, dans l'index ; le résultat affiché ne compte que
+ * ses propres tables de positions.
+ * <p>
+ * Quand un budget est dépassé, la session est allégée dans cet ordre :
+ * résultat limité à ses premières lignes, index compacté sur les posts
+ * affichés, cache de détail évincé (moins récemment utilisés). L'historique
+ * est un tampon circulaire dont la capacité est déjà celle du budget.
+ * <p>
+ * L'estimation de l'index parcourt tous ses posts : elle est gardée tant que
+ * l'index ne change pas ({@link PostIndex#version()}), pour que les commandes
+ * de navigation (n, p, goto) ne la recalculent pas.
+ */
+public class SessionFootprint {
+
+    private static final Logger logger = Logger.getLogger(SessionFootprint.class.getName());
+
+    /**
+     * Empreinte d'une session, en octets, par composant.
+     *
+     * @param results     Résultat affiché (liste et tables de positions).
+     * @param index       Index des posts (posts, bitmaps, colonnes, classements).
+     * @param history     Historique des commandes.
+     * @param detailCache Cache du HTML de détail.
+     * @param rows        Nombre de lignes du résultat.
+     * @param indexed     Nombre de posts indexés.
+     */
+    public record Report(long results, long index, long history, long detailCache, int rows, int indexed) {
+
+        public long total() {
+            return results + index + history + detailCache;
+        }
+    }
+
+    private final SessionBudget budget;
+    private final PostResultSet results;
+    private final PostIndex index;
+    private final CommandHistory history;
+    private final PostDetailCache detailCache;
+    private long indexBytes;
+    private long indexVersion = -1;
+
+    /**
+     * @param budget      Budgets à faire respecter.
+     * @param results     Posts affichés.
+     * @param index       Index des posts de la session.
+     * @param history     Historique des commandes saisies.
+     * @param detailCache Cache du détail des posts.
+     */
+    public SessionFootprint(SessionBudget budget, PostResultSet results, PostIndex index,
+            CommandHistory history, PostDetailCache detailCache) {
+        this.budget = budget;
+        this.results = results;
+        this.index = index;
+        this.history = history;
+        this.detailCache = detailCache;
+    }
+
+    public SessionBudget budget() {
+        return budget;
+    }
+
+    /**
+     * Estime l'empreinte actuelle de la session.
+     */
+    public Report measure() {
+        return new Report(resultsBytes(), indexBytes(), historyBytes(), detailCache.sizeInBytes(),
+                results.size(), index.size());
+    }
+
+    /**
+     * Fait respecter les budgets. À appeler depuis le thread UI, hors de toute
+     * commande en cours.
+     */
+    public void enforce() {
+        List<String> actions = new ArrayList<>();
+
+        if (results.size() > budget.getMaxRows()) {
+            int dropped = results.size() - budget.getMaxRows();
+            results.setItems(new ArrayList<>(results.subList(0, budget.getMaxRows())));
+            FeedbackUtils.showMessage("Résultat limité aux " + budget.getMaxRows() + " premiers posts.");
+            actions.add(dropped + " ligne(s) retirée(s) du résultat");
+        }
+
+        if (indexBytes() > budget.getMaxIndexBytes()) {
+            int evicted = index.retainAll(results);
+            actions.add("index compacté sur les posts affichés (" + evicted + " post(s) retiré(s))");
+        }
+
+        if (detailCache.sizeInBytes() > budget.getMaxDetailCacheBytes()) {
+            int evicted = detailCache.trimTo(budget.getMaxDetailCacheBytes());
+            actions.add(evicted + " détail(s) évincé(s) du cache");
+        }
+
+        if (!actions.isEmpty()) {
+            logger.info("Budget mémoire de la session dépassé : " + String.join(", ", actions)
+                    + " → " + (measure().total() / 1024) + " Ko");
+        }
+    }
+
+    /**
+     * Taille estimée d'un post et de ses chaînes, sur le tas : un corps stocké
+     * hors tas ({@link antix.model.BodySlabs}) ne compte que pour sa référence.
+     *
+     * @param post Post mesuré.
+     * @return Octets.
+     */
+    public static long estimate(SocialMediaPost post) {
+        long bytes = 96;
+        bytes += stringBytes(post.getId()) + stringBytes(post.getPlatform())
+                + stringBytes(post.getAuthor()) + stringBytes(post.getSubreddit()) + stringBytes(post.getPermalink())
+                + stringBytes(post.getPostUrl());
+        // Ne décode pas un corps hors tas pour le mesurer
+        bytes += post.isBodyOffHeap() ? 64 : stringBytes(post.getTitle()) + stringBytes(post.getContent());
+        for (Tag tag : post.getTags()) {
+            bytes += 24 + stringBytes(tag.getName());
+        }
+        return bytes;
+    }
+
+    private long resultsBytes() {
+        // Référence dans la liste + une entrée dans chacune des trois tables de positions
+        return results.size() * (8L + 3 * 48L);
+    }
+
+    private long indexBytes() {
+        if (indexVersion == index.version()) {
+            return indexBytes;
+        }
+        long bytes = index.sizeInBytes();
+        for (int ordinal = 0; ordinal < index.size(); ordinal++) {
+            bytes += estimate(index.get(ordinal));
+        }
+        indexBytes = bytes;
+        indexVersion = index.version();
+        return bytes;
+    }
+
+    private long historyBytes() {
+        long bytes = 0;
+        for (String command : history) {
+            bytes += 8 + stringBytes(command);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+}
@@ -0,0 +1,138 @@
+package antix.views.main;
+
+import antix.index.MetricColumns;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * État de la vue d'une session, sérialisé sous forme binaire compacte pour
+ * être restauré au rechargement de la page.
+ * <p>
+ * Seules les clés des posts sont stockées (le contenu est relu dans
+ * l'archive) : un octet de plateforme et l'id. Format :
+ * <pre>
+ * version | source | nb posts | (plateforme, id)* | sélection | nb commandes | commande*
+ * </pre>
+ * Au plus {@value #MAX_COMMANDS} commandes sont gardées (la recherche et les
+ * dernières), chacune tronquée à {@value #MAX_COMMAND_LENGTH} caractères.
+ *
+ * @param keys         Clés plateforme:id des posts affichés, dans l'ordre.
+ * @param selected     Position du post sélectionné, -1 si aucun.
+ * @param source       Origine des posts (live ou archive).
+ * @param viewCommands Commandes ayant produit la vue (recherche, filtres, tri).
+ */
+public record SessionSnapshot(List<String> keys, int selected, ArchiveTagFetcher.Source source,
+        List<String> viewCommands) {
+
+    /** Nombre maximal de commandes de vue gardées. */
+    public static final int MAX_COMMANDS = 32;
+
+    /** Longueur maximale d'une commande de vue, comme dans l'historique. */
+    public static final int MAX_COMMAND_LENGTH = 1024;
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Sérialise l'état.
+     *
+     * @return Octets du snapshot.
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + keys.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(source.ordinal());
+            out.writeInt(keys.size());
+            for (String key : keys) {
+                int colon = key.indexOf(':');
+                String platform = key.substring(0, colon);
+                byte code = MetricColumns.platformCode(platform);
+                out.writeByte(code);
+                if (code == MetricColumns.PLATFORM_OTHER) {
+                    out.writeUTF(platform);
+                }
+                out.writeUTF(key.substring(colon + 1));
+            }
+            out.writeInt(selected);
+            List<String> commands = capped(viewCommands);
+            out.writeShort(commands.size());
+            for (String command : commands) {
+                out.writeUTF(truncate(command));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Relit un snapshot.
+     *
+     * @param data Octets produits par {@link #encode()}.
+     * @return L'état relu.
+     * @throws IllegalArgumentException si le format est inconnu ou corrompu.
+     */
+    public static SessionSnapshot decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Version de snapshot inconnue");
+            }
+            ArchiveTagFetcher.Source source = ArchiveTagFetcher.Source.values()[in.readByte()];
+            int count = in.readInt();
+            if (count < 0 || count > data.length) {
+                throw new IllegalArgumentException("Snapshot corrompu");
+            }
+            List<String> keys = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte code = in.readByte();
+                String platform = switch (code) {
+                    case MetricColumns.PLATFORM_REDDIT -> "reddit";
+                    case MetricColumns.PLATFORM_MASTODON -> "mastodon";
+                    default -> in.readUTF();
+                };
+                keys.add(platform + ":" + in.readUTF());
+            }
+            int selected = in.readInt();
+            int commandCount = in.readShort();
+            if (commandCount < 0 || commandCount > MAX_COMMANDS) {
+                throw new IllegalArgumentException("Snapshot corrompu");
+            }
+            List<String> commands = new ArrayList<>(commandCount);
+            for (int i = 0; i < commandCount; i++) {
+                commands.add(in.readUTF());
+            }
+            return new SessionSnapshot(keys, selected, source, commands);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Snapshot illisible", e);
+        }
+    }
+
+    /**
+     * Tronque une commande de vue à {@value #MAX_COMMAND_LENGTH} caractères.
+     *
+     * @param command Commande saisie.
+     * @return Commande tronquée.
+     */
+    public static String truncate(String command) {
+        return command.length() > MAX_COMMAND_LENGTH ? command.substring(0, MAX_COMMAND_LENGTH) : command;
+    }
+
+    /**
+     * Commandes de vue limitées à {@value #MAX_COMMANDS} : la première (la
+     * recherche) et les plus récentes.
+     *
+     * @param commands Commandes dans l'ordre de saisie.
+     * @return Commandes gardées.
+     */
+    public static List<String> capped(List<String> commands) {
+        if (commands.size() <= MAX_COMMANDS) {
+            return commands;
+        }
+        List<String> kept = new ArrayList<>(MAX_COMMANDS);
+        kept.add(commands.get(0));
+        kept.addAll(commands.subList(commands.size() - MAX_COMMANDS + 1, commands.size()));
+        return kept;
+    }
+}
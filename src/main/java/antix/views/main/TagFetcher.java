@@ -0,0 +1,23 @@
+package antix.views.main;
+
+import antix.model.SocialMediaPost;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+// Interface fonctionnelle de récupération des posts d'un tag, lot par lot (une plateforme = un lot)
+
+@FunctionalInterface
+public interface TagFetcher {
+
+    /**
+     * Récupère les posts d'un tag. Bloquant : à appeler hors du thread UI.
+     * Chaque lot est transmis, trié du plus récent au plus ancien, dès qu'une
+     * plateforme a répondu, sur le thread appelant.
+     *
+     * @param tag     Tag recherché.
+     * @param onBatch Reçoit chaque lot de posts.
+     */
+    void fetch(String tag, Consumer<List<SocialMediaPost>> onBatch) throws InterruptedException, ExecutionException;
+}
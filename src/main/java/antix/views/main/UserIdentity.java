@@ -0,0 +1,65 @@
+package antix.views.main;
+
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+
+import jakarta.servlet.http.Cookie;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Identifiant anonyme et stable d'un navigateur, porté par un cookie.
+ * <p>
+ * L'application n'a pas de comptes : cet identifiant sert de propriétaire aux
+ * données persistées (favoris...) d'une session à l'autre.
+ */
+public final class UserIdentity {
+
+    public static final String COOKIE_NAME = "antix-user";
+    private static final Duration LIFETIME = Duration.ofDays(365);
+
+    private UserIdentity() {}
+
+    /**
+     * Identifiant du navigateur de la requête en cours, créé (et posé en
+     * cookie) à la première visite.
+     *
+     * @return Identifiant de l'utilisateur.
+     */
+    public static String current() {
+        VaadinRequest request = VaadinRequest.getCurrent();
+        if (request != null && request.getCookies() != null) {
+            String existing = Arrays.stream(request.getCookies())
+                    .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                    .map(Cookie::getValue)
+                    .filter(UserIdentity::isValid)
+                    .findFirst()
+                    .orElse(null);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        String id = UUID.randomUUID().toString();
+        VaadinResponse response = VaadinResponse.getCurrent();
+        if (response != null) {
+            Cookie cookie = new Cookie(COOKIE_NAME, id);
+            cookie.setPath("/");
+            cookie.setMaxAge((int) LIFETIME.toSeconds());
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        return id;
+    }
+
+    private static boolean isValid(String value) {
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
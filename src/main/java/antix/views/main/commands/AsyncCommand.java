@@ -0,0 +1,51 @@
+package antix.views.main.commands;
+
+import antix.utils.FeedbackUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Commande dont le travail principal (appels réseau) s'exécute hors du thread UI.
+ * <p>
+ * {@link #prepare} tourne sur un thread virtuel et ne doit pas toucher à
+ * l'interface ni à l'état de la session : il renvoie l'action à appliquer,
+ * que l'exécuteur passe ensuite à {@link CommandContext#apply}.
+ */
+public abstract class AsyncCommand extends Command {
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    protected AsyncCommand(List<String> aliases, String title, String description) {
+        super(aliases, title, description);
+    }
+
+    /**
+     * Effectue le travail bloquant de la commande.
+     *
+     * @param input   Entrée utilisateur.
+     * @param context Contexte (annulation, application à l'UI).
+     * @return Action à appliquer à l'interface avec le verrou de session.
+     * @throws Exception En cas d'échec du travail.
+     */
+    public abstract Runnable prepare(String input, CommandContext context) throws Exception;
+
+    /** Délai au-delà duquel la commande est annulée. */
+    public Duration getTimeout() {
+        return DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Exécution synchrone, sur le thread appelant (hors exécuteur).
+     *
+     * @param input Entrée utilisateur.
+     */
+    @Override
+    public void execute(String input) {
+        try {
+            prepare(input, CommandContext.direct()).run();
+        } catch (Exception e) {
+            FeedbackUtils.showError("Erreur lors de l'exécution de la commande : " + e.getMessage());
+        }
+    }
+}
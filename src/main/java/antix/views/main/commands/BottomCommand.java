@@ -1,5 +1,6 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.views.main.PostSelector;
 import com.vaadin.flow.component.grid.Grid;
@@ -14,9 +15,10 @@ public class BottomCommand extends NavigationCommand {
      * Constructeur de la commande Bottom.
      *
      * @param grid     Grille contenant les posts à afficher.
+     * @param results  Posts affichés dans la grille.
      * @param selector Interface permettant d'afficher un post dans l'UI.
      */
-    public BottomCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public BottomCommand(Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(
             List.of("bottom"),
             "Bottom",
@@ -26,6 +28,7 @@ public class BottomCommand extends NavigationCommand {
             💡 Sélectionne le post le plus bas de la page
             """,
             grid,
+            results,
             selector
         );
     }
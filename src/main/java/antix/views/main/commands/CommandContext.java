@@ -0,0 +1,76 @@
+package antix.views.main.commands;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Contexte d'exécution d'une {@link AsyncCommand}.
+ * <p>
+ * Il permet au travail hors thread UI de savoir s'il a été annulé (nouvelle
+ * commande, délai dépassé) et d'appliquer ses résultats à l'interface via
+ * {@link UI#access}, uniquement si la commande est toujours d'actualité.
+ */
+public class CommandContext {
+
+    private final UI ui;
+    private volatile boolean cancelled;
+
+    /**
+     * @param ui Interface de la session, ou null pour une exécution directe
+     *           sur le thread appelant.
+     */
+    public CommandContext(UI ui) {
+        this.ui = ui;
+    }
+
+    /** Contexte d'exécution synchrone (le thread appelant détient déjà la session). */
+    public static CommandContext direct() {
+        return new CommandContext(null);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Interrompt le travail en cours si la commande a été annulée.
+     *
+     * @throws CancellationException si la commande est annulée.
+     */
+    public void checkCancelled() {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Applique une action à l'interface, sauf si la commande a été annulée
+     * entre-temps.
+     *
+     * @param action Action à exécuter avec le verrou de session.
+     */
+    public void apply(Runnable action) {
+        if (cancelled) {
+            return;
+        }
+        if (ui == null) {
+            action.run();
+            return;
+        }
+        try {
+            ui.access(() -> {
+                if (!cancelled) {
+                    action.run();
+                }
+            });
+        } catch (UIDetachedException e) {
+            cancel();
+        }
+    }
+}
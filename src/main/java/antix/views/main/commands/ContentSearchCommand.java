@@ -1,11 +1,10 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.utils.FeedbackUtils;
-import antix.utils.GridUtils;
 import antix.views.main.PostSelector;
 
-import com.vaadin.flow.component.grid.Grid;
 import org.jsoup.Jsoup;
 
 import java.util.List;
@@ -16,16 +15,16 @@ import java.util.stream.Collectors;
  * Exemple : c "pouvoir"
  */
 public class ContentSearchCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
+    private final PostResultSet results;
     private final PostSelector selector;
 
     /**
      * Constructeur.
      *
-     * @param grid        Grille contenant les posts.
+     * @param results     Posts affichés dans la grille.
      * @param selector    Sélecteur de post pour mise en avant.
      */
-    public ContentSearchCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public ContentSearchCommand(PostResultSet results, PostSelector selector) {
         super(
             List.of("c"),
             "Content Search",
@@ -35,7 +34,7 @@ public class ContentSearchCommand extends Command {
             💡 Recherche un mot dans le contenu des posts
             """
         );
-        this.grid = grid;
+        this.results = results;
         this.selector = selector;
     }
 
@@ -52,11 +51,11 @@ public class ContentSearchCommand extends Command {
             return;
         }
 
-        List<SocialMediaPost> filtered = GridUtils.fetchAll(grid).stream()
+        List<SocialMediaPost> filtered = results.stream()
                 .filter(post -> Jsoup.parse(post.getContent()).text().toLowerCase().contains(query))
                 .collect(Collectors.toList());
 
-        grid.setItems(filtered);
+        results.setItems(filtered);
 
         if (!filtered.isEmpty()) {
             selector.selectAndDisplay(filtered.get(0));
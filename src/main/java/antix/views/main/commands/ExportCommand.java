@@ -0,0 +1,156 @@
+package antix.views.main.commands;
+
+import antix.export.ExportFormat;
+import antix.export.PostWriter;
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
+import antix.model.SocialMediaPost;
+import antix.service.PostArchive;
+import antix.utils.FeedbackUtils;
+
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.StreamResourceWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Commande exportant les posts affichés, ou une requête sur l'archive, dans
+ * un fichier téléchargé. L'export est écrit post par post directement dans
+ * la réponse HTTP, au moment du téléchargement : la mémoire utilisée ne
+ * dépend pas du nombre de posts.
+ * Usage :
+ * - export csv|jsonl|columnar : posts affichés
+ * - export csv archive : toute l'archive locale
+ * - export csv archive <tag> : posts archivés d'un tag
+ */
+public class ExportCommand extends Command {
+
+    private static final Logger logger = Logger.getLogger(ExportCommand.class.getName());
+
+    private final PostResultSet results;
+    private final PostArchive archive;
+    private final Div contentDiv;
+
+    /** Écrit les posts d'un export ; renvoie le nombre de posts écrits. */
+    @FunctionalInterface
+    private interface Source {
+        long writeTo(PostWriter writer) throws IOException;
+    }
+
+    /**
+     * Constructeur.
+     *
+     * @param results    Posts affichés dans la grille.
+     * @param archive    Archive locale des posts.
+     * @param contentDiv Zone où afficher le lien de téléchargement.
+     */
+    public ExportCommand(PostResultSet results, PostArchive archive, Div contentDiv) {
+        super(
+            List.of("export"),
+            "Export",
+            """
+            📤 export <csv|jsonl|columnar> <archive?> <tag?>
+
+            💡 Télécharge les posts affichés, ou l'archive locale (entière ou pour un tag)
+            Ex : export csv, export jsonl archive java
+            """
+        );
+        this.results = results;
+        this.archive = archive;
+        this.contentDiv = contentDiv;
+    }
+
+    /**
+     * Prépare le téléchargement et le lance.
+     *
+     * @param input Entrée utilisateur, ex : export csv archive java
+     */
+    @Override
+    public void execute(String input) {
+        String[] parts = input.trim().split("\\s+");
+        if (parts.length < 2) {
+            FeedbackUtils.showError("Format manquant (ex : export csv, export jsonl, export columnar).");
+            return;
+        }
+        Optional<ExportFormat> parsed = ExportFormat.parse(parts[1]);
+        if (parsed.isEmpty()) {
+            FeedbackUtils.showError("Format inconnu : \"" + parts[1] + "\" (csv, jsonl ou columnar)");
+            return;
+        }
+        ExportFormat format = parsed.get();
+
+        String name;
+        String description;
+        Source source;
+        if (parts.length > 2 && parts[2].equalsIgnoreCase("archive")) {
+            String tag = parts.length > 3 ? parts[3] : null;
+            name = "antix-archive" + (tag != null ? "-" + PostIndex.normalize(tag) : "");
+            description = tag != null ? "posts archivés pour #" + PostIndex.normalize(tag) : "toute l'archive locale";
+            source = writer -> archive.forEach(tag, post -> write(writer, post));
+        } else if (parts.length > 2) {
+            FeedbackUtils.showError("Argument inconnu : \"" + parts[2] + "\" (ex : export csv archive java)");
+            return;
+        } else {
+            if (results.isEmpty()) {
+                FeedbackUtils.showError("Aucun post à exporter.");
+                return;
+            }
+            // Copie des références : l'export est écrit hors du thread UI
+            List<SocialMediaPost> posts = List.copyOf(results);
+            name = "antix-results";
+            description = posts.size() + " post(s) affichés";
+            source = writer -> {
+                for (SocialMediaPost post : posts) {
+                    writer.write(post);
+                }
+                return posts.size();
+            };
+        }
+
+        String fileName = name + "." + format.getExtension();
+        StreamResource resource = new StreamResource(fileName, stream(format, fileName, source));
+        resource.setContentType(format.getContentType());
+
+        Anchor link = new Anchor(resource, "⬇️ " + fileName);
+        link.getElement().setAttribute("download", true);
+
+        contentDiv.removeAll();
+        Div exportDiv = new Div();
+        exportDiv.add(new H2("Export " + format.name().toLowerCase() + " :"));
+        exportDiv.add(new Paragraph(description));
+        exportDiv.add(link);
+        contentDiv.add(exportDiv);
+        link.getElement().executeJs("this.click()");
+        FeedbackUtils.showSuccess("Export lancé : " + fileName);
+    }
+
+    // Écrit l'export dans la réponse HTTP, au fil de la lecture des posts
+    private static StreamResourceWriter stream(ExportFormat format, String fileName, Source source) {
+        return (out, session) -> {
+            long start = System.nanoTime();
+            try (PostWriter writer = format.open(out)) {
+                long count = source.writeTo(writer);
+                logger.info("Export " + fileName + " : " + count + " post(s) en "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Téléchargement interrompu par le navigateur
+            }
+        };
+    }
+
+    private static void write(PostWriter writer, SocialMediaPost post) {
+        try {
+            writer.write(post);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package antix.views.main.commands;
 
 import antix.model.SocialMediaPost;
+import antix.service.FavoriteService;
 import antix.utils.FeedbackUtils;
 
 import com.vaadin.flow.component.grid.Grid;
@@ -8,20 +9,24 @@ import com.vaadin.flow.component.grid.Grid;
 import java.util.List;
 
 /**
- * Commande permettant d'ajouter un post aux favoris locaux.
- * Le post sélectionné est ajouté s’il n’est pas déjà présent.
+ * Commande permettant d'ajouter un post aux favoris de l'utilisateur.
+ * Le post sélectionné est ajouté s’il n’est pas déjà présent ; le test se fait
+ * sur l'ensemble en mémoire des clés plateforme:id, en O(1), et l'écriture en
+ * base est différée (voir {@link FavoriteService}).
  */
 public class FavCommand extends Command {
     private final Grid<SocialMediaPost> grid;
-    private final List<SocialMediaPost> favoris;
+    private final FavoriteService favorites;
+    private final String owner;
 
     /**
      * Constructeur de la commande Fav.
      *
-     * @param grid    Grille contenant les posts.
-     * @param favoris Liste des posts favoris (locale).
+     * @param grid      Grille contenant les posts.
+     * @param favorites Favoris persistés.
+     * @param owner     Identifiant de l'utilisateur.
      */
-    public FavCommand(Grid<SocialMediaPost> grid, List<SocialMediaPost> favoris) {
+    public FavCommand(Grid<SocialMediaPost> grid, FavoriteService favorites, String owner) {
         super(
             List.of("f", "fav"),
             "Favoris",
@@ -32,7 +37,8 @@ public class FavCommand extends Command {
             """
         );
         this.grid = grid;
-        this.favoris = favoris;
+        this.favorites = favorites;
+        this.owner = owner;
     }
 
     /**
@@ -50,13 +56,9 @@ public class FavCommand extends Command {
             return;
         }
 
-        boolean alreadyFavorited = favoris.stream()
-                .anyMatch(post -> post.getId().equals(selectedPost.getId()));
-
-        if (alreadyFavorited) {
+        if (!favorites.add(owner, selectedPost)) {
             FeedbackUtils.showMessage("Ce post est déjà dans les favoris.");
         } else {
-            favoris.add(selectedPost);
             FeedbackUtils.showSuccess("Post ajouté aux favoris !");
         }
     }
@@ -0,0 +1,110 @@
+package antix.views.main.commands;
+
+import antix.model.FavoritePost;
+import antix.service.FavoriteService;
+import antix.utils.FeedbackUtils;
+
+import com.vaadin.flow.component.Text;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Paragraph;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Commande affichant les favoris de l'utilisateur, page par page, lus en base.
+ * Usage :
+ * - favs : première page
+ * - favs <n> : page n
+ */
+public class FavsCommand extends AsyncCommand {
+    public static final int PAGE_SIZE = 10;
+
+    private final FavoriteService favorites;
+    private final String owner;
+    private final Div contentDiv;
+
+    /**
+     * Constructeur.
+     *
+     * @param favorites  Favoris persistés.
+     * @param owner      Identifiant de l'utilisateur.
+     * @param contentDiv Zone où afficher les favoris.
+     */
+    public FavsCommand(FavoriteService favorites, String owner, Div contentDiv) {
+        super(
+            List.of("favs"),
+            "Liste des favoris",
+            """
+            ⭐ favs <page?>
+
+            💡 Affiche vos favoris, du plus récent au plus ancien, par pages de 10
+            Ex : favs 2
+            """
+        );
+        this.favorites = favorites;
+        this.owner = owner;
+        this.contentDiv = contentDiv;
+    }
+
+    /**
+     * Lit la page demandée (hors thread UI) et renvoie son affichage.
+     *
+     * @param input   Entrée utilisateur.
+     * @param context Contexte d'exécution.
+     */
+    @Override
+    public Runnable prepare(String input, CommandContext context) {
+        String[] parts = input.trim().split("\\s+");
+        int pageNumber = 1;
+        if (parts.length > 1) {
+            try {
+                pageNumber = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                return () -> FeedbackUtils.showError("Numéro de page invalide : \"" + parts[1] + "\"");
+            }
+            if (pageNumber < 1) {
+                return () -> FeedbackUtils.showError("Le numéro de page doit être supérieur ou égal à 1.");
+            }
+        }
+
+        Page<FavoritePost> page = favorites.page(owner, pageNumber - 1, PAGE_SIZE);
+        if (page.getTotalElements() == 0) {
+            return () -> FeedbackUtils.showMessage("Aucun favori pour le moment (commande fav).");
+        }
+        if (page.getContent().isEmpty()) {
+            int last = page.getTotalPages();
+            return () -> FeedbackUtils.showError("Page inexistante : il y a " + last + " page(s) de favoris.");
+        }
+        int shown = pageNumber;
+        return () -> show(page, shown);
+    }
+
+    private void show(Page<FavoritePost> page, int pageNumber) {
+        contentDiv.removeAll();
+        Div favsDiv = new Div();
+        favsDiv.getStyle().set("white-space", "pre-wrap");
+        favsDiv.add(new H2("Favoris (page " + pageNumber + " / " + page.getTotalPages()
+                + ", " + page.getTotalElements() + " au total) :"));
+
+        int rank = (pageNumber - 1) * PAGE_SIZE;
+        for (FavoritePost favorite : page.getContent()) {
+            Paragraph line = new Paragraph((++rank) + ". [" + favorite.getPlatform() + "] "
+                    + (favorite.getAuthor() != null ? favorite.getAuthor() : "") + "\n"
+                    + (favorite.getPreview() != null ? favorite.getPreview() : ""));
+            if (favorite.getUrl() != null && !favorite.getUrl().isBlank()) {
+                Anchor link = new Anchor(favorite.getUrl(), "🔗 ouvrir");
+                link.setTarget("_blank");
+                line.add(new Text("\n"), link);
+            }
+            favsDiv.add(line);
+        }
+        if (page.hasNext()) {
+            favsDiv.add(new Paragraph("Page suivante : favs " + (pageNumber + 1)));
+        }
+        contentDiv.add(favsDiv);
+    }
+}
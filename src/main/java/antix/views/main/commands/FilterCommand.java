@@ -1,134 +1,105 @@
 package antix.views.main.commands;
 
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
+import antix.query.CompiledQuery;
+import antix.query.QueryCache;
+import antix.query.QueryMetric;
 import antix.utils.FeedbackUtils;
-import antix.utils.GridUtils;
 import antix.views.main.PostSelector;
 
-import com.vaadin.flow.component.grid.Grid;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.IntPredicate;
 
 /**
- * Commande filtrant les posts ayant plus de n réponses.
- * Exemple : \"replies > 10\" ou \"r > 5\"
+ * Commande filtrant les posts affichés selon une requête.
+ * Exemple : \"filter replies > 10\" ou \"filter likes:>5 && platform:reddit\"
+ * <p>
+ * Le filtre est évalué sur les colonnes de métriques du {@link PostIndex}.
  */
 public class FilterCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
+    private final PostResultSet results;
     private final PostSelector selector;
+    private final PostIndex index;
 
     /**
      * Constructeur.
      *
-     * @param grid     Grille contenant les posts.
+     * @param results  Posts affichés dans la grille.
      * @param selector Interface de sélection du post à afficher.
+     * @param index    Index des posts chargés dans la session.
      */
-    public FilterCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public FilterCommand(PostResultSet results, PostSelector selector, PostIndex index) {
         super(
                 List.of("filter"),
                 "Filter",
                 """
-                        💬 filter <attribut> > / < <n>
+                        💬 filter <attribut> > / < <n>  ou  filter <requête>
 
-                        💡 Filtrer les posts ayant plus ou moins n attributs
-                        Exemple : filter replies > 10 ou filter likes > 5.
+                        💡 Filtrer les posts affichés
+                        Exemple : filter replies > 10 ou filter likes:>5 && !platform:reddit
                         """);
-        this.grid = grid;
+        this.results = results;
         this.selector = selector;
+        this.index = index;
     }
 
     /**
-     * Exécution de la commande : filtre les posts selon la syntaxe \"replies > n\".
+     * Exécution de la commande : filtre les posts affichés avec la requête saisie.
      *
      * @param input Entrée utilisateur.
      */
     @Override
     public void execute(String input) {
-        if (!checkValidCommand(input)) {
+        String query = toQuery(input);
+        if (query.isEmpty()) {
             FeedbackUtils.showError("Format invalide.");
             return;
         }
-        String[] parts = input.split(" ");
-        String attribute = parts[1];
-        String operator = parts[2];
-        int value = Integer.parseInt(parts[3]);
 
-        List<SocialMediaPost> posts = GridUtils.fetchAll(grid);
-        List<SocialMediaPost> filtered = new ArrayList<>();
+        CompiledQuery compiled;
+        try {
+            compiled = QueryCache.compile(query);
+        } catch (IllegalArgumentException e) {
+            FeedbackUtils.showError("Format invalide : " + e.getMessage());
+            return;
+        }
 
-        // Filtrer en fonction de l'attribut spécifié
-        switch (attribute) {
-            case "replies":
-                filtered = posts.stream()
-                        .filter(post -> compare(post.getRepliesCount(), operator, value))
-                        .collect(Collectors.toList());
-                break;
-            case "reposts":
-                filtered = posts.stream()
-                        .filter(post -> compare(post.getShareCount(), operator, value))
-                        .collect(Collectors.toList());
-                break;
-            case "likes":
-                filtered = posts.stream()
-                        .filter(post -> compare(post.getLikeCount(), operator, value))
-                        .collect(Collectors.toList());
-                break;
-            default:
-                break;
+        int[] ordinals = index.ordinalsOf(results);
+        IntPredicate predicate = compiled.bind(index);
+        int kept = 0;
+        for (int ordinal : ordinals) {
+            if (predicate.test(ordinal)) {
+                ordinals[kept++] = ordinal;
+            }
         }
+        List<SocialMediaPost> filtered = index.resolve(ordinals, kept);
 
-        grid.setItems(filtered);
+        results.setItems(filtered);
 
         if (!filtered.isEmpty()) {
             selector.selectAndDisplay(filtered.get(0));
-            FeedbackUtils.showSuccess(filtered.size() + " post(s) trouvés avec " + operator + " " + value + " "
-                    + attribute + ".");
+            FeedbackUtils.showSuccess(filtered.size() + " post(s) trouvés avec " + query + ".");
         } else {
-            FeedbackUtils
-                    .showMessage("Aucun post trouvé avec " + operator + " " + value + " " + attribute + ".");
-
+            FeedbackUtils.showMessage("Aucun post trouvé avec " + query + ".");
         }
     }
 
-    private static boolean checkValidCommand(String input) {
-        String[] parts = input.split(" ");
-        if (parts.length != 4) {
-            return false;
-        }
-
-        String attribute = parts[1];
-        String operator = parts[2];
-        String valueStr = parts[3];
-
-        // Liste des attributs valides
-        List<String> validAttributes = Arrays.asList("reposts", "likes", "replies");
-        // Liste des opérateurs valides
-        List<String> validOperators = Arrays.asList(">", "<");
-
-        if (!validAttributes.contains(attribute)) {
-            return false;
-        }
-        if (!validOperators.contains(operator)) {
-            return false;
-        }
-        try {
-            Integer.parseInt(valueStr);
-        } catch (NumberFormatException e) {
-            return false;
-        }
-
-        return true;
-    }
-
-    private boolean compare(int postValue, String operator, int value) {
-        if (">".equals(operator)) {
-            return postValue > value;
-        } else if ("<".equals(operator)) {
-            return postValue < value;
+    /**
+     * Convertit l'ancienne syntaxe \"filter likes > 5\" en requête \"likes:>5\" ;
+     * toute autre saisie est utilisée telle quelle comme requête.
+     *
+     * @param input Entrée utilisateur.
+     * @return Texte de la requête (vide si absent).
+     */
+    private static String toQuery(String input) {
+        String[] parts = input.trim().split("\\s+");
+        if (parts.length == 4 && QueryMetric.fromName(parts[1]) != null
+                && (">".equals(parts[2]) || "<".equals(parts[2]))) {
+            return parts[1] + ":" + parts[2] + parts[3];
         }
-        return false;
+        return input.trim().replaceFirst("^\\S+\\s*", "");
     }
 }
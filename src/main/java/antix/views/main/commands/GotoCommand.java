@@ -1,5 +1,6 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.utils.FeedbackUtils;
 import antix.views.main.PostSelector;
@@ -11,7 +12,7 @@ public class GotoCommand extends NavigationCommand {
 
     private int targetIndex = -1;
 
-    public GotoCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public GotoCommand(Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(
             List.of("g", "goto"),
             "Goto",
@@ -21,6 +22,7 @@ public class GotoCommand extends NavigationCommand {
             💡 Va directement au post numéro n
             """,
             grid,
+            results,
             selector
         );
     }
@@ -1,187 +1,178 @@
 package antix.views.main.commands;
 
+import antix.index.OrdinalSort;
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
+import antix.query.CompiledQuery;
+import antix.query.QueryCache;
+import antix.service.SeenPostService;
 import antix.utils.FeedbackUtils;
+import antix.utils.PerfMetrics;
 import antix.views.main.PostSelector;
+import antix.views.main.TagFetcher;
 
-import com.vaadin.flow.component.grid.Grid;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Commande de recherche avancée via hashtags, avec opérateurs logiques
- * (AND, OR, NOT) et filtres numériques (likes, reposts).
+ * (AND, OR, NOT), parenthèses et prédicats (likes, reposts, replies, date,
+ * plateforme, contenu).
  * <p>
  * Exemples :
  * - h sport && musique
  * - h actus !politique likes:>5 reposts:<3
- * - h dev || ai && code !blabla
+ * - h (dev || ai) && code !blabla platform:mastodon
+ * <p>
+ * La requête est analysée une seule fois puis compilée (voir
+ * {@link QueryCache}) ; elle s'évalue sur le {@link PostIndex} de la session :
+ * chaque tag est un bitmap d'ordinaux et les opérateurs deviennent des
+ * and / or / andNot sur ces bitmaps.
+ * <p>
+ * Les appels réseau se font hors du thread UI ({@link AsyncCommand}) ; chaque
+ * plateforme qui répond est indexée et affichée sans attendre les autres.
+ * <p>
+ * Les posts affichés sont marqués comme vus ({@link SeenPostService}) : le
+ * message de fin indique combien sont nouveaux, et {@code h <requête> new}
+ * écarte les posts déjà vus avant qu'ils n'arrivent dans la grille.
  */
-public class HashtagCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
-    private final Function<String, List<SocialMediaPost>> tagFetcher;
+public class HashtagCommand extends AsyncCommand {
+    private static final OrdinalSort.SortKey NEWEST_FIRST = new OrdinalSort.SortKey(null, false);
+
+    private final PostResultSet results;
+    private final TagFetcher tagFetcher;
     private final PostSelector selector;
+    private final PostIndex index;
+    private final SeenPostService seenPosts;
+    private final String owner;
 
     /**
      * Constructeur.
      *
-     * @param grid       Grille contenant les posts.
-     * @param tagFetcher Fonction de récupération des posts par tag.
+     * @param results    Posts affichés dans la grille.
+     * @param tagFetcher Récupération des posts par tag, plateforme par plateforme.
      * @param selector   Sélecteur pour afficher un post.
+     * @param index      Index des posts chargés dans la session.
+     * @param seenPosts  Posts déjà vus par l'utilisateur.
+     * @param owner      Identifiant de l'utilisateur.
      */
-    public HashtagCommand(Grid<SocialMediaPost> grid,
-            Function<String, List<SocialMediaPost>> tagFetcher,
-            PostSelector selector) {
+    public HashtagCommand(PostResultSet results,
+            TagFetcher tagFetcher,
+            PostSelector selector,
+            PostIndex index,
+            SeenPostService seenPosts,
+            String owner) {
             super(
                 List.of("h", "hashtag"),
                 "Hashtag",
                 """
-                #️⃣ h / hashtag <tag(s)>
-            
+                #️⃣ h / hashtag <requête>
+
                 💡 Recherche avancée avec opérateurs :
-                    • && (et), || (ou), ! (exclure)
-                    • likes:>x, reposts:<y, etc.
-                Ex : h squeezie && react || video !politique likes:>5
+                    • && (et), || (ou), ! (exclure), ( ) pour grouper
+                    • likes:>x, reposts:<y, replies:>=z
+                    • date:>2024-05-01, platform:reddit, c:mot ou "phrase"
+                    • new à la fin : seulement les posts jamais vus
+                Ex : h (squeezie && react) || video !politique likes:>5
+                Ex : h java new
                 """
-            );   
-        this.grid = grid;
+            );
+        this.results = results;
         this.tagFetcher = tagFetcher;
         this.selector = selector;
+        this.index = index;
+        this.seenPosts = seenPosts;
+        this.owner = owner;
     }
 
     /**
-     * Exécute la commande de recherche avec opérateurs logiques et filtres.
+     * Récupère les posts des tags de la requête (hors thread UI) et met à jour
+     * la grille à chaque lot reçu, puis renvoie le message de fin.
      *
-     * @param input Entrée utilisateur après le mot-clé 'h' ou 'hashtag'.
+     * @param input   Entrée utilisateur après le mot-clé 'h' ou 'hashtag'.
+     * @param context Contexte d'exécution.
      */
     @Override
-    public void execute(String input) {
+    public Runnable prepare(String input, CommandContext context) throws Exception {
         if (!input.contains(" ")) {
-            FeedbackUtils.showError("Veuillez spécifier un ou plusieurs hashtags après la commande.");
-            return;
+            return () -> FeedbackUtils.showError("Veuillez spécifier un ou plusieurs hashtags après la commande.");
         }
 
         String query = input.trim().substring(input.indexOf(" ") + 1).trim();
         if (StringUtils.isBlank(query)) {
-            FeedbackUtils.showError("La requête est vide.");
-            return;
-        }
-
-        Set<String> andTags = new HashSet<>();
-        Set<String> orTags = new HashSet<>();
-        Set<String> notTags = new HashSet<>();
-        List<String> filters = new ArrayList<>();
-
-        String[] parts = query.split("\\s+|(?<=&&)|(?=&&)|(?<=\\|\\|)|(?=\\|\\|)|(?<=\\|)|(?=\\|)");
-        String mode = "AND";
-
-        for (String part : parts) {
-            String p = part.trim();
-            if (p.isEmpty())
-                continue;
-
-            if (p.startsWith("likes:") || p.startsWith("reposts:")) {
-                filters.add(p);
-                continue;
-            }
-
-            switch (p) {
-                case "&&", "et" -> mode = "AND";
-                case "||", "|", "ou", "v" -> mode = "OR";
-                default -> {
-                    if (p.startsWith("!"))
-                        notTags.add(p.substring(1).toLowerCase());
-                    else if ("AND".equals(mode))
-                        andTags.add(p.toLowerCase());
-                    else
-                        orTags.add(p.toLowerCase());
-                }
-            }
-        }
-
-        Set<SocialMediaPost> result = new HashSet<>();
-
-        if (!andTags.isEmpty()) {
-            List<SocialMediaPost> baseList = tagFetcher.apply(andTags.iterator().next());
-            result = baseList.stream()
-                    .filter(post -> {
-                        Set<String> lowerTags = post.getTags().stream()
-                                .map(t -> t.getName().toLowerCase())
-                                .collect(Collectors.toSet());
-                        return andTags.stream().allMatch(lowerTags::contains);
-                    })
-                    .collect(Collectors.toSet());
+            return () -> FeedbackUtils.showError("La requête est vide.");
         }
-
-        if (!orTags.isEmpty()) {
-            Set<SocialMediaPost> orResults = new HashSet<>();
-            for (String tag : orTags) {
-                orResults.addAll(tagFetcher.apply(tag));
-            }
-            if (result.isEmpty())
-                result = orResults;
-            else
-                result.addAll(orResults);
+        // « h new » seul reste une recherche du tag new
+        boolean onlyNew = query.matches("(?is).*\\S\\s+new");
+        if (onlyNew) {
+            query = query.replaceFirst("(?i)\\s+new$", "");
         }
+        String shownQuery = query;
+        seenPosts.preload(owner);
 
-        if (andTags.isEmpty() && orTags.isEmpty()) {
-            result = new HashSet<>(tagFetcher.apply(query));
+        CompiledQuery compiled;
+        try {
+            compiled = QueryCache.compile(query);
+        } catch (IllegalArgumentException e) {
+            return () -> FeedbackUtils.showError("Requête invalide : " + e.getMessage());
         }
 
-        if (!notTags.isEmpty()) {
-            result = result.stream()
-                    .filter(post -> post.getTags().stream()
-                            .noneMatch(t -> notTags.contains(t.getName().toLowerCase())))
-                    .collect(Collectors.toSet());
+        // Les posts de l'index qui correspondent déjà s'affichent tout de suite,
+        // puis chaque lot reçu d'une plateforme est indexé et la requête réévaluée
+        long start = System.nanoTime();
+        AtomicBoolean shown = new AtomicBoolean(false);
+        context.apply(() -> refresh(compiled, shown, start, onlyNew));
+        for (String tag : compiled.getFetchTags()) {
+            context.checkCancelled();
+            tagFetcher.fetch(tag, batch -> context.apply(() -> {
+                index.addAll(tag, batch);
+                refresh(compiled, shown, start, onlyNew);
+            }));
         }
 
-        for (String filter : filters) {
-            if (filter.startsWith("likes:")) {
-                result = applyNumericFilter(result, filter.substring(6), SocialMediaPost::getLikeCount);
-            } else if (filter.startsWith("reposts:")) {
-                result = applyNumericFilter(result, filter.substring(8), SocialMediaPost::getShareCount);
+        return () -> {
+            if (!shown.get()) {
+                FeedbackUtils.showMessage((onlyNew ? "Aucun nouveau post pour : \"" : "Aucun post trouvé pour : \"")
+                        + shownQuery + "\"");
+                return;
             }
-        }
-
-        List<SocialMediaPost> finalList = result.stream()
-                .sorted(Comparator.comparing(SocialMediaPost::getId).reversed())
-                .collect(Collectors.toList());
-
-        if (finalList.isEmpty()) {
-            FeedbackUtils.showMessage("Aucun post trouvé pour : \"" + query + "\"");
-        } else {
-            grid.setItems(finalList);
-            selector.selectAndDisplay(finalList.get(0));
-            FeedbackUtils.showSuccess(finalList.size() + " post(s) trouvés pour : " + query);
-        }
+            int fresh = seenPosts.markSeen(owner, results);
+            if (onlyNew) {
+                FeedbackUtils.showSuccess(fresh + " nouveau(x) post(s) pour : " + shownQuery);
+            } else {
+                FeedbackUtils.showSuccess(results.size() + " post(s) trouvés pour : " + shownQuery
+                        + " (" + fresh + " nouveau(x))");
+            }
+        };
     }
 
     /**
-     * Applique un filtre numérique sur un ensemble de posts.
-     *
-     * @param posts     Ensemble de posts à filtrer.
-     * @param condition Condition au format texte, ex: >5
-     * @param extractor Fonction d'extraction du champ numérique.
-     * @return Sous-ensemble filtré.
+     * Réévalue la requête sur l'index et met à jour le résultat, du plus récent
+     * au plus ancien. La sélection et le défilement de la grille sont conservés ;
+     * le premier post n'est sélectionné qu'au premier affichage. En mode
+     * nouveaux seulement, les posts déjà vus sont écartés.
      */
-    private Set<SocialMediaPost> applyNumericFilter(Set<SocialMediaPost> posts, String condition,
-            Function<SocialMediaPost, Integer> extractor) {
-        char operator = condition.charAt(0);
-        int value;
-        try {
-            value = Integer.parseInt(condition.substring(1));
-        } catch (NumberFormatException e) {
-            return posts;
+    private void refresh(CompiledQuery compiled, AtomicBoolean shown, long start, boolean onlyNew) {
+        int[] ordinals = compiled.execute(index).toArray();
+        if (ordinals.length == 0) {
+            return;
         }
+        OrdinalSort.sort(ordinals, NEWEST_FIRST.comparator(index.columns()));
+        List<SocialMediaPost> finalList = index.resolve(ordinals, ordinals.length);
+        if (onlyNew) {
+            finalList = seenPosts.unseen(owner, finalList);
+            if (finalList.isEmpty()) {
+                return;
+            }
+        }
+        results.setItems(finalList);
 
-        return switch (operator) {
-            case '>' -> posts.stream().filter(p -> extractor.apply(p) > value).collect(Collectors.toSet());
-            case '<' -> posts.stream().filter(p -> extractor.apply(p) < value).collect(Collectors.toSet());
-            case '=' -> posts.stream().filter(p -> extractor.apply(p) == value).collect(Collectors.toSet());
-            default -> posts;
-        };
+        if (shown.compareAndSet(false, true)) {
+            PerfMetrics.recordSince(PerfMetrics.TIME_TO_FIRST_POST, start);
+            selector.selectAndDisplay(finalList.get(0));
+        }
     }
 }
@@ -1,6 +1,8 @@
 package antix.views.main.commands;
 
+import antix.index.PrefixTrie;
 import antix.model.SocialMediaPost;
+import antix.views.main.CommandHistory;
 import antix.views.main.PostSelector;
 
 import com.vaadin.flow.component.html.Div;
@@ -15,17 +17,18 @@ import java.util.stream.Collectors;
  * Commande pour afficher ou rechercher dans l’historique des commandes.
  * Usage :
  * - hist : affiche tout l'historique
- * - hist <mot-clé> : filtre l’historique contenant le mot-clé
+ * - hist <mot-clé> : commandes commençant par le mot-clé (arbre de préfixes de
+ *   l'historique), à défaut celles qui le contiennent
  */
 public class HistoryCommand extends Command {
     private final Grid<SocialMediaPost> grid;
     private final PostSelector selector;
-    private final List<String> history;
+    private final CommandHistory history;
     private final Div contentDiv;
 
     public HistoryCommand(Grid<SocialMediaPost> grid,
                           PostSelector selector,
-                          List<String> history,
+                          CommandHistory history,
                           Div contentDiv) {
         super(
             List.of("hist", "histo"),
@@ -35,7 +38,8 @@ public class HistoryCommand extends Command {
     
             💡 Affiche l’historique des commandes saisies :
                 • 📜 hist : affiche l’historique complet des commandes
-                • 🔍 hist <mot-clé> : recherche dans l’historique les commandes contenant le mot-clé spécifié
+                • 🔍 hist <mot-clé> : recherche dans l’historique les commandes commençant par (ou contenant) le mot-clé spécifié
+                • ⇥ Tab dans le prompt : complète la commande ou le tag en cours de saisie
             """
         );
         this.grid = grid;
@@ -48,7 +52,8 @@ public class HistoryCommand extends Command {
     public void execute(String input) {
         contentDiv.removeAll();
 
-        String keyword = input.trim().replaceFirst("^\\S+\\s*", "").toLowerCase();
+        String typed = input.trim().replaceFirst("^\\S+\\s*", "");
+        String keyword = typed.toLowerCase();
         List<String> filtered;
 
         if (keyword.isEmpty()) {
@@ -56,9 +61,13 @@ public class HistoryCommand extends Command {
             int startIndex = Math.max(0, history.size() - 20);
             filtered = new ArrayList<>(history.subList(startIndex, history.size()));
         } else {
-            filtered = history.stream()
-                    .filter(cmd -> cmd.toLowerCase().contains(keyword))
-                    .collect(Collectors.toList());
+            // Commandes commençant par le mot-clé (arbre de préfixes), à défaut celles qui le contiennent
+            filtered = history.complete(typed, PrefixTrie.MAX_SUGGESTIONS);
+            if (filtered.isEmpty()) {
+                filtered = history.stream()
+                        .filter(cmd -> cmd.toLowerCase().contains(keyword))
+                        .collect(Collectors.toList());
+            }
         }
 
         Div historyDiv = new Div();
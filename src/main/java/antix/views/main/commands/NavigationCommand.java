@@ -1,8 +1,8 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.utils.FeedbackUtils;
-import antix.utils.GridUtils;
 import antix.views.main.PostSelector;
 
 import com.vaadin.flow.component.grid.Grid;
@@ -11,12 +11,14 @@ import java.util.List;
 
 public abstract class NavigationCommand extends Command {
     protected final Grid<SocialMediaPost> grid;
+    protected final PostResultSet results;
     protected final PostSelector selector;
 
-    // Constructeur pour initialiser le titre, la description, la grid et le selector
-    public NavigationCommand(List<String> aliases, String title, String description, Grid<SocialMediaPost> grid, PostSelector selector) {
+    // Constructeur pour initialiser le titre, la description, la grid, les résultats et le selector
+    public NavigationCommand(List<String> aliases, String title, String description, Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(aliases, title, description); // Appelle le constructeur de Command
         this.grid = grid;
+        this.results = results;
         this.selector = selector;
     }
 
@@ -25,7 +27,7 @@ public abstract class NavigationCommand extends Command {
 
     @Override
     public void execute(String input) {
-        List<SocialMediaPost> items = GridUtils.fetchAll(grid);
+        List<SocialMediaPost> items = results; // indexOf en O(1)
         if (items.isEmpty()) {
             FeedbackUtils.showError("Aucun post disponible.");
             return;
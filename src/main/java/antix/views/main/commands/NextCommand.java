@@ -1,5 +1,6 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.views.main.PostSelector;
 
@@ -17,9 +18,10 @@ public class NextCommand extends NavigationCommand {
      * Constructeur de la commande Next.
      *
      * @param grid     Grille affichant les posts.
+     * @param results  Posts affichés dans la grille.
      * @param selector Sélecteur de post pour affichage.
      */
-    public NextCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public NextCommand(Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(
             List.of("n", "next"),
             "Next",
@@ -29,6 +31,7 @@ public class NextCommand extends NavigationCommand {
             💡 Sélectionner le post suivant
             """,
             grid,
+            results,
             selector
         );
     }
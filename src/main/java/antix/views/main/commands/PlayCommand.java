@@ -1,31 +1,47 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
-import antix.utils.GridUtils;
+import antix.utils.AsyncUtils;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.shared.Registration;
 
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Commande qui permet de faire défiler automatiquement les posts à intervalle
  * régulier.
  * Ex : play 5 → défilement toutes les 5 secondes.
+ * <p>
+ * Toutes les sessions partagent le planificateur de {@link AsyncUtils} (un seul
+ * thread, quel que soit le nombre de lectures en cours). La lecture s'arrête
+ * d'elle-même quand l'interface est fermée.
  */
 public class PlayCommand extends Command {
 
-    private Timer timer;
+    private static final Set<PlayCommand> ACTIVE = ConcurrentHashMap.newKeySet();
+
     private final Grid<SocialMediaPost> grid;
+    private final PostResultSet results;
+
+    private ScheduledFuture<?> ticker;
+    private Registration detachRegistration;
+    private long seenVersion; // Version du résultat pour laquelle position est valable
+    private int position;
 
     /**
      * Constructeur de la commande Play.
      *
-     * @param grid Grille contenant les posts.
+     * @param grid    Grille contenant les posts.
+     * @param results Posts affichés dans la grille.
      */
-    public PlayCommand(Grid<SocialMediaPost> grid) {
+    public PlayCommand(Grid<SocialMediaPost> grid, PostResultSet results) {
         super(
             List.of("play"),
             "Play",
@@ -36,6 +52,14 @@ public class PlayCommand extends Command {
             """
         );
         this.grid = grid;
+        this.results = results;
+    }
+
+    /**
+     * Nombre de lectures automatiques en cours dans l'application.
+     */
+    public static int activePlayers() {
+        return ACTIVE.size();
     }
 
     /**
@@ -54,43 +78,66 @@ public class PlayCommand extends Command {
         } catch (NumberFormatException ignored) {
             // Si invalide, garde 3 secondes par défaut
         }
+        if (seconds <= 0) {
+            seconds = 3;
+        }
 
         UI ui = UI.getCurrent();
         if (ui == null)
             return;
 
-        List<SocialMediaPost> items = GridUtils.fetchAll(grid);
-        if (items.isEmpty())
+        if (results.isEmpty())
             return;
 
         SocialMediaPost current = grid.asSingleSelect().getValue();
-        int startIndex = (current != null) ? items.indexOf(current) : 0;
-        AtomicInteger index = new AtomicInteger(startIndex);
-
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                ui.access(() -> {
-                    List<SocialMediaPost> currentItems = GridUtils.fetchAll(grid); // re-fetch à chaque tick
-                    if (currentItems.isEmpty())
-                        return;
-
-                    int i = index.getAndUpdate(val -> (val + 1) % currentItems.size());
-                    SocialMediaPost post = currentItems.get(i);
-                    grid.select(post);
-                });
-            }
-        }, 0, seconds * 1000L);
+        position = (current != null) ? Math.max(results.indexOf(current), 0) : 0;
+        seenVersion = results.version();
+
+        synchronized (this) {
+            detachRegistration = ui.addDetachListener(event -> stop());
+            ticker = AsyncUtils.scheduler().scheduleAtFixedRate(() -> {
+                try {
+                    ui.access(this::tick);
+                } catch (UIDetachedException e) {
+                    stop();
+                }
+            }, 0, seconds, TimeUnit.SECONDS);
+            ACTIVE.add(this);
+        }
+    }
+
+    // Exécuté avec le verrou de session : sélectionne le post courant puis avance
+    private void tick() {
+        if (results.isEmpty())
+            return;
+
+        if (results.version() != seenVersion) {
+            // Le résultat a changé (tri, filtre...) : on repart du post sélectionné
+            seenVersion = results.version();
+            SocialMediaPost selected = grid.asSingleSelect().getValue();
+            int selectedPosition = (selected != null) ? results.indexOf(selected) : -1;
+            position = (selectedPosition >= 0) ? (selectedPosition + 1) % results.size() : 0;
+        }
+        if (position >= results.size()) {
+            position = 0;
+        }
+
+        grid.select(results.get(position));
+        position = (position + 1) % results.size();
     }
 
     /**
      * Stoppe la lecture automatique si elle est en cours.
      */
     public synchronized void stop() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+        if (detachRegistration != null) {
+            detachRegistration.remove();
+            detachRegistration = null;
         }
+        ACTIVE.remove(this);
     }
 }
@@ -1,5 +1,6 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.views.main.PostSelector;
 
@@ -17,9 +18,10 @@ public class PreviousCommand extends NavigationCommand {
      * Constructeur de la commande Previous.
      *
      * @param grid     Grille contenant les posts.
+     * @param results  Posts affichés dans la grille.
      * @param selector Sélecteur de post pour affichage.
      */
-    public PreviousCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public PreviousCommand(Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(
             List.of("p", "previous"),
             "Previous",
@@ -29,6 +31,7 @@ public class PreviousCommand extends NavigationCommand {
             💡 Sélectionner le post précédent
             """,
             grid,
+            results,
             selector
         );
     }
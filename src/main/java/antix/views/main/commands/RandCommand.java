@@ -1,5 +1,6 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.views.main.PostSelector;
 
@@ -19,9 +20,10 @@ public class RandCommand extends NavigationCommand {
      * Constructeur de la commande Rand.
      *
      * @param grid     Grille affichant les posts.
+     * @param results  Posts affichés dans la grille.
      * @param selector Permet d'afficher le post sélectionné.
      */
-    public RandCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public RandCommand(Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(
             List.of("rand", "random"),
             "Rand",
@@ -31,6 +33,7 @@ public class RandCommand extends NavigationCommand {
             💡 Sélectionner un post au hasard parmi ceux affichés.
             """,
             grid,
+            results,
             selector
         );
 
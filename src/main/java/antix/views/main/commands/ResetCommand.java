@@ -1,31 +1,48 @@
 package antix.views.main.commands;
 
-import antix.model.SocialMediaPost;
+import antix.index.PostIndex;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.utils.FeedbackUtils;
+import antix.utils.PerfMetrics;
 import antix.views.main.PostSelector;
+import antix.views.main.TagFetcher;
 
-import com.vaadin.flow.component.grid.Grid;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Commande permettant de réinitialiser l'affichage avec les derniers posts.
  * Elle recharge les données depuis un tag par défaut (ex. \"info\").
+ * L'appel réseau se fait hors du thread UI ({@link AsyncCommand}) ; les posts
+ * de chaque plateforme sont insérés à leur place chronologique dès réception.
  */
-public class ResetCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
-    private final Supplier<List<SocialMediaPost>> fetcher;
+public class ResetCommand extends AsyncCommand {
+    private static final Comparator<SocialMediaPost> NEWEST_FIRST =
+            Comparator.comparingLong(SocialMediaPost::getCreatedUtc).reversed();
+
+    private final PostResultSet results;
+    private final TagFetcher tagFetcher;
+    private final String defaultTag;
     private final PostSelector selector;
+    private final PostIndex index;
 
     /**
      * Constructeur de la commande Reset.
      *
-     * @param grid2       Grille des posts.
-     * @param resetFetcher    Fonction permettant de récupérer les posts (via API).
-     * @param selector   Sélecteur/afficheur de post.
+     * @param results         Posts affichés dans la grille.
+     * @param tagFetcher      Récupération des posts d'un tag (via API), plateforme par plateforme.
+     * @param defaultTag      Tag rechargé par la commande.
+     * @param selector        Sélecteur/afficheur de post.
+     * @param index           Index des posts chargés dans la session.
      */
-    public ResetCommand(Grid<SocialMediaPost> grid2, Supplier<List<SocialMediaPost>> resetFetcher, PostSelector selector) {
+    public ResetCommand(PostResultSet results,
+            TagFetcher tagFetcher,
+            String defaultTag,
+            PostSelector selector,
+            PostIndex index) {
         super(
             List.of("reset"),
             "Reset",
@@ -35,27 +52,52 @@ public class ResetCommand extends Command {
             💡 Réinitialise la liste avec les derniers posts du tag par défaut
             """
         );
-        this.grid = grid2;
-        this.fetcher = resetFetcher;
+        this.results = results;
+        this.tagFetcher = tagFetcher;
+        this.defaultTag = defaultTag;
         this.selector = selector;
+        this.index = index;
     }
 
     /**
      * Réinitialise la grille avec les données récupérées.
      * Affiche automatiquement le premier post si possible.
      *
-     * @param input Entrée utilisateur (ignorée ici).
+     * @param input   Entrée utilisateur (ignorée ici).
+     * @param context Contexte d'exécution.
      */
     @Override
-    public void execute(String input) {
-        List<SocialMediaPost> posts = fetcher.get();
-        grid.setItems(posts);
-
-        if (!posts.isEmpty()) {
-            selector.selectAndDisplay(posts.get(0));
-            FeedbackUtils.showSuccess("Liste réinitialisée avec " + posts.size() + " posts.");
-        } else {
-            FeedbackUtils.showMessage("Aucun post trouvé à réinitialiser.");
-        }
+    public Runnable prepare(String input, CommandContext context) throws Exception {
+        long start = System.nanoTime();
+        AtomicBoolean replaced = new AtomicBoolean(false);
+        AtomicBoolean shown = new AtomicBoolean(false);
+
+        tagFetcher.fetch(defaultTag, batch -> context.apply(() -> {
+            if (batch.isEmpty()) {
+                return;
+            }
+            index.addAll(defaultTag, batch);
+            List<SocialMediaPost> sorted = new ArrayList<>(batch);
+            sorted.sort(NEWEST_FIRST);
+            // Le premier lot non vide remplace la liste, les suivants y sont fusionnés
+            if (replaced.compareAndSet(false, true)) {
+                results.setItems(sorted);
+            } else {
+                results.merge(sorted, NEWEST_FIRST);
+            }
+            if (!results.isEmpty() && shown.compareAndSet(false, true)) {
+                PerfMetrics.recordSince(PerfMetrics.TIME_TO_FIRST_POST, start);
+                selector.selectAndDisplay(results.get(0));
+            }
+        }));
+
+        // Si aucune plateforme n'a répondu, l'ancienne liste est conservée
+        return () -> {
+            if (replaced.get()) {
+                FeedbackUtils.showSuccess("Liste réinitialisée avec " + results.size() + " posts.");
+            } else {
+                FeedbackUtils.showMessage("Aucun post trouvé à réinitialiser.");
+            }
+        };
     }
 }
@@ -1,11 +1,10 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.utils.FeedbackUtils;
-import antix.utils.GridUtils;
 import antix.views.main.PostSelector;
 
-import com.vaadin.flow.component.grid.Grid;
 
 import java.util.List;
 
@@ -14,16 +13,16 @@ import java.util.List;
  * Utile pour une recherche précise.
  */
 public class SelectByIdCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
+    private final PostResultSet results;
     private final PostSelector selector;
 
     /**
      * Constructeur de la commande SelectById.
      *
-     * @param grid       Grille contenant les posts.
+     * @param results    Posts affichés dans la grille.
      * @param selector   Interface de sélection/affichage.
      */
-    public SelectByIdCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public SelectByIdCommand(PostResultSet results, PostSelector selector) {
         super(
             List.of("select"),
             "Select",
@@ -33,7 +32,7 @@ public class SelectByIdCommand extends Command {
             💡 Sélectionner un post via son identifiant unique
             """
         );
-        this.grid = grid;
+        this.results = results;
         this.selector = selector;
     }
 
@@ -50,10 +49,7 @@ public class SelectByIdCommand extends Command {
             return;
         }
 
-        List<SocialMediaPost> items = GridUtils.fetchAll(grid);
-        boolean found = items.stream()
-                .filter(post -> String.valueOf(post.getId()).equals(id))
-                .findFirst()
+        boolean found = results.findById(id)
                 .map(post -> {
                     selector.selectAndDisplay(post);
                     FeedbackUtils.showSuccess("Post ID " + id + " sélectionné.");
@@ -1,80 +1,138 @@
 package antix.views.main.commands;
 
+import antix.index.Leaderboard;
+import antix.index.OrdinalSort;
+import antix.index.OrdinalSort.SortKey;
+import antix.index.PostIndex;
+import antix.index.TopK;
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.utils.FeedbackUtils;
-import antix.utils.GridUtils;
 import antix.views.main.PostSelector;
 
-import com.vaadin.flow.component.grid.Grid;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
- * Commande qui trie les posts par nombre de réponses décroissant.
- * Le post ayant le plus de réponses est sélectionné automatiquement.
+ * Commande qui trie les posts selon une ou plusieurs métriques.
+ * Le premier post après tri est sélectionné automatiquement.
+ * <p>
+ * Le tri porte sur les ordinaux des posts et lit les colonnes primitives
+ * du {@link PostIndex}. Avec {@code top n}, seuls les n meilleurs posts sont
+ * gardés : ils sont lus dans le {@link Leaderboard} de l'index quand toute la
+ * session est affichée, sinon sélectionnés par un tas borné ({@link TopK}).
  */
 public class SortCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
+    private final PostResultSet results;
     private final PostSelector selector;
+    private final PostIndex index;
 
     /**
      * Constructeur.
      *
-     * @param grid     Grille d'affichage.
+     * @param results  Posts affichés dans la grille.
      * @param selector Permet d'afficher le post après tri.
+     * @param index    Index des posts chargés dans la session.
      */
-    public SortCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public SortCommand(PostResultSet results, PostSelector selector, PostIndex index) {
         super(
                 List.of("sort"),
                 "Sort",
                 """
-                📊 sort <replies | reposts | likes>
+                📊 sort <replies | reposts | likes | date>[,clé2...]
 
-                💡 Trie les posts par ordre décroissant selon le critère choisi :
+                💡 Trie les posts par ordre décroissant selon le ou les critères choisis :
                     • 🗨️ replies : nombre de réponses
                     • 🔁 reposts : nombre de repartages
                     • ❤️ likes : nombre de likes
+                    • 📅 date : date de publication
+                Ajoutez :asc pour un ordre croissant. Ex : sort likes,replies:asc
+                Ajoutez top <n> pour ne garder que les n meilleurs. Ex : sort likes top 50
                 """
         );
-        this.grid = grid;
+        this.results = results;
         this.selector = selector;
+        this.index = index;
     }
 
     /**
-     * Trie les posts par nombre de réponses décroissant et sélectionne le premier.
+     * Trie les posts selon les clés saisies et sélectionne le premier.
      *
-     * @param input Non utilisé ici.
+     * @param input Entrée utilisateur, ex : "sort likes,date".
      */
     @Override
     public void execute(String input) {
 
-        String[] inputSplit = input.split(" ");
+        String[] inputSplit = input.trim().split("[,\\s]+");
         if (inputSplit.length < 2) {
             FeedbackUtils.showError("Paramètre de tri manquant");
             return;
         }
-        String param = inputSplit[1];
-        List<SocialMediaPost> items = GridUtils.fetchAll(grid);
 
-        switch (param) {
-            case "replies":
-                items.sort((a, b) -> Integer.compare(b.getRepliesCount(), a.getRepliesCount()));
-                break;
-            case "reposts":
-                items.sort((a, b) -> Integer.compare(b.getShareCount(), a.getShareCount()));
-                break;
-            case "likes":
-                items.sort((a, b) -> Integer.compare(b.getLikeCount(), a.getLikeCount()));
-                break;
-            default:
-                FeedbackUtils.showError("Paramètre de tri incorrect");
-                break;
+        int keyCount = inputSplit.length;
+        int top = -1;
+        if (keyCount > 2 && "top".equalsIgnoreCase(inputSplit[keyCount - 2])) {
+            try {
+                top = Integer.parseInt(inputSplit[keyCount - 1]);
+            } catch (NumberFormatException e) {
+                FeedbackUtils.showError("Nombre invalide après top : " + inputSplit[keyCount - 1]);
+                return;
+            }
+            if (top <= 0) {
+                FeedbackUtils.showError("Le nombre après top doit être positif : " + top);
+                return;
+            }
+            keyCount -= 2;
         }
+        if (keyCount < 2) {
+            FeedbackUtils.showError("Paramètre de tri manquant");
+            return;
+        }
+
+        List<SortKey> keys = new ArrayList<>();
+        for (int i = 1; i < keyCount; i++) {
+            SortKey key = SortKey.parse(inputSplit[i]);
+            if (key == null) {
+                FeedbackUtils.showError("Paramètre de tri incorrect : " + inputSplit[i]);
+                return;
+            }
+            keys.add(key);
+        }
+
+        int[] ordinals = index.ordinalsOf(results);
+        if (top > 0) {
+            ordinals = selectTop(ordinals, keys, top);
+        } else {
+            OrdinalSort.sort(ordinals, OrdinalSort.comparator(index.columns(), keys));
+        }
+        List<SocialMediaPost> items = index.resolve(ordinals, ordinals.length);
 
-        grid.setItems(items);
+        results.setItems(items);
 
         if (!items.isEmpty()) {
             selector.selectAndDisplay(items.get(0));
+            FeedbackUtils.showSuccess("Posts triés par " + keys.stream().map(SortKey::label)
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Sélectionne les n meilleurs ordinaux. Le classement de l'index est lu
+     * directement s'il couvre la demande (une seule clé, tous les posts de la
+     * session affichés), sinon un tas borné parcourt les posts affichés.
+     *
+     * @param ordinals Ordinaux affichés.
+     * @param keys     Clés de tri.
+     * @param top      Nombre de posts voulus.
+     * @return Les meilleurs ordinaux, triés.
+     */
+    private int[] selectTop(int[] ordinals, List<SortKey> keys, int top) {
+        Leaderboard leaderboard = keys.size() == 1 ? index.leaderboard(keys.get(0)) : null;
+        if (leaderboard != null && top <= leaderboard.capacity() && ordinals.length == index.size()) {
+            return leaderboard.top(top);
         }
+        return TopK.select(ordinals, ordinals.length, top, OrdinalSort.comparator(index.columns(), keys));
     }
 }
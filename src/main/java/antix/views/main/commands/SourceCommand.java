@@ -0,0 +1,69 @@
+package antix.views.main.commands;
+
+import antix.utils.FeedbackUtils;
+import antix.views.main.ArchiveTagFetcher;
+import antix.views.main.ArchiveTagFetcher.Source;
+
+import java.util.List;
+
+/**
+ * Commande choisissant l'origine des posts des commandes h et reset : les
+ * plateformes (live) ou l'archive locale (archive, hors ligne).
+ * Usage :
+ * - source : affiche l'origine courante
+ * - source live / source archive
+ */
+public class SourceCommand extends Command {
+    private final ArchiveTagFetcher tagFetcher;
+
+    /**
+     * Constructeur.
+     *
+     * @param tagFetcher Récupération des posts, dont on change l'origine.
+     */
+    public SourceCommand(ArchiveTagFetcher tagFetcher) {
+        super(
+            List.of("source"),
+            "Source",
+            """
+            🗄️ source <live|archive?>
+
+            💡 Choisit d'où viennent les posts des commandes h et reset :
+                • live : plateformes (un tag récupéré récemment est relu dans l'archive)
+                • archive : uniquement l'archive locale, sans appel réseau
+            """
+        );
+        this.tagFetcher = tagFetcher;
+    }
+
+    /**
+     * Affiche ou change l'origine des posts.
+     *
+     * @param input Entrée utilisateur, ex : source archive
+     */
+    @Override
+    public void execute(String input) {
+        String[] parts = input.trim().split("\\s+");
+        if (parts.length < 2) {
+            FeedbackUtils.showMessage("Source actuelle : " + label(tagFetcher.getSource())
+                    + " (" + tagFetcher.getArchive().count() + " post(s) archivés)");
+            return;
+        }
+
+        Source source;
+        switch (parts[1].toLowerCase()) {
+            case "live" -> source = Source.LIVE;
+            case "archive" -> source = Source.ARCHIVE;
+            default -> {
+                FeedbackUtils.showError("Source inconnue : \"" + parts[1] + "\" (live ou archive)");
+                return;
+            }
+        }
+        tagFetcher.setSource(source);
+        FeedbackUtils.showSuccess("Les posts viennent maintenant de : " + label(source));
+    }
+
+    private static String label(Source source) {
+        return source == Source.ARCHIVE ? "l'archive locale" : "les plateformes (live)";
+    }
+}
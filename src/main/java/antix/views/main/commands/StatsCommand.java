@@ -0,0 +1,88 @@
+package antix.views.main.commands;
+
+import antix.model.BodySlabs;
+import antix.utils.PerfMetrics;
+import antix.views.main.SessionFootprint;
+
+import com.vaadin.flow.component.html.Div;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Commande affichant les mesures de performance collectées par
+ * {@link PerfMetrics} (ex : délai avant le premier post affiché) et
+ * l'empreinte mémoire estimée de la session ({@link SessionFootprint}).
+ */
+public class StatsCommand extends Command {
+    private final Div contentDiv;
+    private final SessionFootprint footprint;
+
+    /**
+     * Constructeur.
+     *
+     * @param contentDiv Zone où afficher les mesures.
+     * @param footprint  Empreinte mémoire de la session.
+     */
+    public StatsCommand(Div contentDiv, SessionFootprint footprint) {
+        super(
+            List.of("stats"),
+            "Stats",
+            """
+            📈 stats
+
+            💡 Affiche les mesures de performance (délai avant le premier post...)
+                et la mémoire occupée par la session
+            """
+        );
+        this.contentDiv = contentDiv;
+        this.footprint = footprint;
+    }
+
+    /**
+     * Affiche le résumé de chaque métrique.
+     *
+     * @param input Entrée utilisateur (ignorée ici).
+     */
+    @Override
+    public void execute(String input) {
+        Map<String, PerfMetrics.Snapshot> metrics = PerfMetrics.snapshot();
+
+        StringBuilder out = new StringBuilder("Mesures de performance :\n");
+        if (metrics.isEmpty()) {
+            out.append("Aucune mesure pour le moment.\n");
+        }
+        metrics.forEach((name, m) -> out.append(String.format(
+                "%s : n=%d, dernier=%.0f ms, médiane=%.0f ms, p95=%.0f ms, max=%.0f ms%n",
+                name, m.count(), m.lastMs(), m.p50Ms(), m.p95Ms(), m.maxMs())));
+        out.append("Lectures automatiques actives : ").append(PlayCommand.activePlayers()).append("\n");
+
+        SessionFootprint.Report report = footprint.measure();
+        out.append("\nMémoire estimée de la session : ").append(kb(report.total())).append("\n");
+        out.append("• résultat : ").append(kb(report.results())).append(" (").append(report.rows())
+                .append(" / ").append(footprint.budget().getMaxRows()).append(" lignes)\n");
+        out.append("• index : ").append(kb(report.index())).append(" (").append(report.indexed())
+                .append(" posts, budget ").append(kb(footprint.budget().getMaxIndexBytes())).append(")\n");
+        out.append("• historique : ").append(kb(report.history())).append(" (budget ")
+                .append(footprint.budget().getMaxHistory()).append(" commandes)\n");
+        out.append("• cache de détail : ").append(kb(report.detailCache())).append(" (budget ")
+                .append(kb(footprint.budget().getMaxDetailCacheBytes())).append(")\n");
+        if (BodySlabs.isEnabled()) {
+            BodySlabs.Stats slabs = BodySlabs.stats();
+            out.append("\nCorps hors tas (toutes sessions) : ").append(kb(slabs.live())).append(" utilisés / ")
+                    .append(kb(slabs.reserved())).append(" réservés (").append(slabs.bodies()).append(" corps, ")
+                    .append(slabs.slabs()).append(" slab(s), ").append(slabs.fallbacks())
+                    .append(" gardé(s) sur le tas)\n");
+        }
+
+        contentDiv.removeAll();
+        Div div = new Div();
+        div.getStyle().set("white-space", "pre-wrap");
+        div.setText(out.toString());
+        contentDiv.add(div);
+    }
+
+    private static String kb(long bytes) {
+        return String.format("%.1f Ko", bytes / 1024.0);
+    }
+}
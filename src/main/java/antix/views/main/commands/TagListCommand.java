@@ -1,12 +1,11 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.model.Tag;
-import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Div;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Commande listant les tags les plus fréquents dans les posts actuellement
@@ -14,16 +13,16 @@ import java.util.stream.Collectors;
  * Utile pour identifier les sujets dominants.
  */
 public class TagListCommand extends Command {
-    private final Grid<SocialMediaPost> grid;
+    private final PostResultSet results;
     private final Div contentDiv;
 
     /**
      * Constructeur.
      *
-     * @param grid       Grille contenant les posts.
+     * @param results    Posts affichés dans la grille.
      * @param contentDiv Zone où afficher les résultats.
      */
-    public TagListCommand(Grid<SocialMediaPost> grid, Div contentDiv) {
+    public TagListCommand(PostResultSet results, Div contentDiv) {
         super(
             List.of("taglist"),
             "Tag List",
@@ -33,7 +32,7 @@ public class TagListCommand extends Command {
             💡 Liste les tags les plus fréquents dans les posts affichés
             """
         );
-        this.grid = grid;
+        this.results = results;
         this.contentDiv = contentDiv;
     }
 
@@ -45,8 +44,7 @@ public class TagListCommand extends Command {
      */
     @Override
     public void execute(String input) {
-        List<SocialMediaPost> items = grid.getDataProvider().fetch(new com.vaadin.flow.data.provider.Query<>())
-                .collect(Collectors.toList());
+        List<SocialMediaPost> items = results;
         Map<String, Integer> tagFrequency = new HashMap<>();
 
         for (SocialMediaPost post : items) {
@@ -1,5 +1,6 @@
 package antix.views.main.commands;
 
+import antix.index.PostResultSet;
 import antix.model.SocialMediaPost;
 import antix.views.main.PostSelector;
 import com.vaadin.flow.component.grid.Grid;
@@ -14,9 +15,10 @@ public class TopCommand extends NavigationCommand {
      * Constructeur.
      *
      * @param grid     La grille contenant les posts affichés.
+     * @param results  Posts affichés dans la grille.
      * @param selector Le sélecteur responsable de l'affichage du post choisi.
      */
-    public TopCommand(Grid<SocialMediaPost> grid, PostSelector selector) {
+    public TopCommand(Grid<SocialMediaPost> grid, PostResultSet results, PostSelector selector) {
         super(
             List.of("top"),
             "Top",
@@ -26,6 +28,7 @@ public class TopCommand extends NavigationCommand {
             💡 Sélectionne le post le plus haut de la page
             """,
             grid,
+            results,
             selector
         );
     }
@@ -0,0 +1,90 @@
+-- Archive des posts récupérés (voir antix.service.PostArchive)
+
+CREATE TABLE IF NOT EXISTS archived_post (
+    platform         VARCHAR(32)   NOT NULL,
+    post_id          VARCHAR(128)  NOT NULL,
+    title            VARCHAR(1024),
+    author           VARCHAR(256),
+    subreddit        VARCHAR(256),
+    permalink        VARCHAR(2048),
+    post_url         VARCHAR(2048),
+    content          CLOB,
+    score            INT           DEFAULT 0 NOT NULL,
+    num_comments     INT           DEFAULT 0 NOT NULL,
+    like_count       INT           DEFAULT 0 NOT NULL,
+    share_count      INT           DEFAULT 0 NOT NULL,
+    created_utc      BIGINT        DEFAULT 0 NOT NULL,
+    logo_path        VARCHAR(512),
+    badge_color      VARCHAR(32),
+    badge_text_color VARCHAR(32),
+    fetched_at       TIMESTAMP     NOT NULL,
+    PRIMARY KEY (platform, post_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_post_created ON archived_post (created_utc);
+
+-- Tags portés par les posts eux-mêmes
+CREATE TABLE IF NOT EXISTS archived_post_tag (
+    platform VARCHAR(32)  NOT NULL,
+    post_id  VARCHAR(128) NOT NULL,
+    tag      VARCHAR(256) NOT NULL,
+    PRIMARY KEY (platform, post_id, tag)
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_post_tag_tag ON archived_post_tag (tag);
+
+-- Tags de recherche ayant ramené un post (sans être forcément portés par lui)
+CREATE TABLE IF NOT EXISTS archived_search_hit (
+    tag      VARCHAR(256) NOT NULL,
+    platform VARCHAR(32)  NOT NULL,
+    post_id  VARCHAR(128) NOT NULL,
+    PRIMARY KEY (tag, platform, post_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_search_hit_post ON archived_search_hit (platform, post_id);
+
+-- Métriques de chaque post à chaque récupération ; les anciennes mesures sont
+-- condensées à une par jour (voir antix.service.ArchiveRetention)
+CREATE TABLE IF NOT EXISTS archived_metric (
+    platform     VARCHAR(32)  NOT NULL,
+    post_id      VARCHAR(128) NOT NULL,
+    sampled_at   TIMESTAMP    NOT NULL,
+    score        INT          NOT NULL,
+    num_comments INT          NOT NULL,
+    like_count   INT          NOT NULL,
+    share_count  INT          NOT NULL,
+    PRIMARY KEY (platform, post_id, sampled_at)
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_metric_sampled ON archived_metric (sampled_at);
+
+-- Dernière récupération réseau de chaque tag (fraîcheur de l'archive)
+CREATE TABLE IF NOT EXISTS archived_fetch (
+    tag        VARCHAR(256) NOT NULL PRIMARY KEY,
+    fetched_at TIMESTAMP    NOT NULL,
+    post_count INT          NOT NULL
+);
+
+-- Historique des commandes par utilisateur (voir antix.service.HistoryStore)
+CREATE TABLE IF NOT EXISTS command_history (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner     VARCHAR(64)   NOT NULL,
+    command   VARCHAR(1024) NOT NULL,
+    typed_at  TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_command_history_owner ON command_history (owner, id);
+
+-- Dernier état de la vue par utilisateur (voir antix.service.SessionStore)
+CREATE TABLE IF NOT EXISTS session_snapshot (
+    owner    VARCHAR(64)        NOT NULL PRIMARY KEY,
+    data     VARBINARY(1048576) NOT NULL,
+    saved_at TIMESTAMP          NOT NULL
+);
+
+-- Posts déjà vus par utilisateur, en filtres de Bloom (voir antix.service.SeenPostService)
+CREATE TABLE IF NOT EXISTS seen_post_filter (
+    owner    VARCHAR(64)        NOT NULL PRIMARY KEY,
+    data     VARBINARY(1048576) NOT NULL,
+    saved_at TIMESTAMP          NOT NULL
+);
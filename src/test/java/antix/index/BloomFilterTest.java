@@ -0,0 +1,79 @@
+package antix.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BloomFilter} : aucun faux négatif, taux de faux positifs proche de
+ * celui demandé, et sérialisation sans perte.
+ */
+class BloomFilterTest {
+
+    @Test
+    void addReportsWhetherKeyWasNew() {
+        BloomFilter filter = BloomFilter.forCapacity(1000, 0.01);
+        assertTrue(filter.add("reddit:1"));
+        assertFalse(filter.add("reddit:1"));
+        assertTrue(filter.mightContain("reddit:1"));
+        assertEquals(1, filter.count());
+    }
+
+    @Test
+    void noFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = BloomFilter.forCapacity(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("reddit:" + i);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("reddit:" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("mastodon:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "taux de faux positifs trop élevé : " + falsePositives);
+    }
+
+    @Test
+    void roundTripPreservesContentAndCount() {
+        BloomFilter filter = BloomFilter.forCapacity(5000, 0.001);
+        for (int i = 0; i < 3000; i++) {
+            filter.add("mastodon:" + i);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(filter.sizeInBytes());
+        filter.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        BloomFilter read = BloomFilter.readFrom(buffer);
+        assertEquals(filter.count(), read.count());
+        assertEquals(filter.sizeInBytes(), read.sizeInBytes());
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(read.mightContain("mastodon:" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(filter.mightContain("reddit:" + i), read.mightContain("reddit:" + i));
+        }
+    }
+
+    @Test
+    void readFromRejectsCorruptInput() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.readFrom(ByteBuffer.allocate(4)));
+
+        BloomFilter filter = BloomFilter.forCapacity(100, 0.01);
+        ByteBuffer buffer = ByteBuffer.allocate(filter.sizeInBytes());
+        filter.writeTo(buffer);
+
+        ByteBuffer badVersion = ByteBuffer.wrap(buffer.array().clone());
+        badVersion.put(0, (byte) 99);
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.readFrom(badVersion));
+
+        ByteBuffer truncated = ByteBuffer.wrap(buffer.array(), 0, buffer.capacity() - 8);
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.readFrom(truncated));
+    }
+}
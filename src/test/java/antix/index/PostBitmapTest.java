@@ -0,0 +1,148 @@
+package antix.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opérations de {@link PostBitmap} comparées à {@link BitSet}, sur des
+ * conteneurs creux (tableau) et denses (bitmap) et à travers leurs conversions.
+ */
+class PostBitmapTest {
+
+    // Plus de 4096 valeurs dans un bloc de 65 536 : conteneur bitmap
+    private static final int DENSE = 6000;
+
+    @Test
+    void andOrAndNotMatchBitSetAcrossContainerKinds() {
+        Random random = new Random(42);
+        int[][] shapes = {
+                {100, 100},        // tableau / tableau
+                {DENSE, 100},      // bitmap / tableau
+                {100, DENSE},      // tableau / bitmap
+                {DENSE, DENSE},    // bitmap / bitmap
+                {30_000, 30_000},  // bitmap / bitmap, résultat dense
+        };
+        for (int[] shape : shapes) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            PostBitmap a = randomBitmap(random, shape[0], expectedA);
+            PostBitmap b = randomBitmap(random, shape[1], expectedB);
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            BitSet andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+
+            assertArrayEquals(and.stream().toArray(), a.and(b).toArray());
+            assertArrayEquals(or.stream().toArray(), a.or(b).toArray());
+            assertArrayEquals(andNot.stream().toArray(), a.andNot(b).toArray());
+            assertEquals(or.cardinality(), a.or(b).cardinality());
+        }
+    }
+
+    @Test
+    void operationsDoNotModifyOperands() {
+        PostBitmap a = PostBitmap.range(10_000);
+        PostBitmap b = PostBitmap.of(1, 2, 3, 70_000);
+        a.and(b);
+        a.or(b);
+        a.andNot(b);
+        assertEquals(10_000, a.cardinality());
+        assertArrayEquals(new int[] {1, 2, 3, 70_000}, b.toArray());
+    }
+
+    @Test
+    void andNotEmptiesDenseContainerIntoSparseResult() {
+        PostBitmap all = PostBitmap.range(DENSE);
+        PostBitmap most = PostBitmap.range(DENSE);
+        most.remove(17);
+        most.remove(5000);
+        assertArrayEquals(new int[] {17, 5000}, all.andNot(most).toArray());
+        assertTrue(all.andNot(all).isEmpty());
+    }
+
+    @Test
+    void containersConvertBothWaysOnAddAndRemove() {
+        PostBitmap bitmap = new PostBitmap();
+        for (int i = 0; i < DENSE; i++) {
+            bitmap.add(i * 2);
+        }
+        long dense = bitmap.sizeInBytes();
+        assertTrue(dense >= 1024 * 8, "conteneur bitmap attendu");
+
+        for (int i = 100; i < DENSE; i++) {
+            bitmap.remove(i * 2);
+        }
+        assertEquals(100, bitmap.cardinality());
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(bitmap.contains(i * 2));
+            assertFalse(bitmap.contains(i * 2 + 1));
+            expected.set(i * 2);
+        }
+
+        // Le conteneur redevenu tableau se combine encore correctement
+        BitSet or = (BitSet) expected.clone();
+        or.set(1);
+        or.set(3);
+        assertArrayEquals(or.stream().toArray(), bitmap.or(PostBitmap.of(1, 3)).toArray());
+        BitSet andNot = (BitSet) expected.clone();
+        andNot.clear(0, 50);
+        assertArrayEquals(andNot.stream().toArray(), bitmap.andNot(PostBitmap.range(50)).toArray());
+        BitSet and = (BitSet) expected.clone();
+        and.and(bitSetOf(PostBitmap.range(DENSE)));
+        assertArrayEquals(and.stream().toArray(), bitmap.and(PostBitmap.range(DENSE)).toArray());
+
+        // Puis repasse en bitmap quand il se remplit de nouveau
+        for (int i = 100; i < DENSE; i++) {
+            bitmap.add(i * 2);
+        }
+        assertEquals(DENSE, bitmap.cardinality());
+        assertTrue(bitmap.contains((DENSE - 1) * 2));
+        assertFalse(bitmap.contains(DENSE * 2));
+    }
+
+    @Test
+    void rangeCoversSeveralChunks() {
+        PostBitmap range = PostBitmap.range(70_000);
+        assertEquals(70_000, range.cardinality());
+        assertTrue(range.contains(0));
+        assertTrue(range.contains(69_999));
+        assertFalse(range.contains(70_000));
+        assertTrue(PostBitmap.range(0).isEmpty());
+    }
+
+    @Test
+    void removingLastValueDropsChunk() {
+        PostBitmap bitmap = PostBitmap.of(5, 70_000, 140_000);
+        bitmap.remove(70_000);
+        assertArrayEquals(new int[] {5, 140_000}, bitmap.toArray());
+        bitmap.remove(70_000);
+        assertEquals(2, bitmap.cardinality());
+    }
+
+    private static BitSet bitSetOf(PostBitmap bitmap) {
+        BitSet bits = new BitSet();
+        for (int value : bitmap.toArray()) {
+            bits.set(value);
+        }
+        return bits;
+    }
+
+    /** Valeurs aléatoires, surtout dans le premier bloc de 65 536, quelques-unes dans les deux suivants. */
+    private static PostBitmap randomBitmap(Random random, int count, BitSet expected) {
+        PostBitmap bitmap = new PostBitmap();
+        for (int i = 0; i < count; i++) {
+            int value = i % 10 == 0 ? random.nextInt(3 * 65_536) : random.nextInt(65_536);
+            bitmap.add(value);
+            expected.set(value);
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,129 @@
+package antix.index;
+
+import antix.model.SocialMediaPost;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Différences calculées par {@link PostResultSet#setItems} : insertions,
+ * retraits, déplacements (hors plus longue sous-suite croissante) et mises à jour.
+ */
+class PostResultSetTest {
+
+    private final PostResultSet results = new PostResultSet();
+    private final List<PostResultSet.Change> changes = new ArrayList<>();
+
+    PostResultSetTest() {
+        results.addChangeListener(changes::add);
+    }
+
+    @Test
+    void identicalListFiresNoChange() {
+        List<SocialMediaPost> posts = posts("a", "b", "c");
+        results.setItems(posts);
+        long version = results.version();
+        changes.clear();
+
+        results.setItems(posts);
+        assertTrue(changes.isEmpty());
+        assertEquals(version, results.version());
+    }
+
+    @Test
+    void reversalMovesAllButOne() {
+        List<SocialMediaPost> posts = posts("a", "b", "c", "d", "e");
+        results.setItems(posts);
+        changes.clear();
+
+        results.setItems(List.of(posts.get(4), posts.get(3), posts.get(2), posts.get(1), posts.get(0)));
+        assertChange(0, 0, 4);
+    }
+
+    @Test
+    void movingOnePostToTheFrontCountsOneMove() {
+        List<SocialMediaPost> posts = posts("a", "b", "c", "d", "e");
+        results.setItems(posts);
+        changes.clear();
+
+        results.setItems(List.of(posts.get(4), posts.get(0), posts.get(1), posts.get(2), posts.get(3)));
+        assertChange(0, 0, 1);
+    }
+
+    @Test
+    void swapInTheMiddleCountsOneMove() {
+        List<SocialMediaPost> posts = posts("a", "b", "c", "d", "e", "f");
+        results.setItems(posts);
+        changes.clear();
+
+        results.setItems(List.of(posts.get(0), posts.get(1), posts.get(3), posts.get(2), posts.get(4), posts.get(5)));
+        assertChange(0, 0, 1);
+    }
+
+    @Test
+    void insertionsAndRemovalsAreNotMoves() {
+        List<SocialMediaPost> posts = posts("a", "b", "c", "d");
+        results.setItems(posts);
+        changes.clear();
+
+        List<SocialMediaPost> next = new ArrayList<>(List.of(posts.get(0), posts.get(2)));
+        next.add(1, post("x"));
+        next.add(post("y"));
+        results.setItems(next);
+        assertChange(2, 2, 0);
+    }
+
+    @Test
+    void newVersionOfSamePostIsAnUpdateOnly() {
+        List<SocialMediaPost> posts = posts("a", "b", "c");
+        results.setItems(posts);
+        changes.clear();
+
+        SocialMediaPost refreshed = post("b");
+        refreshed.setScore(42);
+        results.setItems(List.of(posts.get(0), refreshed, posts.get(2)));
+
+        assertEquals(1, changes.size());
+        PostResultSet.Change change = changes.get(0);
+        assertFalse(change.isStructural());
+        assertEquals(List.of(refreshed), change.updated());
+        assertEquals(1, results.indexOf(refreshed));
+    }
+
+    @Test
+    void duplicateKeyInNewListCountsAsInsertion() {
+        List<SocialMediaPost> posts = posts("a", "b");
+        results.setItems(posts);
+        changes.clear();
+
+        results.setItems(List.of(posts.get(0), posts.get(1), post("a")));
+        assertChange(1, 0, 0);
+    }
+
+    private void assertChange(int inserted, int removed, int moved) {
+        assertEquals(1, changes.size());
+        PostResultSet.Change change = changes.get(0);
+        assertEquals(inserted, change.inserted(), "insérés");
+        assertEquals(removed, change.removed(), "retirés");
+        assertEquals(moved, change.moved(), "déplacés");
+    }
+
+    private static List<SocialMediaPost> posts(String... ids) {
+        List<SocialMediaPost> posts = new ArrayList<>();
+        for (String id : ids) {
+            posts.add(post(id));
+        }
+        return posts;
+    }
+
+    private static SocialMediaPost post(String id) {
+        SocialMediaPost post = new SocialMediaPost();
+        post.setPlatform("reddit");
+        post.setId(id);
+        return post;
+    }
+}
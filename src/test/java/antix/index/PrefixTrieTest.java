@@ -0,0 +1,94 @@
+package antix.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Suggestions de {@link PrefixTrie} : ordre, retrait et élagage des nœuds vides.
+ */
+class PrefixTrieTest {
+
+    private final PrefixTrie trie = new PrefixTrie();
+
+    @Test
+    void completesByWeightThenRecency() {
+        trie.add("java", 3);
+        trie.add("javascript", 1);
+        trie.add("jazz", 1);
+
+        assertEquals(List.of("java", "jazz", "javascript"), trie.complete("ja", 8));
+        assertEquals(List.of("java", "javascript"), trie.complete("jav", 8));
+        assertEquals(List.of("java"), trie.complete("ja", 1));
+        assertEquals(List.of(), trie.complete("python", 8));
+    }
+
+    @Test
+    void keepsOnlyBestSuggestionsPerNode() {
+        for (int i = 0; i < 20; i++) {
+            trie.add("tag" + i, i + 1);
+        }
+        List<String> best = trie.complete("tag", 100);
+        assertEquals(PrefixTrie.MAX_SUGGESTIONS, best.size());
+        assertEquals("tag19", best.get(0));
+    }
+
+    @Test
+    void partialRemovalKeepsWordWithLowerWeight() {
+        trie.add("java", 3);
+        trie.add("jazz", 2);
+        trie.remove("java", 2);
+
+        assertEquals(List.of("jazz", "java"), trie.complete("ja", 8));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void removalToZeroDropsWordAndPrunesEmptyBranch() {
+        trie.add("abc", 1);
+        trie.add("abd", 1);
+        trie.remove("abc", 1);
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of("abd"), trie.complete("ab", 8));
+        assertEquals(List.of(), trie.complete("abc", 8));
+
+        trie.remove("abd", 5);
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.complete("a", 8));
+        assertEquals(List.of(), trie.complete("", 8));
+    }
+
+    @Test
+    void removingPrefixWordKeepsLongerWords() {
+        trie.add("ab", 2);
+        trie.add("abc", 1);
+        trie.remove("ab", 2);
+
+        assertEquals(List.of("abc"), trie.complete("a", 8));
+        assertEquals(List.of("abc"), trie.complete("ab", 8));
+    }
+
+    @Test
+    void removingUnknownWordIsNoOp() {
+        trie.add("abc", 1);
+        trie.remove("abx", 1);
+        trie.remove("ab", 1);
+        trie.remove("abcd", 1);
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of("abc"), trie.complete("a", 8));
+    }
+
+    @Test
+    void wordCanBeAddedAgainAfterRemoval() {
+        trie.add("abc", 1);
+        trie.remove("abc", 1);
+        trie.add("abc", 4);
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of("abc"), trie.complete("ab", 8));
+    }
+}
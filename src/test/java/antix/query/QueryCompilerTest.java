@@ -0,0 +1,67 @@
+package antix.query;
+
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recherches dans le contenu : texte brut en minuscules, extrait par l'index
+ * et renouvelé quand un post est mis à jour.
+ */
+class QueryCompilerTest {
+
+    @Test
+    void contentTermMatchesPlainTextIgnoringCaseAndMarkup() {
+        PostIndex index = new PostIndex();
+        index.add("t", post("a", "<p>Hello <b>World</b></p>"));
+        index.add("t", post("b", "<a href=\"world\">lien</a>"));
+        index.add("t", post("c", null));
+
+        assertEquals(List.of("a"), ids(index, "c:world"));
+        assertEquals(List.of("a"), ids(index, "\"hello world\""));
+        assertEquals(List.of("b", "c"), ids(index, "!c:world"));
+    }
+
+    @Test
+    void updatedPostIsSearchedWithItsNewContent() {
+        PostIndex index = new PostIndex();
+        index.add("t", post("a", "avant"));
+        assertEquals(List.of("a"), ids(index, "c:avant"));
+
+        index.add("t", post("a", "après"));
+        assertEquals(List.of(), ids(index, "c:avant"));
+        assertEquals(List.of("a"), ids(index, "c:après"));
+    }
+
+    @Test
+    void compactionKeepsTextsAlignedWithOrdinals() {
+        PostIndex index = new PostIndex();
+        SocialMediaPost first = post("a", "premier");
+        SocialMediaPost second = post("b", "second");
+        index.add("t", first);
+        index.add("t", second);
+        assertEquals(List.of("a"), ids(index, "c:premier"));
+
+        index.retainAll(List.of(second));
+        assertEquals(List.of("b"), ids(index, "c:second"));
+        assertEquals(List.of(), ids(index, "c:premier"));
+    }
+
+    private static List<String> ids(PostIndex index, String query) {
+        CompiledQuery compiled = QueryCompiler.compile(query, QueryParser.parse(query));
+        return index.resolve(compiled.execute(index)).stream().map(SocialMediaPost::getId).toList();
+    }
+
+    private static SocialMediaPost post(String id, String content) {
+        SocialMediaPost post = new SocialMediaPost();
+        post.setPlatform("reddit");
+        post.setId(id);
+        post.setContent(content);
+        return post;
+    }
+}
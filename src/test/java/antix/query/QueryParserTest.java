@@ -0,0 +1,84 @@
+package antix.query;
+
+import antix.index.PostIndex;
+import antix.model.SocialMediaPost;
+import antix.query.QueryNode.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Termes de date de {@link QueryParser} : un jour couvre [début, début du lendemain[.
+ */
+class QueryParserTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+    private static final long START = LocalDate.of(2024, 5, 1).atStartOfDay(ZONE).toEpochSecond();
+    private static final long END = LocalDate.of(2024, 5, 2).atStartOfDay(ZONE).toEpochSecond();
+
+    @Test
+    void equalsCoversTheWholeDay() {
+        assertEquals(new And(List.of(new DateTerm(Comparison.GE, START), new DateTerm(Comparison.LT, END))),
+                QueryParser.parse("date:=2024-05-01"));
+    }
+
+    @Test
+    void greaterThanStartsAtTheNextDay() {
+        assertEquals(new DateTerm(Comparison.GE, END), QueryParser.parse("date:>2024-05-01"));
+    }
+
+    @Test
+    void greaterOrEqualStartsAtTheDay() {
+        assertEquals(new DateTerm(Comparison.GE, START), QueryParser.parse("date:>=2024-05-01"));
+        assertEquals(new DateTerm(Comparison.GE, START), QueryParser.parse("date:2024-05-01"));
+    }
+
+    @Test
+    void lessOrEqualIncludesTheWholeDay() {
+        assertEquals(new DateTerm(Comparison.LT, END), QueryParser.parse("date:<=2024-05-01"));
+    }
+
+    @Test
+    void lessThanStopsBeforeTheDay() {
+        assertEquals(new DateTerm(Comparison.LT, START), QueryParser.parse("date:<2024-05-01"));
+    }
+
+    @Test
+    void operatorsSelectPostsByDay() {
+        PostIndex index = new PostIndex();
+        index.add("t", post("veille", LocalDateTime.of(2024, 4, 30, 23, 59)));
+        index.add("t", post("minuit", LocalDateTime.of(2024, 5, 1, 0, 0)));
+        index.add("t", post("soir", LocalDateTime.of(2024, 5, 1, 21, 30)));
+        index.add("t", post("lendemain", LocalDateTime.of(2024, 5, 2, 0, 0)));
+
+        assertEquals(List.of("minuit", "soir"), ids(index, "date:=2024-05-01"));
+        assertEquals(List.of("lendemain"), ids(index, "date:>2024-05-01"));
+        assertEquals(List.of("minuit", "soir", "lendemain"), ids(index, "date:>=2024-05-01"));
+        assertEquals(List.of("veille", "minuit", "soir"), ids(index, "date:<=2024-05-01"));
+        assertEquals(List.of("veille"), ids(index, "date:<2024-05-01"));
+    }
+
+    @Test
+    void invalidDateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> QueryParser.parse("date:=2024-13-01"));
+    }
+
+    private static List<String> ids(PostIndex index, String query) {
+        CompiledQuery compiled = QueryCompiler.compile(query, QueryParser.parse(query));
+        return index.resolve(compiled.execute(index)).stream().map(SocialMediaPost::getId).toList();
+    }
+
+    private static SocialMediaPost post(String id, LocalDateTime created) {
+        SocialMediaPost post = new SocialMediaPost();
+        post.setPlatform("reddit");
+        post.setId(id);
+        post.setCreatedUtc(created.atZone(ZONE).toEpochSecond());
+        return post;
+    }
+}
@@ -0,0 +1,71 @@
+package antix.views.main;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Codec de {@link SessionSnapshot} : aller-retour, bornes des commandes et
+ * rejet des données corrompues.
+ */
+class SessionSnapshotTest {
+
+    private static final SessionSnapshot SAMPLE = new SessionSnapshot(
+            List.of("reddit:abc", "mastodon:123", "bluesky:xyz"), 1, ArchiveTagFetcher.Source.ARCHIVE,
+            List.of("h java", "filter likes:>5", "sort date"));
+
+    @Test
+    void roundTrip() {
+        assertEquals(SAMPLE, SessionSnapshot.decode(SAMPLE.encode()));
+    }
+
+    @Test
+    void viewCommandsAreTruncatedAndCapped() {
+        List<String> commands = new ArrayList<>();
+        commands.add("h java");
+        for (int i = 0; i < 100; i++) {
+            commands.add("filter c:" + "x".repeat(70_000) + i);
+        }
+        SessionSnapshot snapshot = new SessionSnapshot(List.of(), -1, ArchiveTagFetcher.Source.LIVE, commands);
+
+        SessionSnapshot read = SessionSnapshot.decode(snapshot.encode());
+        assertEquals(SessionSnapshot.MAX_COMMANDS, read.viewCommands().size());
+        assertEquals("h java", read.viewCommands().get(0));
+        for (String command : read.viewCommands()) {
+            assertTrue(command.length() <= SessionSnapshot.MAX_COMMAND_LENGTH);
+        }
+    }
+
+    @Test
+    void decodeRejectsCorruptInput() {
+        byte[] valid = SAMPLE.encode();
+
+        assertCorrupt(new byte[0]);
+        assertCorrupt(new byte[] {42});
+
+        byte[] badSource = valid.clone();
+        badSource[1] = 17;
+        assertCorrupt(badSource);
+
+        byte[] negativeCount = valid.clone();
+        negativeCount[2] = (byte) 0x80;
+        assertCorrupt(negativeCount);
+
+        byte[] hugeCount = valid.clone();
+        hugeCount[2] = 0x7f;
+        assertCorrupt(hugeCount);
+
+        for (int length = 1; length < valid.length; length++) {
+            assertCorrupt(Arrays.copyOf(valid, length));
+        }
+    }
+
+    private static void assertCorrupt(byte[] data) {
+        assertThrows(IllegalArgumentException.class, () -> SessionSnapshot.decode(data),
+                "accepté : " + Arrays.toString(data));
+    }
+}